@@ -0,0 +1,75 @@
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A non-blocking counterpart to Semaphore for a pool of numbered resources (tables, chefs, waiters).
+ * acquire() never blocks: it returns a future that is already complete when a resource is free,
+ * or one that completes when release() hands a resource over. Waiters are served first come,
+ * first served; free IDs are reused most recently released first, like TableBuffer.
+ * Futures are completed outside the lock, on the releasing thread, so dependent stages should be
+ * attached with the *Async variants to keep the releasing thread from running them inline.
+ */
+public class AsyncPermits {
+    private final int[] freeIds; // Stack of free resource IDs
+    private int freeCount;
+    private final ArrayDeque<CompletableFuture<Integer>> waiting = new ArrayDeque<>();
+
+    /**
+     * Creates a pool of resources with IDs 1 to size, all free.
+     * @param size Number of resources.
+     */
+    public AsyncPermits(int size) {
+        this.freeIds = new int[size];
+        for (int i = 0; i < size; i++) {
+            freeIds[i] = size - i; // ID 1 on top of the stack
+        }
+        this.freeCount = size;
+    }
+
+    /**
+     * Requests a resource without blocking.
+     * @return A future completed with the ID of the resource granted.
+     */
+    public CompletableFuture<Integer> acquire() {
+        synchronized (this) {
+            if (freeCount == 0) {
+                CompletableFuture<Integer> granted = new CompletableFuture<>();
+                waiting.add(granted);
+                return granted;
+            }
+            return CompletableFuture.completedFuture(freeIds[--freeCount]);
+        }
+    }
+
+    /**
+     * Returns a resource, handing it straight to the longest waiting request if there is one.
+     * @param id ID of the resource, as granted by acquire().
+     */
+    public void release(int id) {
+        CompletableFuture<Integer> next;
+        synchronized (this) {
+            next = waiting.poll();
+            if (next == null) {
+                freeIds[freeCount++] = id;
+                return;
+            }
+        }
+        next.complete(id);
+    }
+
+    /**
+     * Returns the number of resources currently free.
+     * @return The free count.
+     */
+    public synchronized int getAvailable() {
+        return freeCount;
+    }
+
+    /**
+     * Returns the number of requests waiting for a resource.
+     * @return The queue length.
+     */
+    public synchronized int getWaiting() {
+        return waiting.size();
+    }
+}
@@ -0,0 +1,249 @@
+import java.io.IOException;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the restaurant as one chain of asynchronous stages per customer instead of one thread per actor:
+ * seat, order, cook, serve, eat and leave. Tables, chefs and waiters are AsyncPermits, so a stage waiting
+ * for one holds no thread, and simulated durations are timers on a TimingWheel rather than sleeps.
+ * A small fixed pool therefore drives any number of customers in the restaurant at once.
+ * Records the same latencies, log lines and journal events as the threaded actors.
+ * A waiter is held only while serving; the waiter who served a meal clears the table when the
+ * customer leaves, which takes no simulated time, so eating does not tie up a waiter.
+ * If a stage fails, the customer gives back whatever table, chef or waiter they still hold and is
+ * counted as done, so one failure cannot stall the other customers or keep the run from ending.
+ */
+public class AsyncPipeline {
+    private final Map<String, Integer> prepTimesMinutes;
+    private final CustomerSource customers;
+    private final SimulationClock clock;
+    private final Executor executor; // Runs every stage
+    private final TimingWheel timers; // Fires arrivals and simulated durations onto the executor
+    private final AsyncPermits tables;
+    private final AsyncPermits chefs;
+    private final AsyncPermits waiters;
+    private final CustomerTracker tracker;
+    private final LatencyStats stats;
+    private final EventLog log;
+    private final EventRecorder recorder;
+    private final SplittableRandom arrivals; // Split once per customer in arrival order; only the arrival chain touches it
+
+    public AsyncPipeline(int numChefs, int numWaiters, int numTables, Map<String, Integer> prepTimesMinutes,
+                         CustomerSource customers, SimulationClock clock, Executor executor,
+                         TimingWheel timers, long seed, CustomerTracker tracker, LatencyStats stats, EventLog log, EventRecorder recorder) {
+        this.prepTimesMinutes = prepTimesMinutes;
+        this.customers = customers;
+        this.clock = clock;
+        this.executor = executor;
+        this.timers = timers;
+        this.arrivals = new SplittableRandom(seed);
+        this.tables = new AsyncPermits(numTables);
+        this.chefs = new AsyncPermits(numChefs);
+        this.waiters = new AsyncPermits(numWaiters);
+        this.tracker = tracker;
+        this.stats = stats;
+        this.log = log;
+        this.recorder = recorder;
+    }
+
+    /**
+     * Starts reading customers. Each arrival schedules the next one, so customers are read from
+     * the source only as the clock reaches them. Returns immediately; the tracker reports completion.
+     */
+    public void start() {
+        executor.execute(this::scheduleNextArrival);
+    }
+
+    // Reads the next customer and starts their chain at their arrival time. Customers listed out of order arrive immediately.
+    // Each call schedules the next, so calls run one at a time and customers get their eating-time generators in
+    // reading order: a seed gives the same eating times however the pool interleaves the stages.
+    private void scheduleNextArrival() {
+        try {
+            Customer customer = customers.next();
+            if (customer == null) {
+                if (tracker.getEntered() == 0) {
+                    log.info(clock.getTimeMillis(), "Warning: No customer information found in the config file.");
+                }
+                tracker.arrivalsComplete();
+                return;
+            }
+            long arrivalMillis = clock.getStartOfDayMillis() + (long) customer.getArrivalTimeMinutes() * 60 * 1000;
+            SplittableRandom random = arrivals.split();
+            timers.schedule(() -> {
+                tracker.customerEntered(); // Counted before the chain starts so it cannot be served first
+                serve(customer, random);
+                scheduleNextArrival();
+            }, clock.getRealNanosUntil(arrivalMillis), TimeUnit.NANOSECONDS);
+        } catch (IOException e) {
+            System.err.println("Error reading customers: " + e.getMessage() + ". No further customers will arrive.");
+            tracker.arrivalsComplete();
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error in configuration file format: " + e.getMessage() + ". No further customers will arrive.");
+            tracker.arrivalsComplete();
+        } catch (RejectedExecutionException e) {
+            tracker.arrivalsComplete(); // Simulation is shutting down
+        }
+    }
+
+    /**
+     * Builds one customer's chain of stages. Each stage that needs a resource waits on its permits
+     * without holding a thread; each stage that takes simulated time waits on a timer.
+     * @param customer The customer who has just arrived.
+     * @param random The customer's own generator, for their eating time.
+     * @return A future completed once the customer has left and the table is clear, or has given up after a failure.
+     */
+    private CompletableFuture<Void> serve(Customer customer, SplittableRandom random) {
+        Visit visit = new Visit();
+        return CompletableFuture.completedFuture(customer)
+                .thenApply(this::arrive) // Inside the chain, so a failure here is handled like any other stage's
+                .thenCompose(arrivalTimestamp -> tables.acquire().thenApply(tableId -> visit.tableId = tableId)
+                        .thenApplyAsync(tableId -> seat(customer, arrivalTimestamp, tableId), executor))
+                .thenCompose(order -> chefs.acquire().thenApply(chefId -> visit.chefId = chefId)
+                        .thenComposeAsync(chefId -> cook(order, chefId, visit), executor))
+                .thenCompose(meal -> waiters.acquire().thenApply(waiterId -> visit.waiterId = waiterId)
+                        .thenApplyAsync(waiterId -> bringMeal(meal, waiterId, random, visit), executor))
+                .thenCompose(seating -> at(seating.finishTimeMillis).thenApply(ignored -> seating))
+                .thenAccept(seating -> leave(seating, visit))
+                .whenComplete((ignored, e) -> {
+                    if (e != null) {
+                        abandon(customer, visit, e);
+                    }
+                });
+    }
+
+    // The customer walks in; returns their arrival time
+    private long arrive(Customer customer) {
+        long arrivalTimestamp = clock.getTimeMillis();
+        printEvent("Customer " + customer.getCustomerId(), "arrives.");
+        recorder.record(JournalEventType.ARRIVED, arrivalTimestamp, customer.getCustomerId(), -1, -1, customer.getOrderMealName(), 0);
+        return arrivalTimestamp;
+    }
+
+    // A stage failed: give back what the customer still holds and count them as done, so the run can still end
+    private void abandon(Customer customer, Visit visit, Throwable e) {
+        System.err.println("Customer " + customer.getCustomerId() + "'s pipeline failed: " + e.getMessage());
+        e.printStackTrace();
+        if (visit.waiterId > 0) {
+            waiters.release(visit.waiterId);
+        }
+        if (visit.chefId > 0) {
+            chefs.release(visit.chefId);
+        }
+        if (visit.tableId > 0) {
+            tables.release(visit.tableId);
+        }
+        if (!visit.done) {
+            tracker.customerServed();
+        }
+    }
+
+    // Seats the customer at the granted table and places their order (mirrors CustKiosk)
+    private OrderedMeal seat(Customer customer, long arrivalTimestamp, int tableId) {
+        String name = "Customer " + customer.getCustomerId();
+        long seatedTimestamp = clock.getTimeMillis();
+        long waitTime = seatedTimestamp - arrivalTimestamp;
+        stats.tableWait().record(waitTime);
+        printEvent(name, "is seated at Table " + tableId + " (Waited " + (waitTime / 1000.0) + " sec).");
+        recorder.record(JournalEventType.SEATED, seatedTimestamp, customer.getCustomerId(), -1, tableId, customer.getOrderMealName(), waitTime);
+
+        OrderedMeal order = new OrderedMeal(customer.getCustomerId(), customer.getOrderMealName(), tableId, arrivalTimestamp, clock.getTimeMillis());
+        printEvent(name, "places an order: " + customer.getOrderMealName() + ".");
+        recorder.record(JournalEventType.ORDER_PLACED, clock.getTimeMillis(), customer.getCustomerId(), -1, tableId, customer.getOrderMealName(), 0);
+        return order;
+    }
+
+    // Cooks the order on the granted chef and frees the chef when the meal is ready (mirrors Chef)
+    private CompletableFuture<CookedMeal> cook(OrderedMeal order, int chefId, Visit visit) {
+        String name = "Chef " + chefId;
+        printEvent(name, "starts preparing " + order.getMealName() + " for Customer " + order.getCustomerId() + ".");
+        long prepStartTime = clock.getTimeMillis();
+        long queueTime = prepStartTime - order.getOrderTimeMillis();
+        stats.orderQueue().record(queueTime);
+        stats.orderQueue(order.getMealName()).record(queueTime);
+        recorder.record(JournalEventType.PREP_STARTED, prepStartTime, order.getCustomerId(), chefId, order.getTableId(), order.getMealName(), 0);
+
+        int prepTimeMinutes = prepTimesMinutes.getOrDefault(order.getMealName(), 5); // Default 5 min if meal not found
+        return at(prepStartTime + (long) prepTimeMinutes * 60 * 1000).thenApply(ignored -> {
+            long prepEndTime = clock.getTimeMillis();
+            long actualPrepDuration = prepEndTime - prepStartTime;
+            stats.prep().record(actualPrepDuration);
+            recorder.record(JournalEventType.PREP_FINISHED, prepEndTime, order.getCustomerId(), chefId, order.getTableId(), order.getMealName(), actualPrepDuration);
+            CookedMeal cookedMeal = new CookedMeal(chefId, order, prepEndTime);
+            printEvent(name, "finishes preparing " + cookedMeal.getMealName() + " for Customer " + cookedMeal.getCustomerId() + ".");
+            visit.chefId = 0;
+            chefs.release(chefId);
+            return cookedMeal;
+        });
+    }
+
+    // Serves the meal with the granted waiter, who is free again straight away (mirrors Waiter)
+    private Seating bringMeal(CookedMeal meal, int waiterId, SplittableRandom random, Visit visit) {
+        printEvent("Waiter " + waiterId, "serves " + meal.getMealName() + " to Customer " + meal.getCustomerId() + " at Table " + meal.getTableId() + ".");
+        stats.cookedQueue().record(clock.getTimeMillis() - meal.getReadyTimeMillis());
+        recorder.record(JournalEventType.SERVED, clock.getTimeMillis(), meal.getCustomerId(), waiterId, meal.getTableId(), meal.getMealName(), 0);
+        visit.waiterId = 0;
+        waiters.release(waiterId);
+
+        // Eating takes between 5 and 15 simulation minutes
+        int eatingTimeMinutes = 5 + random.nextInt(11);
+        return new Seating(meal, waiterId, clock.getTimeMillis() + (long) eatingTimeMinutes * 60 * 1000);
+    }
+
+    // The customer leaves and the waiter who served them clears the table
+    private void leave(Seating seating, Visit visit) {
+        CookedMeal meal = seating.meal;
+        String name = "Waiter " + seating.waiterId;
+        printEvent(name, "sees Customer " + meal.getCustomerId() + " finishes eating and leaves the restaurant.");
+        stats.endToEnd().record(clock.getTimeMillis() - meal.getOrder().getArrivalTimeMillis());
+        recorder.record(JournalEventType.CUSTOMER_LEFT, clock.getTimeMillis(), meal.getCustomerId(), seating.waiterId, meal.getTableId(), meal.getMealName(), 0);
+        visit.tableId = 0;
+        tables.release(meal.getTableId());
+        printEvent(name, "clears Table " + meal.getTableId() + ". Table is now available.");
+        recorder.record(JournalEventType.TABLE_CLEARED, clock.getTimeMillis(), meal.getCustomerId(), seating.waiterId, meal.getTableId(), meal.getMealName(), 0);
+        visit.done = true;
+        tracker.customerServed();
+    }
+
+    /**
+     * Returns a future completed on the executor once the clock reaches the given time.
+     * @param timeMillis Absolute simulation time (ms since 00:00).
+     * @return The timer's future.
+     */
+    private CompletableFuture<Void> at(long timeMillis) {
+        CompletableFuture<Void> timer = new CompletableFuture<>();
+        timers.schedule(() -> timer.complete(null), clock.getRealNanosUntil(timeMillis), TimeUnit.NANOSECONDS);
+        return timer;
+    }
+
+    private void printEvent(String actor, String message) {
+        log.event(clock.getTimeMillis(), actor, message);
+    }
+
+    /**
+     * What one customer holds as their chain runs, so a failed stage can give it back.
+     * Only touched by that customer's stages, which run one after another.
+     */
+    private static final class Visit {
+        int tableId; // IDs start at 1; 0 while not held
+        int chefId;
+        int waiterId;
+        boolean done; // Counted as served
+    }
+
+    /** A served meal and the time its customer finishes eating. */
+    private static final class Seating {
+        final CookedMeal meal;
+        final int waiterId;
+        final long finishTimeMillis;
+
+        Seating(CookedMeal meal, int waiterId, long finishTimeMillis) {
+            this.meal = meal;
+            this.waiterId = waiterId;
+            this.finishTimeMillis = finishTimeMillis;
+        }
+    }
+}
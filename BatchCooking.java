@@ -0,0 +1,111 @@
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The batch cooking rules of a run, looked up by meal, plus per-meal counts of the batches cooked.
+ * Shared by every chef; meals without a rule are always cooked one order at a time.
+ */
+public class BatchCooking {
+    /** No batch rules: every order is cooked on its own. */
+    public static final BatchCooking NONE = new BatchCooking(List.of());
+
+    private final List<BatchRule> rules;
+    private final Map<String, Rule> byMeal = new HashMap<>();
+
+    /**
+     * @param rules Validated batch rules (see BatchRule.validate).
+     */
+    public BatchCooking(List<BatchRule> rules) {
+        this.rules = rules;
+        for (BatchRule rule : rules) {
+            byMeal.put(rule.getMeal(), new Rule(rule));
+        }
+    }
+
+    /** @return true if no meal is cooked in batches. */
+    public boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    /**
+     * Returns the most orders of a meal a chef cooks at once.
+     * @param meal The meal.
+     * @return The batch size; 1 for meals without a rule.
+     */
+    public int getMaxBatch(String meal) {
+        Rule rule = byMeal.get(meal);
+        return rule != null ? rule.rule.getSize() : 1;
+    }
+
+    /**
+     * Returns how long a batch takes: the meal's prep time plus the rule's Extra minutes per order after the first.
+     * @param meal The meal.
+     * @param prepTimeMinutes The meal's prep time for a single order.
+     * @param orders Orders in the batch, at least 1.
+     * @return The batch's prep time in minutes.
+     */
+    public int getPrepMinutes(String meal, int prepTimeMinutes, int orders) {
+        Rule rule = byMeal.get(meal);
+        return rule != null ? prepTimeMinutes + rule.rule.getExtraMinutes() * (orders - 1) : prepTimeMinutes;
+    }
+
+    /**
+     * Counts a cooked batch. Single orders of meals without a rule are not counted.
+     * @param meal The meal.
+     * @param orders Orders in the batch.
+     */
+    public void recordBatch(String meal, int orders) {
+        Rule rule = byMeal.get(meal);
+        if (rule != null) {
+            rule.batches.increment();
+            rule.orders.add(orders);
+        }
+    }
+
+    /**
+     * Prints batches and orders cooked per batched meal.
+     * @param out Stream to print to.
+     */
+    public void print(PrintStream out) {
+        out.println("\nBatch Cooking:");
+        out.printf("%-16s %6s %6s %8s %8s %10s%n", "Meal", "Size", "Extra", "Batches", "Orders", "Avg Batch");
+        for (BatchRule rule : rules) {
+            Rule stats = byMeal.get(rule.getMeal());
+            long batches = stats.batches.sum();
+            long orders = stats.orders.sum();
+            out.printf("%-16s %6d %6d %8d %8d %10.2f%n", rule.getMeal(), rule.getSize(), rule.getExtraMinutes(),
+                    batches, orders, batches > 0 ? (double) orders / batches : 0.0);
+        }
+        out.println("-----------------------------------------");
+    }
+
+    /**
+     * Adds each rule and its counts to a machine-readable report as "batch.MEAL.STATISTIC" keys.
+     * @param report Report to add to.
+     */
+    public void addTo(Properties report) {
+        for (BatchRule rule : rules) {
+            Rule stats = byMeal.get(rule.getMeal());
+            String prefix = "batch." + rule.getMeal() + ".";
+            report.setProperty(prefix + "size", Integer.toString(rule.getSize()));
+            report.setProperty(prefix + "extraMinutes", Integer.toString(rule.getExtraMinutes()));
+            report.setProperty(prefix + "batches", Long.toString(stats.batches.sum()));
+            report.setProperty(prefix + "orders", Long.toString(stats.orders.sum()));
+        }
+    }
+
+    /** A rule with its counters. */
+    private static final class Rule {
+        final BatchRule rule;
+        final LongAdder batches = new LongAdder();
+        final LongAdder orders = new LongAdder();
+
+        Rule(BatchRule rule) {
+            this.rule = rule;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A batch cooking rule from the configuration, e.g. {@code Batch=Burger Size=5 Extra=1}:
+ * a chef who starts a Burger also takes up to 4 more queued Burger orders and cooks them together,
+ * in the meal's prep time plus Extra minutes for each order after the first.
+ */
+public class BatchRule {
+    private final String meal;
+    private final int size;
+    private final int extraMinutes;
+
+    public BatchRule(String meal, int size, int extraMinutes) {
+        this.meal = meal;
+        this.size = size;
+        this.extraMinutes = extraMinutes;
+    }
+
+    /** @return The meal, using the menu's canonical name. */
+    public String getMeal() {
+        return meal;
+    }
+
+    /** @return The most orders cooked in one batch. */
+    public int getSize() {
+        return size;
+    }
+
+    /** @return Minutes added to the prep time for each order after the first. */
+    public int getExtraMinutes() {
+        return extraMinutes;
+    }
+
+    /**
+     * Checks a set of batch rules against the menu.
+     * @param rules The rules, possibly empty.
+     * @param mealPrepTimes The menu.
+     * @throws IllegalArgumentException If a rule names an unknown meal, has a size below 1 or a
+     *         negative Extra, or two rules name the same meal.
+     */
+    public static void validate(List<BatchRule> rules, Map<String, Integer> mealPrepTimes) throws IllegalArgumentException {
+        Set<String> meals = new HashSet<>();
+        for (BatchRule rule : rules) {
+            if (!mealPrepTimes.containsKey(rule.meal)) {
+                throw new IllegalArgumentException("Batch rule for unknown meal '" + rule.meal + "'.");
+            }
+            if (!meals.add(rule.meal)) {
+                throw new IllegalArgumentException("Meal '" + rule.meal + "' has two batch rules.");
+            }
+            if (rule.size < 1) {
+                throw new IllegalArgumentException("Batch Size for '" + rule.meal + "' must be at least 1.");
+            }
+            if (rule.extraMinutes < 0) {
+                throw new IllegalArgumentException("Batch Extra for '" + rule.meal + "' must be zero or positive.");
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return meal + " x" + size + " (+" + extraMinutes + " min each)";
+    }
+}
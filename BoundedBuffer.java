@@ -0,0 +1,13 @@
+/**
+ * A bounded buffer that can be both produced into and consumed from.
+ * Implemented by the semaphore-based Buffer and the lock-free RingBuffer, so the
+ * actors do not depend on a particular synchronization strategy.
+ * Once closed and empty, consume() returns CLOSED and drainTo() returns 0 instead of blocking.
+ */
+public interface BoundedBuffer extends BoundedSink, Consumer {
+    /**
+     * Terminal marker returned by consume() once the buffer is closed and empty.
+     * It is never stored in a buffer; compare by identity.
+     */
+    BufElement CLOSED = new BufElement();
+}
@@ -0,0 +1,32 @@
+/**
+ * The producing side of a bounded buffer: items can be added, counted and the buffer closed,
+ * but not consumed. Implemented directly by buffers whose consumers each get their own view,
+ * such as StationRouter, so nothing can consume from them without going through that view.
+ */
+public interface BoundedSink extends Producer {
+    /**
+     * Returns the current number of items in the buffer.
+     * @return The number of items.
+     */
+    int getCurrentSize();
+
+    /**
+     * Returns the capacity of the buffer.
+     * @return The capacity.
+     */
+    int getCapacity();
+
+    /**
+     * Closes the buffer for production. Items already in it can still be consumed; once it is
+     * empty, consumers see BoundedBuffer.CLOSED instead of blocking, and any consumers blocked
+     * at the time are woken to see it. Producing into a closed buffer throws
+     * IllegalStateException. Closing twice has no further effect.
+     */
+    void close();
+
+    /**
+     * Returns whether close() has been called.
+     * @return true if closed.
+     */
+    boolean isClosed();
+}
@@ -1,16 +1,22 @@
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Vector;
+import java.util.function.Predicate;
 
 /**
  * Bounded buffer implementation using custom Semaphores for synchronization.
  * Used for ordered meals and cooked meals.
  * [cite: 74, 76]
  */
-public class Buffer implements Producer, Consumer {
+public class Buffer implements BoundedBuffer {
     private final Vector<BufElement> buffer;
     private final int capacity;
-    private final Semaphore mutex;  // For mutual exclusion accessing the buffer
+    private final Semaphore mutex;  // For mutual exclusion accessing the buffer; held only briefly, so taken uninterruptibly
     private final Semaphore spaces; // Counts empty spaces in the buffer
     private final Semaphore items;  // Counts available items in the buffer
+    private volatile int size = 0;  // Mirror of buffer.size(), written under the mutex so readers need no lock
+    private volatile boolean closed = false; // Written under the mutex
 
     /**
      * Creates a Buffer with a specified capacity.
@@ -36,10 +42,16 @@ public class Buffer implements Producer, Consumer {
     @Override
     public void produce(BufElement item) throws InterruptedException {
         spaces.acquire(); // Wait for an empty space
-        mutex.acquire();  // Enter critical section
+        mutex.acquireUninterruptibly(); // Enter critical section; an interrupt here would strand the permit just taken
+        if (closed) {
+            mutex.release();
+            spaces.release();
+            throw new IllegalStateException("Buffer is closed");
+        }
 
         // Add the item to the buffer
         buffer.add(item);
+        size = buffer.size();
         // System.out.println(Thread.currentThread().getName() + " produced " + item + ". Buffer size: " + buffer.size()); // Debug
 
         mutex.release();  // Exit critical section
@@ -49,16 +61,22 @@ public class Buffer implements Producer, Consumer {
     /**
      * Removes an item from the buffer (Consumer role).
      * Blocks if the buffer is empty. Follows FIFO order.
-     * @return The consumed BufElement.
+     * @return The consumed BufElement, or CLOSED if the buffer is closed and empty.
      * @throws InterruptedException If the thread is interrupted.
      */
     @Override
     public BufElement consume() throws InterruptedException {
-        items.acquire();  // Wait for an available item
-        mutex.acquire();  // Enter critical section
+        items.acquire();  // Wait for an available item (or the close marker)
+        mutex.acquireUninterruptibly(); // Enter critical section; an interrupt here would strand the permit just taken
+        if (buffer.isEmpty()) { // Only possible after close: the permit was the close marker
+            mutex.release();
+            items.release(); // Put the marker back for the next consumer
+            return CLOSED;
+        }
 
         // Remove the item from the buffer (FIFO)
         BufElement item = buffer.remove(0);
+        size = buffer.size();
         // System.out.println(Thread.currentThread().getName() + " consumed " + item + ". Buffer size: " + buffer.size()); // Debug
 
 
@@ -69,21 +87,129 @@ public class Buffer implements Producer, Consumer {
     }
 
     /**
-     * Returns the current number of items in the buffer.
-     * @return The number of items.
+     * Adds a batch of items to the buffer, taking the space permits and the mutex once per batch
+     * instead of once per item. Batches larger than the capacity are added in capacity-sized chunks.
+     * @param batch The BufElements to add, in order.
+     * @throws InterruptedException If the thread is interrupted.
      */
-    public int getCurrentSize() {
-        // Acquire mutex to safely read size, though Vector.size() is often thread-safe, explicit locking is safer conceptually here.
-        int size = -1;
-        try {
-            mutex.acquire();
+    @Override
+    public void produceAll(Collection<? extends BufElement> batch) throws InterruptedException {
+        Iterator<? extends BufElement> it = batch.iterator();
+        int remaining = batch.size();
+        while (remaining > 0) {
+            int chunk = Math.min(remaining, capacity);
+            spaces.acquire(chunk); // Wait until the whole chunk fits
+            mutex.acquireUninterruptibly();
+            if (closed) {
+                mutex.release();
+                spaces.release(chunk);
+                throw new IllegalStateException("Buffer is closed");
+            }
+            for (int i = 0; i < chunk; i++) {
+                buffer.add(it.next());
+            }
             size = buffer.size();
             mutex.release();
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt(); // Preserve interrupt status
-            // Handle exception appropriately, maybe return -1 or rethrow
-            System.err.println("Interrupted while getting buffer size.");
+            items.release(chunk); // Signal all new items at once
+            remaining -= chunk;
+        }
+    }
+
+    /**
+     * Removes up to maxItems items in FIFO order, blocking only until the first one is available.
+     * The mutex is taken once and the removed items are shifted out of the buffer in one step.
+     * @param target Collection the consumed items are added to.
+     * @param maxItems Maximum number of items to take. Must be positive.
+     * @return The number of items added to target; 0 if the buffer is closed and empty.
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    @Override
+    public int drainTo(Collection<? super BufElement> target, int maxItems) throws InterruptedException {
+        if (maxItems <= 0) {
+            throw new IllegalArgumentException("maxItems must be positive");
         }
+        items.acquire(); // Wait for at least one item
+        int permits = 1 + items.tryAcquireUpTo(maxItems - 1); // Take whatever else is already there
+        mutex.acquireUninterruptibly(); // The claimed item permits must not be lost to an interrupt
+
+        // After close one permit is the close marker rather than an item
+        int count = Math.min(permits, buffer.size());
+        List<BufElement> removed = buffer.subList(0, count);
+        target.addAll(removed);
+        removed.clear();
+        size = buffer.size();
+
+        mutex.release();
+        if (count < permits) {
+            items.release(permits - count); // Put the marker back for the next consumer
+        }
+        spaces.release(count);
+        return count;
+    }
+
+    /**
+     * Removes up to maxItems items that match the filter, oldest first, without blocking.
+     * Item permits for them are claimed before the scan so no other consumer waits on them;
+     * permits left over because fewer items matched are handed straight back.
+     * @param target Collection the removed items are added to.
+     * @param filter Which items to remove.
+     * @param maxItems Maximum number of items to remove.
+     * @return The number of items added to target.
+     */
+    @Override
+    public int drainMatching(Collection<? super BufElement> target, Predicate<? super BufElement> filter, int maxItems) {
+        int permits = maxItems > 0 ? items.tryAcquireUpTo(maxItems) : 0;
+        if (permits == 0) {
+            return 0;
+        }
+        mutex.acquireUninterruptibly();
+        int count = 0;
+        for (Iterator<BufElement> it = buffer.iterator(); it.hasNext() && count < permits; ) {
+            BufElement item = it.next();
+            if (filter.test(item)) {
+                target.add(item);
+                it.remove();
+                count++;
+            }
+        }
+        size = buffer.size();
+        mutex.release();
+        if (count < permits) {
+            items.release(permits - count);
+        }
+        spaces.release(count);
+        return count;
+    }
+
+    /**
+     * Closes the buffer. One extra item permit is released as the close marker: a consumer that
+     * acquires it finds the buffer empty, hands the permit on and returns CLOSED, so every
+     * blocked consumer wakes in turn after the remaining items have been consumed.
+     */
+    @Override
+    public void close() {
+        mutex.acquireUninterruptibly();
+        boolean wasClosed = closed;
+        closed = true;
+        mutex.release();
+        if (!wasClosed) {
+            items.release();
+        }
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Returns the current number of items in the buffer without locking.
+     * The size is published by the last producer or consumer to leave the critical section,
+     * so monitoring threads can poll it without competing with them for the mutex.
+     * @return The number of items.
+     */
+    @Override
+    public int getCurrentSize() {
         return size;
     }
 
@@ -91,6 +217,7 @@ public class Buffer implements Producer, Consumer {
      * Returns the capacity of the buffer.
      * @return The capacity.
      */
+    @Override
     public int getCapacity() {
         return capacity;
     }
@@ -0,0 +1,377 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Capacity planner: finds the staffings (numbers of chefs, waiters and tables) that meet a latency target
+ * for a workload, by running event-engine replications of candidate staffings, and prints the cheapest.
+ * Usage: java CapacityPlanner <config_file|trace_file> [options]
+ * <pre>
+ * --sla=MINUTES          Target the metric must stay at or under. Default 10
+ * --metric=KEY           Replication metric the target applies to, e.g. endToEnd.mean. Default tableWait.p95
+ * --costs=C,W,T          Cost of one chef, waiter and table. Default 1,1,1
+ * --chefs=LO-HI          Chef counts to search. Default 1 to twice the config's NC
+ * --waiters=LO-HI        Waiter counts to search. Default 1 to twice the config's NW
+ * --tables=LO-HI         Table counts to search. Default 1 to twice the config's NT
+ * --replications=N       Most replications per candidate. Default 10
+ * --seed=S               Base seed; every candidate runs the same seeds. Default 42
+ * --workers=N            Chef counts searched at once. Default: available processors
+ * --policy, --aging, --eating   As for RestSimApp
+ * </pre>
+ * More of any resource is assumed never to make the metric worse. For each chef count the planner walks
+ * the waiter counts upward and binary-searches the fewest tables that meet the target; that number can only
+ * fall as waiters are added, so each search starts from the last one, and the walk ends once the fewest
+ * tables allowed are enough. A chef count that misses the target with the most waiters and tables is
+ * skipped after that one candidate.
+ * Each candidate first runs MIN_REPLICATIONS replications, then one more at a time until the 95% confidence
+ * interval of the metric's mean lies wholly on one side of the target, or the maximum is reached and the
+ * mean decides. A candidate whose first run is over CLEAR_MISS_FACTOR times the target fails at once.
+ * The staffings found that no other passing staffing matches or beats on every count form the Pareto
+ * frontier, printed cheapest first.
+ */
+public class CapacityPlanner {
+    private static final int MIN_REPLICATIONS = 3;
+    private static final double CLEAR_MISS_FACTOR = 2.0;
+    private static final List<String> OPTIONS = Arrays.asList("sla", "metric", "costs", "chefs", "waiters", "tables",
+            "replications", "seed", "workers", "policy", "aging", "eating");
+
+    private final SimulationConfig config;
+    private final OrderPolicy policy;
+    private final boolean waiterStaysWhileEating;
+    private final int metric; // Index into Replications.KEYS
+    private final double target;
+    private final long[] seeds; // Shared by every candidate, so they are compared on the same random draws
+    private final AtomicInteger candidates = new AtomicInteger();
+    private final AtomicInteger simulations = new AtomicInteger();
+
+    /**
+     * @param config The workload and setup; its staffing is replaced by each candidate's.
+     * @param policy Order policy of every run.
+     * @param waiterStaysWhileEating Legacy eating model (--eating=waiter).
+     * @param metric Index into Replications.KEYS of the metric the target applies to.
+     * @param target Most the metric's mean may be, in its own unit.
+     * @param maxReplications Most replications per candidate, at least MIN_REPLICATIONS.
+     * @param baseSeed Seed the replication seeds are drawn from.
+     */
+    public CapacityPlanner(SimulationConfig config, OrderPolicy policy, boolean waiterStaysWhileEating,
+                           int metric, double target, int maxReplications, long baseSeed) {
+        this.config = config;
+        this.policy = policy;
+        this.waiterStaysWhileEating = waiterStaysWhileEating;
+        this.metric = metric;
+        this.target = target;
+        this.seeds = Replications.seeds(baseSeed, maxReplications);
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: java CapacityPlanner <input_config_file|trace_file> [--sla=<minutes>] [--metric=<key>] "
+                    + "[--costs=<chef>,<waiter>,<table>] [--chefs=<lo>-<hi>] [--waiters=<lo>-<hi>] [--tables=<lo>-<hi>] "
+                    + "[--replications=<n>] [--seed=<n>] [--workers=<n>] [--policy=fifo|spt|edf] [--aging=<factor>] [--eating=timer|waiter]");
+            System.exit(1);
+        }
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 3 || !OPTIONS.contains(arg.substring(2, eq))) {
+                System.err.println("Unknown option '" + arg + "'. Expected --key=value with key one of " + OPTIONS + ".");
+                System.exit(1);
+            }
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        SimulationConfig config = null;
+        try (ConfigSource source = ConfigSource.open(args[0])) {
+            config = SimulationConfig.of(args[0], source);
+        } catch (IOException e) {
+            System.err.println("Error reading configuration file '" + args[0] + "': " + e.getMessage());
+            System.exit(1);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error in configuration file format: " + e.getMessage());
+            System.exit(1);
+        }
+
+        try {
+            int metric = Replications.indexOf(options.getOrDefault("metric", "tableWait.p95"));
+            double target = parseDouble(options, "sla", 10, 0);
+            double[] costs = parseCosts(options.getOrDefault("costs", "1,1,1"));
+            int stationChefs = 0; // Stations need at least their own chefs
+            for (Station station : config.getStations()) {
+                stationChefs += station.getChefs();
+            }
+            int[] chefs = parseRange(options, "chefs", Math.max(1, stationChefs), config.getNumChefs());
+            int[] waiters = parseRange(options, "waiters", 1, config.getNumWaiters());
+            int[] tables = parseRange(options, "tables", 1, config.getNumTables());
+            int maxReplications = parseInt(options, "replications", 10, MIN_REPLICATIONS);
+            long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+            int workers = parseInt(options, "workers", Runtime.getRuntime().availableProcessors(), 1);
+            OrderPolicy policy = OrderPolicy.parse(options.getOrDefault("policy", "fifo"),
+                    parseDouble(options, "aging", OrderPolicy.DEFAULT_AGING, 0), config.getMealPrepTimes());
+            String eating = options.getOrDefault("eating", "timer");
+            if (!eating.equals("timer") && !eating.equals("waiter")) {
+                throw new IllegalArgumentException("Unknown eating model '" + eating + "'. Expected 'timer' or 'waiter'.");
+            }
+
+            System.out.printf("Capacity plan: %s <= %.2f, costs %.2f per chef, %.2f per waiter, %.2f per table%n",
+                    Replications.KEYS[metric], target, costs[0], costs[1], costs[2]);
+            System.out.println("Searching chefs " + chefs[0] + "-" + chefs[1] + ", waiters " + waiters[0] + "-" + waiters[1]
+                    + ", tables " + tables[0] + "-" + tables[1] + " with up to " + maxReplications + " replications each, seed " + seed + ".");
+            long wallStartNanos = System.nanoTime();
+            CapacityPlanner planner = new CapacityPlanner(config, policy, eating.equals("waiter"), metric, target, maxReplications, seed);
+            List<Candidate> frontier = planner.plan(chefs, waiters, tables, workers);
+            planner.print(frontier, costs, (System.nanoTime() - wallStartNanos) / 1_000_000);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number in options: " + e.getMessage());
+            System.exit(1);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("Error reading configuration file '" + args[0] + "': " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            System.err.println("Capacity planning interrupted.");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Searches the staffing ranges, one chef count per task on a pool of workers.
+     * @param chefs Lowest and highest chef count.
+     * @param waiters Lowest and highest waiter count.
+     * @param tables Lowest and highest table count.
+     * @param workers Chef counts searched at once.
+     * @return The Pareto frontier: passing staffings not matched or beaten on every count by another.
+     * @throws IOException If the configuration file cannot be read.
+     * @throws InterruptedException If interrupted while waiting for the search.
+     */
+    public List<Candidate> plan(int[] chefs, int[] waiters, int[] tables, int workers) throws IOException, InterruptedException {
+        List<Callable<List<Candidate>>> rows = new ArrayList<>();
+        for (int numChefs = chefs[0]; numChefs <= chefs[1]; numChefs++) {
+            int rowChefs = numChefs;
+            rows.add(() -> searchRow(rowChefs, waiters, tables));
+        }
+        List<Candidate> passing = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(workers, rows.size()));
+        try {
+            for (Future<List<Candidate>> row : pool.invokeAll(rows)) {
+                passing.addAll(row.get());
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Capacity search failed", cause);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<Candidate> frontier = new ArrayList<>();
+        for (Candidate candidate : passing) {
+            boolean dominated = false;
+            for (Candidate other : passing) {
+                if (other != candidate && other.numChefs <= candidate.numChefs && other.numWaiters <= candidate.numWaiters
+                        && other.numTables <= candidate.numTables) {
+                    dominated = true;
+                    break;
+                }
+            }
+            if (!dominated) {
+                frontier.add(candidate);
+            }
+        }
+        return frontier;
+    }
+
+    // Walks the waiter counts for one chef count, keeping the fewest passing tables for each
+    private List<Candidate> searchRow(int numChefs, int[] waiters, int[] tables) throws IOException {
+        List<Candidate> passing = new ArrayList<>();
+        if (!evaluate(numChefs, waiters[1], tables[1]).meets) {
+            return passing; // Not enough chefs, whatever the rest of the staff
+        }
+        int fewestTables = tables[1];
+        boolean fewestKnown = false; // Whether fewestTables is known to pass with fewer waiters
+        for (int numWaiters = waiters[0]; numWaiters <= waiters[1]; numWaiters++) {
+            Candidate best;
+            int high; // Fewest tables known to pass with this many waiters
+            if (!fewestKnown) {
+                best = evaluate(numChefs, numWaiters, fewestTables);
+                if (!best.meets) {
+                    continue;
+                }
+                high = fewestTables;
+                fewestKnown = true;
+            } else {
+                // Probe one table fewer first, so a waiter that saves no table costs a single candidate
+                best = evaluate(numChefs, numWaiters, fewestTables - 1);
+                if (!best.meets) {
+                    continue; // The extra waiter saved no table, so the staffing is dominated
+                }
+                high = fewestTables - 1;
+            }
+            int low = tables[0];
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                Candidate candidate = evaluate(numChefs, numWaiters, mid);
+                if (candidate.meets) {
+                    high = mid;
+                    best = candidate;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            passing.add(best);
+            fewestTables = high;
+            if (fewestTables == tables[0]) {
+                break; // More waiters cannot save a table
+            }
+        }
+        return passing;
+    }
+
+    // Runs replications of one staffing until its confidence interval settles which side of the target it is on
+    private Candidate evaluate(int numChefs, int numWaiters, int numTables) throws IOException {
+        candidates.incrementAndGet();
+        Replications runner = new Replications(config.withStaff(numChefs, numWaiters, numTables), policy, waiterStaysWhileEating, 1);
+        List<double[]> values = new ArrayList<>();
+        Replications.Result result = null;
+        while (values.size() < seeds.length) {
+            values.add(runner.runOnce(seeds[values.size()]));
+            simulations.incrementAndGet();
+            if (values.size() == 1 && values.get(0)[metric] > CLEAR_MISS_FACTOR * target) {
+                return new Candidate(numChefs, numWaiters, numTables, false, values.get(0)[metric], Double.NaN, 1);
+            }
+            if (values.size() < MIN_REPLICATIONS) {
+                continue;
+            }
+            result = new Replications.Result(values.toArray(new double[0][]), seeds[0], 1, 0);
+            double mean = result.getMean(metric);
+            double halfWidth = result.getHalfWidth(metric);
+            if (mean + halfWidth <= target || mean - halfWidth > target) {
+                break;
+            }
+        }
+        double mean = result.getMean(metric);
+        return new Candidate(numChefs, numWaiters, numTables, mean <= target, mean, result.getHalfWidth(metric), values.size());
+    }
+
+    /**
+     * Prints the frontier cheapest first, marking the cheapest staffing.
+     * @param frontier The Pareto frontier.
+     * @param costs Cost of one chef, waiter and table.
+     * @param wallMillis Real time the search took.
+     */
+    private void print(List<Candidate> frontier, double[] costs, long wallMillis) {
+        System.out.println(candidates.get() + " candidates evaluated with " + simulations.get() + " simulations in " + wallMillis + " ms.");
+        if (frontier.isEmpty()) {
+            System.out.println("No staffing in the searched ranges meets the target.");
+            return;
+        }
+        frontier.sort(Comparator.comparingDouble((Candidate c) -> c.cost(costs))
+                .thenComparingInt(c -> c.numChefs).thenComparingInt(c -> c.numWaiters));
+        System.out.println("\nPareto Frontier (staffings that meet the target with no count to spare), cheapest first:");
+        System.out.printf("%6s %8s %7s %10s %12s %10s %5s%n", "Chefs", "Waiters", "Tables", "Cost", Replications.KEYS[metric], "95% CI +-", "Runs");
+        for (int i = 0; i < frontier.size(); i++) {
+            Candidate candidate = frontier.get(i);
+            System.out.printf("%6d %8d %7d %10.2f %12.2f %10.2f %5d%s%n", candidate.numChefs, candidate.numWaiters, candidate.numTables,
+                    candidate.cost(costs), candidate.mean, candidate.halfWidth, candidate.runs, i == 0 ? "  <- cheapest" : "");
+        }
+        System.out.println("-----------------------------------------");
+    }
+
+    private static double parseDouble(Map<String, String> options, String key, double defaultValue, double min) throws IllegalArgumentException {
+        if (!options.containsKey(key)) {
+            return defaultValue;
+        }
+        double value = Double.parseDouble(options.get(key));
+        if (!(value >= min)) {
+            throw new IllegalArgumentException("--" + key + " must be at least " + min + ".");
+        }
+        return value;
+    }
+
+    private static int parseInt(Map<String, String> options, String key, int defaultValue, int min) throws IllegalArgumentException {
+        if (!options.containsKey(key)) {
+            return defaultValue;
+        }
+        int value = Integer.parseInt(options.get(key));
+        if (value < min) {
+            throw new IllegalArgumentException("--" + key + " must be at least " + min + ".");
+        }
+        return value;
+    }
+
+    private static double[] parseCosts(String value) throws IllegalArgumentException {
+        String[] parts = value.split(",");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("--costs expects three numbers: chef,waiter,table.");
+        }
+        double[] costs = new double[3];
+        for (int i = 0; i < 3; i++) {
+            costs[i] = Double.parseDouble(parts[i].trim());
+            if (!(costs[i] >= 0)) {
+                throw new IllegalArgumentException("--costs must not be negative.");
+            }
+        }
+        return costs;
+    }
+
+    // Parses "LO-HI"; the default runs from min to twice the config's count
+    private static int[] parseRange(Map<String, String> options, String key, int min, int configured) throws IllegalArgumentException {
+        String value = options.get(key);
+        if (value == null) {
+            return new int[] {min, Math.max(min, Math.max(1, 2 * configured))};
+        }
+        int dash = value.indexOf('-');
+        int low = Integer.parseInt(dash < 0 ? value : value.substring(0, dash).trim());
+        int high = Integer.parseInt(dash < 0 ? value : value.substring(dash + 1).trim());
+        if (low < min || high < low) {
+            throw new IllegalArgumentException("--" + key + " must be a range LO-HI with " + min + " <= LO <= HI.");
+        }
+        return new int[] {low, high};
+    }
+
+    /** A staffing and how it did against the target. */
+    public static final class Candidate {
+        final int numChefs;
+        final int numWaiters;
+        final int numTables;
+        final boolean meets;
+        final double mean;
+        final double halfWidth; // NaN if it failed on its first run
+        final int runs;
+
+        Candidate(int numChefs, int numWaiters, int numTables, boolean meets, double mean, double halfWidth, int runs) {
+            this.numChefs = numChefs;
+            this.numWaiters = numWaiters;
+            this.numTables = numTables;
+            this.meets = meets;
+            this.mean = mean;
+            this.halfWidth = halfWidth;
+            this.runs = runs;
+        }
+
+        double cost(double[] costs) {
+            return numChefs * costs[0] + numWaiters * costs[1] + numTables * costs[2];
+        }
+    }
+}
@@ -1,6 +1,6 @@
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -10,22 +10,30 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class Chef implements Runnable, Consumer, Producer {
     private final int chefId;
-    private final Buffer orderedMealsBuf;  // Consume orders from here [cite: 80]
-    private final Buffer cookedMealsBuf;   // Produce cooked meals here [cite: 81]
+    private final Consumer orders;  // Consume orders from here: the shared buffer or this chef's deque [cite: 80]
+    private final BoundedBuffer cookedMealsBuf;   // Produce cooked meals here [cite: 81]
     private final Map<String, Integer> prepTimesMinutes; // Meal -> Prep time map [cite: 70]
     private final SimulationClock clock;
-    private final AtomicLong totalPrepTime; // Accumulator for stats
-    private final AtomicInteger totalMealsPrepared; // Counter for stats
+    private final LatencyStats stats; // Per-stage latency histograms
+    private final RestaurantMetrics metrics; // Live busy/idle and throughput counters
+    private final BatchCooking batching; // Meals cooked several orders at a time
+    private final EventLog log;
+    private final EventRecorder recorder; // Structured lifecycle events
+    private final String name; // "Chef <id>", prefix of every log record
 
 
-    public Chef(int chefId, Buffer orderedMealsBuf, Buffer cookedMealsBuf, Map<String, Integer> prepTimesMinutes, SimulationClock clock, AtomicLong totalPrepTime, AtomicInteger totalMealsPrepared) {
+    public Chef(int chefId, Consumer orders, BoundedBuffer cookedMealsBuf, Map<String, Integer> prepTimesMinutes, BatchCooking batching, SimulationClock clock, LatencyStats stats, RestaurantMetrics metrics, EventLog log, EventRecorder recorder) {
         this.chefId = chefId;
-        this.orderedMealsBuf = orderedMealsBuf;
+        this.orders = orders;
         this.cookedMealsBuf = cookedMealsBuf;
         this.prepTimesMinutes = prepTimesMinutes;
+        this.batching = batching;
         this.clock = clock;
-        this.totalPrepTime = totalPrepTime;
-        this.totalMealsPrepared = totalMealsPrepared;
+        this.stats = stats;
+        this.metrics = metrics;
+        this.log = log;
+        this.recorder = recorder;
+        this.name = "Chef " + chefId;
     }
 
     @Override
@@ -34,38 +42,58 @@ public class Chef implements Runnable, Consumer, Producer {
             while (!Thread.currentThread().isInterrupted()) {
                 // 1. Get an Order to Prepare (Consumer role) [cite: 14, 80]
                 // System.out.println(clock.getFormattedTime() + " Chef " + chefId + " waiting for order."); // Debug
-                OrderedMeal orderToPrepare = (OrderedMeal) consume(); // Consume from orderedMealsBuf
-                if (orderToPrepare == null) { // Might happen if consume returns null on interrupt?
-                    continue;
+                BufElement next = consume(); // Consume from the order source
+                if (next == BoundedBuffer.CLOSED) {
+                    break; // Order rail closed and empty: no more orders will come
                 }
-                printEvent("starts preparing " + orderToPrepare.getMealName() + " for Customer " + orderToPrepare.getCustomerId() + "."); // [cite: 39, 40]
+                OrderedMeal orderToPrepare = (OrderedMeal) next;
+                List<OrderedMeal> batch = gatherBatch(orderToPrepare); // Just this order unless the meal is batched
+                metrics.chefBusy();
+                printEvent("starts preparing " + describe(batch) + "."); // [cite: 39, 40]
                 long prepStartTime = clock.getTimeMillis();
+                for (OrderedMeal order : batch) {
+                    long queueTime = prepStartTime - order.getOrderTimeMillis();
+                    stats.orderQueue().record(queueTime);
+                    stats.orderQueue(order.getMealName()).record(queueTime);
+                    recorder.record(JournalEventType.PREP_STARTED, prepStartTime, order.getCustomerId(), chefId, order.getTableId(), order.getMealName(), 0);
+                }
 
 
                 // 2. Simulate Preparation Time [cite: 14]
-                int prepTimeMinutes = prepTimesMinutes.getOrDefault(orderToPrepare.getMealName(), 5); // Default 5 min if meal not found
+                String mealName = orderToPrepare.getMealName();
+                int prepTimeMinutes = prepTimesMinutes.getOrDefault(mealName, 5); // Default 5 min if meal not found
+                prepTimeMinutes = batching.getPrepMinutes(mealName, prepTimeMinutes, batch.size());
                 long prepTimeMillis = (long)prepTimeMinutes * 60 * 1000; // Convert to ms
-                // --- Simulation Speed Factor ---
-                // You might want to divide prepTimeMillis by a speed factor for faster simulation
-                // Example: prepTimeMillis /= 10; // 10x faster simulation
-                Thread.sleep(prepTimeMillis); // Simulate the cooking time
+                // The clock's speed factor compresses this into real time
+                clock.sleepUntil(prepStartTime + prepTimeMillis); // Simulate the cooking time
 
+                // Every order in the batch took the whole batch's prep time
                 long prepEndTime = clock.getTimeMillis();
                 long actualPrepDuration = prepEndTime - prepStartTime;
-                totalPrepTime.addAndGet(actualPrepDuration); // Add to total prep time stats
-                totalMealsPrepared.incrementAndGet(); // Increment meal counter
+                List<CookedMeal> cookedMeals = new ArrayList<>(batch.size());
+                for (OrderedMeal order : batch) {
+                    stats.prep().record(actualPrepDuration);
+                    metrics.mealPrepared(prepEndTime);
+                    recorder.record(JournalEventType.PREP_FINISHED, prepEndTime, order.getCustomerId(), chefId, order.getTableId(), order.getMealName(), actualPrepDuration);
+                    cookedMeals.add(new CookedMeal(chefId, order, prepEndTime));
+                }
+                batching.recordBatch(mealName, batch.size());
 
 
-                // 3. Place Cooked Meal on Bench (Producer role) [cite: 15, 81]
-                CookedMeal cookedMeal = new CookedMeal(chefId, orderToPrepare);
-                produce(cookedMeal); // Produce to cookedMealsBuf
-                printEvent("finishes preparing " + cookedMeal.getMealName() + " for Customer " + cookedMeal.getCustomerId() + "."); // [cite: 41, 42]
+                // 3. Place Cooked Meals on Bench (Producer role) [cite: 15, 81]
+                if (cookedMeals.size() == 1) {
+                    produce(cookedMeals.get(0)); // Produce to cookedMealsBuf
+                } else {
+                    cookedMealsBuf.produceAll(cookedMeals); // One CookedMeal per order, placed together
+                }
+                metrics.chefIdle();
+                printEvent("finishes preparing " + describe(batch) + "."); // [cite: 41, 42]
                 // System.out.println(clock.getFormattedTime() + " Chef " + chefId + " placed " + cookedMeal + " on bench."); // Debug
 
             }
         } catch (InterruptedException e) {
             // Thread interruption is the signal to stop working (simulation end)
-            System.out.println("[" + clock.getFormattedTime() + "] Chef " + chefId + " stopping.");
+            printEvent("stopping.");
             Thread.currentThread().interrupt(); // Preserve interrupt status
         } catch (Exception e) {
             System.err.println("Chef " + chefId + " encountered an error: " + e.getMessage());
@@ -80,7 +108,7 @@ public class Chef implements Runnable, Consumer, Producer {
      */
     @Override
     public BufElement consume() throws InterruptedException {
-        return orderedMealsBuf.consume(); // Consume from the ordered meals buffer [cite: 80]
+        return orders.consume(); // Consume from the ordered meals buffer [cite: 80]
     }
 
     /**
@@ -96,7 +124,35 @@ public class Chef implements Runnable, Consumer, Producer {
         cookedMealsBuf.produce(item); // Place the cooked meal on the "bench" (buffer) [cite: 81]
     }
 
+    // Adds to an order any queued orders of the same meal, up to the meal's batch size
+    private List<OrderedMeal> gatherBatch(OrderedMeal first) {
+        List<OrderedMeal> batch = new ArrayList<>();
+        batch.add(first);
+        int maxBatch = batching.getMaxBatch(first.getMealName());
+        if (maxBatch > 1) {
+            List<BufElement> more = new ArrayList<>();
+            orders.drainMatching(more, item -> ((OrderedMeal) item).getMealName().equals(first.getMealName()), maxBatch - 1);
+            for (BufElement item : more) {
+                batch.add((OrderedMeal) item);
+            }
+        }
+        return batch;
+    }
+
+    // "Burger for Customer 4", or "3 Burger for Customers 4, 7, 9" for a batch
+    private static String describe(List<OrderedMeal> batch) {
+        OrderedMeal first = batch.get(0);
+        if (batch.size() == 1) {
+            return first.getMealName() + " for Customer " + first.getCustomerId();
+        }
+        StringBuilder customers = new StringBuilder();
+        for (OrderedMeal order : batch) {
+            customers.append(customers.length() == 0 ? "" : ", ").append(order.getCustomerId());
+        }
+        return batch.size() + " " + first.getMealName() + " for Customers " + customers;
+    }
+
     private void printEvent(String message) {
-        System.out.println("[" + clock.getFormattedTime() + "] Chef " + chefId + " " + message);
+        log.event(clock.getTimeMillis(), name, message);
     }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A simulation input: the restaurant configuration, available as soon as the source is opened,
+ * followed by a stream of customers that is read on demand.
+ */
+public interface ConfigSource extends CustomerSource, Closeable {
+    /** @return Number of chefs (NC). */
+    int getNumChefs();
+
+    /** @return Number of waiters (NW). */
+    int getNumWaiters();
+
+    /** @return Number of tables (NT). */
+    int getNumTables();
+
+    /**
+     * Returns the meal preparation times, in the order the meals were declared.
+     * @return Meal name -> prep time in minutes.
+     */
+    Map<String, Integer> getMealPrepTimes();
+
+    /**
+     * Returns the kitchen stations, in the order they were declared.
+     * @return The stations; empty if every chef is a generalist.
+     */
+    List<Station> getStations();
+
+    /**
+     * Returns the batch cooking rules, in the order they were declared.
+     * @return The rules; empty if every meal is cooked one order at a time.
+     */
+    List<BatchRule> getBatchRules();
+
+    /**
+     * Opens a configuration file in either the text format or a binary trace compiled with TraceCompiler.
+     * @param filename Path to the file.
+     * @return The open source, positioned before the first customer.
+     * @throws IOException If the file cannot be read.
+     * @throws IllegalArgumentException If the format is invalid.
+     */
+    static ConfigSource open(String filename) throws IOException, IllegalArgumentException {
+        return CustomerTrace.isTrace(Path.of(filename))
+                ? new TraceConfigSource(filename)
+                : new TextConfigSource(filename);
+    }
+}
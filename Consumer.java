@@ -1,3 +1,6 @@
+import java.util.Collection;
+import java.util.function.Predicate;
+
 /**
  * Interface for Consumer roles in the Producer-Consumer pattern.
  * [cite: 72, 73]
@@ -5,8 +8,42 @@
 public interface Consumer {
     /**
      * Consumes an item from the buffer.
-     * @return The consumed BufElement.
+     * @return The consumed BufElement, or BoundedBuffer.CLOSED once the source is closed and empty.
      * @throws InterruptedException If the thread is interrupted.
      */
     BufElement consume() throws InterruptedException;
-}
\ No newline at end of file
+
+    /**
+     * Consumes a batch of items. Blocks until at least one item is available, then takes
+     * whatever else is available without blocking, up to maxItems in total.
+     * The default consumes a single item.
+     * @param target Collection the consumed items are added to, oldest first.
+     * @param maxItems Maximum number of items to take. Must be positive.
+     * @return The number of items added to target; 0 only once the source is closed and empty.
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    default int drainTo(Collection<? super BufElement> target, int maxItems) throws InterruptedException {
+        if (maxItems <= 0) {
+            throw new IllegalArgumentException("maxItems must be positive");
+        }
+        BufElement item = consume();
+        if (item == BoundedBuffer.CLOSED) {
+            return 0;
+        }
+        target.add(item);
+        return 1;
+    }
+
+    /**
+     * Takes queued items that match a filter, without blocking and without reordering the rest.
+     * Used by chefs to gather orders of the same meal into one batch.
+     * The default takes nothing, so sources that cannot remove from the middle cook one order at a time.
+     * @param target Collection the taken items are added to, in queue order.
+     * @param filter Which items to take.
+     * @param maxItems Maximum number of items to take.
+     * @return The number of items added to target.
+     */
+    default int drainMatching(Collection<? super BufElement> target, Predicate<? super BufElement> filter, int maxItems) {
+        return 0;
+    }
+}
@@ -6,10 +6,12 @@
 public class CookedMeal extends BufElement {
     private final int chefId;
     private final OrderedMeal order; // The original order this meal fulfills
+    private final long readyTimeMillis; // Simulation time the meal was put on the bench
 
-    public CookedMeal(int chefId, OrderedMeal order) {
+    public CookedMeal(int chefId, OrderedMeal order, long readyTimeMillis) {
         this.chefId = chefId;
         this.order = order;
+        this.readyTimeMillis = readyTimeMillis;
     }
 
     public int getChefId() {
@@ -32,6 +34,10 @@ public class CookedMeal extends BufElement {
         return order.getMealName();
     }
 
+    public long getReadyTimeMillis() {
+        return readyTimeMillis;
+    }
+
     @Override
     public String toString() {
         return order.getMealName() + " for Customer " + getCustomerId() + " prepared by Chef " + chefId;
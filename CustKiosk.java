@@ -1,5 +1,3 @@
-import java.util.concurrent.atomic.AtomicLong;
-
 /**
  * Represents the process of a customer arriving, getting a table, and placing an order.
  * Implements Runnable for threading and Producer for placing orders into the orderedMealsBuf.
@@ -8,44 +6,57 @@ import java.util.concurrent.atomic.AtomicLong;
 public class CustKiosk implements Runnable, Producer {
     private final Customer customer;
     private final TableBuffer tableBuffer; // Shared resource for tables [cite: 66]
-    private final Buffer orderedMealsBuf;  // Shared buffer for placing orders [cite: 66]
-    private final SimulationClock clock;   // Shared simulation clock
-    private final AtomicLong totalTableWaitTime; // Accumulator for stats
-    private final long arrivalDelayMillis; // Delay before this customer "arrives"
+    private final BoundedSink orderedMealsBuf;  // Shared buffer for placing orders [cite: 66]
+    private final SimulationTime clock;   // Shared simulation clock
+    private final LatencyStats stats; // Per-stage latency histograms
+    private final EventLog log;
+    private final EventRecorder recorder; // Structured lifecycle events
+    private final String name; // "Customer <id>", prefix of every log record
+    private final long arrivalTimeMillis; // Simulation time at which this customer arrived
 
 
-    public CustKiosk(Customer customer, TableBuffer tableBuffer, Buffer orderedMealsBuf, SimulationClock clock, AtomicLong totalTableWaitTime, long startTimeMillis) {
+    /**
+     * Creates the kiosk of a customer who has just arrived. The arrival scheduler submits it when the
+     * customer's arrival time comes, so it runs straight away and never waits for the arrival itself.
+     * @param arrivalTimeMillis Simulation time the kiosk was submitted at; a run delayed by a busy
+     *                          executor counts the delay as table wait.
+     */
+    public CustKiosk(Customer customer, TableBuffer tableBuffer, BoundedSink orderedMealsBuf, SimulationTime clock, long arrivalTimeMillis,
+                     LatencyStats stats, EventLog log, EventRecorder recorder) {
         this.customer = customer;
         this.tableBuffer = tableBuffer;
         this.orderedMealsBuf = orderedMealsBuf;
         this.clock = clock;
-        this.totalTableWaitTime = totalTableWaitTime;
-        // Calculate delay from simulation start time
-        this.arrivalDelayMillis = (long)customer.getArrivalTimeMinutes() * 60 * 1000; // Convert minutes to milliseconds
+        this.stats = stats;
+        this.log = log;
+        this.recorder = recorder;
+        this.name = "Customer " + customer.getCustomerId();
+        this.arrivalTimeMillis = arrivalTimeMillis;
     }
 
     @Override
     public void run() {
         try {
-            // 1. Simulate Arrival Delay
-            Thread.sleep(arrivalDelayMillis); // Wait until the customer's arrival time
-
-            long arrivalTimestamp = clock.getTimeMillis();
-            printEvent("arrives.");
+            // 1. Arrival
+            long arrivalTimestamp = arrivalTimeMillis;
+            log.event(arrivalTimestamp, name, "arrives.");
+            recorder.record(JournalEventType.ARRIVED, arrivalTimestamp, customer.getCustomerId(), -1, -1, customer.getOrderMealName(), 0);
 
             // 2. Acquire a Table (Producer reserves a table resource)
             // System.out.println(clock.getFormattedTime() + " Customer " + customer.getCustomerId() + " waiting for table."); // Debug
             Table assignedTable = tableBuffer.acquireTable(customer.getCustomerId());
             long seatedTimestamp = clock.getTimeMillis();
             long waitTime = seatedTimestamp - arrivalTimestamp;
-            totalTableWaitTime.addAndGet(waitTime); // Add to total wait time for stats
+            stats.tableWait().record(waitTime);
             printEvent("is seated at " + assignedTable + " (Waited " + (waitTime / 1000.0) + " sec)."); // [cite: 35, 36]
+            recorder.record(JournalEventType.SEATED, seatedTimestamp, customer.getCustomerId(), -1, assignedTable.getTableId(), customer.getOrderMealName(), waitTime);
 
 
             // 3. Place Order (Producer adds to orderedMealsBuf) [cite: 13]
-            OrderedMeal order = new OrderedMeal(customer.getCustomerId(), customer.getOrderMealName(), assignedTable.getTableId());
+            OrderedMeal order = new OrderedMeal(customer.getCustomerId(), customer.getOrderMealName(), assignedTable.getTableId(), arrivalTimestamp, clock.getTimeMillis());
             produce(order); // Use the Producer interface method
             printEvent("places an order: " + customer.getOrderMealName() + "."); // [cite: 37, 38]
+            recorder.record(JournalEventType.ORDER_PLACED, clock.getTimeMillis(), customer.getCustomerId(), -1, assignedTable.getTableId(), customer.getOrderMealName(), 0);
 
             // Customer logic after ordering (waiting for food, eating) is implicitly handled
             // by the Waiter needing to serve them at their assigned table before the table is released.
@@ -72,6 +83,6 @@ public class CustKiosk implements Runnable, Producer {
     }
 
     private void printEvent(String message) {
-        System.out.println("[" + clock.getFormattedTime() + "] Customer " + customer.getCustomerId() + " " + message);
+        log.event(clock.getTimeMillis(), name, message);
     }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+import java.io.IOException;
+
+/**
+ * Supplies customers one at a time, in the order they appear in the input.
+ * Lets the simulation pull arrivals lazily instead of holding every customer in memory.
+ */
+public interface CustomerSource {
+    /**
+     * Reads the next customer.
+     * @return The next Customer, or null when the input is exhausted.
+     * @throws IOException If the underlying input cannot be read.
+     * @throws IllegalArgumentException If the next customer record is malformed.
+     */
+    Customer next() throws IOException;
+}
@@ -0,0 +1,45 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Layout of the compact binary customer trace produced by TraceCompiler and read by TraceConfigSource.
+ * All numbers are big-endian.
+ * <pre>
+ * Header:  int magic "RSTR", int version,
+ *          int NC, int NW, int NT,
+ *          int mealCount, then per meal: short nameLength, UTF-8 name bytes, int prepMinutes,
+ *          int stationCount, then per station: short nameLength, UTF-8 name bytes, int chefs,
+ *                                             byte overflow (0/1), short mealCount, short mealIndex per meal,
+ *          int batchCount, then per batch rule: short mealIndex, int size, int extraMinutes,
+ *          long customerCount
+ * Version 1 traces have no station table and no stationCount; versions 1 and 2 have no batch table.
+ * Records: customerCount fixed-width records of
+ *          int customerId, int arrivalMinute (since 08:00), short mealIndex
+ * </pre>
+ */
+public final class CustomerTrace {
+    /** "RSTR" in ASCII. */
+    public static final int MAGIC = 0x52535452;
+    public static final int VERSION = 3;
+    /** Size of one customer record in bytes. */
+    public static final int RECORD_SIZE = 4 + 4 + 2;
+
+    private CustomerTrace() {
+    }
+
+    /**
+     * Checks whether a file starts with the trace magic number.
+     * @param path The file to check.
+     * @return true if the file is a binary customer trace.
+     * @throws IOException If the file cannot be read.
+     */
+    public static boolean isTrace(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] head = in.readNBytes(4);
+            return head.length == 4
+                    && ((head[0] & 0xFF) << 24 | (head[1] & 0xFF) << 16 | (head[2] & 0xFF) << 8 | (head[3] & 0xFF)) == MAGIC;
+        }
+    }
+}
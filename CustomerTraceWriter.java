@@ -0,0 +1,181 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a binary customer trace (see CustomerTrace) one customer at a time.
+ * The header is written on open and the customer count is patched in by finish,
+ * so traces of any length can be produced without holding customers in memory.
+ * A trace closed without being finished is deleted, so a failed run never leaves behind
+ * a file that reads as a valid trace.
+ */
+public class CustomerTraceWriter implements AutoCloseable {
+    private final String traceFile;
+    private final DataOutputStream out;
+    private final Map<String, Integer> mealIndexes = new HashMap<>();
+    private final long countOffset;
+    private long count = 0;
+    private boolean finished = false;
+
+    /**
+     * Creates the trace file for a kitchen without stations and writes its header.
+     * @param traceFile Path of the trace to write; overwritten if it exists.
+     * @param numChefs NC.
+     * @param numWaiters NW.
+     * @param numTables NT.
+     * @param mealPrepTimes Menu with prep times in minutes, in the order customers' meal indexes refer to.
+     * @throws IOException If the file cannot be written.
+     * @throws IllegalArgumentException If the menu does not fit the trace format.
+     */
+    public CustomerTraceWriter(String traceFile, int numChefs, int numWaiters, int numTables,
+                               Map<String, Integer> mealPrepTimes) throws IOException, IllegalArgumentException {
+        this(traceFile, numChefs, numWaiters, numTables, mealPrepTimes, Collections.emptyList(), Collections.emptyList());
+    }
+
+    /**
+     * Creates the trace file and writes its header.
+     * @param traceFile Path of the trace to write; overwritten if it exists.
+     * @param numChefs NC.
+     * @param numWaiters NW.
+     * @param numTables NT.
+     * @param mealPrepTimes Menu with prep times in minutes, in the order customers' meal indexes refer to.
+     * @param stations Kitchen stations; their meals must be on the menu.
+     * @param batchRules Batch cooking rules; their meals must be on the menu.
+     * @throws IOException If the file cannot be written.
+     * @throws IllegalArgumentException If the menu does not fit the trace format.
+     */
+    public CustomerTraceWriter(String traceFile, int numChefs, int numWaiters, int numTables, Map<String, Integer> mealPrepTimes,
+                               List<Station> stations, List<BatchRule> batchRules) throws IOException, IllegalArgumentException {
+        if (mealPrepTimes.size() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many meals for the trace format: " + mealPrepTimes.size());
+        }
+        this.traceFile = traceFile;
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(traceFile), 1 << 16));
+        try {
+            out.writeInt(CustomerTrace.MAGIC);
+            out.writeInt(CustomerTrace.VERSION);
+            out.writeInt(numChefs);
+            out.writeInt(numWaiters);
+            out.writeInt(numTables);
+
+            // Meal table; customers refer to meals by their index in it
+            out.writeInt(mealPrepTimes.size());
+            for (Map.Entry<String, Integer> meal : mealPrepTimes.entrySet()) {
+                byte[] name = meal.getKey().getBytes(StandardCharsets.UTF_8);
+                out.writeShort(name.length);
+                out.write(name);
+                out.writeInt(meal.getValue());
+                mealIndexes.put(meal.getKey(), mealIndexes.size());
+            }
+
+            // Station table; stations refer to meals by index too
+            out.writeInt(stations.size());
+            for (Station station : stations) {
+                byte[] name = station.getName().getBytes(StandardCharsets.UTF_8);
+                out.writeShort(name.length);
+                out.write(name);
+                out.writeInt(station.getChefs());
+                out.writeByte(station.isOverflow() ? 1 : 0);
+                out.writeShort(station.getMeals().size());
+                for (String meal : station.getMeals()) {
+                    Integer mealIndex = mealIndexes.get(meal);
+                    if (mealIndex == null) {
+                        throw new IllegalArgumentException("Station '" + station.getName() + "' lists unknown meal '" + meal + "'.");
+                    }
+                    out.writeShort(mealIndex);
+                }
+            }
+
+            // Batch table
+            out.writeInt(batchRules.size());
+            for (BatchRule rule : batchRules) {
+                Integer mealIndex = mealIndexes.get(rule.getMeal());
+                if (mealIndex == null) {
+                    throw new IllegalArgumentException("Batch rule for unknown meal '" + rule.getMeal() + "'.");
+                }
+                out.writeShort(mealIndex);
+                out.writeInt(rule.getSize());
+                out.writeInt(rule.getExtraMinutes());
+            }
+
+            countOffset = out.size();
+            out.writeLong(0); // Patched in finish() once the customers have been counted
+        } catch (IOException | RuntimeException e) {
+            try {
+                out.close();
+            } finally {
+                Files.deleteIfExists(Path.of(traceFile));
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Appends one customer.
+     * @param customerId Customer ID.
+     * @param arrivalTimeMinutes Arrival in minutes after 08:00.
+     * @param mealName Ordered meal; must be on the menu.
+     * @throws IOException If the file cannot be written.
+     * @throws IllegalArgumentException If the meal is not on the menu.
+     */
+    public void write(int customerId, int arrivalTimeMinutes, String mealName) throws IOException {
+        if (finished) {
+            throw new IllegalStateException("Trace is already finished");
+        }
+        Integer mealIndex = mealIndexes.get(mealName);
+        if (mealIndex == null) {
+            throw new IllegalArgumentException("Customer " + customerId + " ordered unknown meal '" + mealName + "'.");
+        }
+        out.writeInt(customerId);
+        out.writeInt(arrivalTimeMinutes);
+        out.writeShort(mealIndex);
+        count++;
+    }
+
+    /**
+     * Gets the number of customers written so far.
+     * @return The count.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Flushes the customers and records their count in the header, completing the trace.
+     * Call once every customer has been written.
+     * @throws IOException If the file cannot be written.
+     */
+    public void finish() throws IOException {
+        out.close();
+        try (RandomAccessFile file = new RandomAccessFile(traceFile, "rw")) {
+            file.seek(countOffset);
+            file.writeLong(count);
+        }
+        finished = true;
+    }
+
+    /**
+     * Closes the file. A trace that was not finished, e.g. because reading its customers failed, is deleted.
+     * @throws IOException If the file cannot be closed or deleted.
+     */
+    @Override
+    public void close() throws IOException {
+        if (finished) {
+            return;
+        }
+        try {
+            out.close();
+        } finally {
+            Files.deleteIfExists(Path.of(traceFile));
+        }
+    }
+}
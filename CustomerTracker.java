@@ -0,0 +1,81 @@
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts customers in and out and signals the moment the last one leaves.
+ * The number of customers is not known up front because they are streamed, so the open
+ * arrival stream holds one pending count of its own: the latch opens only when the stream
+ * has been marked complete and every customer that entered has been served.
+ */
+public class CustomerTracker {
+    private final AtomicInteger entered = new AtomicInteger();
+    private final AtomicInteger served = new AtomicInteger();
+    private final AtomicLong pending = new AtomicLong(1); // Customers inside, plus 1 while arrivals are open
+    private final AtomicBoolean arrivalsComplete = new AtomicBoolean(false);
+    private final CountDownLatch allServed = new CountDownLatch(1);
+
+    /**
+     * Records a customer entering. Must happen before that customer can be served.
+     */
+    public void customerEntered() {
+        pending.incrementAndGet();
+        entered.incrementAndGet();
+    }
+
+    /**
+     * Records a customer leaving after being served.
+     */
+    public void customerServed() {
+        served.incrementAndGet();
+        release();
+    }
+
+    /**
+     * Records that no more customers will enter. Later calls have no effect.
+     */
+    public void arrivalsComplete() {
+        if (arrivalsComplete.compareAndSet(false, true)) {
+            release();
+        }
+    }
+
+    public int getEntered() {
+        return entered.get();
+    }
+
+    public int getServed() {
+        return served.get();
+    }
+
+    public boolean isArrivalsComplete() {
+        return arrivalsComplete.get();
+    }
+
+    /**
+     * Blocks until arrivals are complete and every customer has been served.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public void awaitAllServed() throws InterruptedException {
+        allServed.await();
+    }
+
+    /**
+     * Blocks until every customer has been served or the timeout elapses.
+     * @param timeout The maximum time to wait.
+     * @param unit The unit of the timeout argument.
+     * @return true if every customer has been served.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public boolean awaitAllServed(long timeout, TimeUnit unit) throws InterruptedException {
+        return allServed.await(timeout, unit);
+    }
+
+    private void release() {
+        if (pending.decrementAndGet() == 0) {
+            allServed.countDown();
+        }
+    }
+}
@@ -0,0 +1,270 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.SplittableRandom;
+
+/**
+ * Discrete-event version of the restaurant simulation.
+ * Models the same lifecycle as the threaded CustKiosk/Chef/Waiter actors
+ * (arrive, wait for table, order, cook, serve, eat, leave) but runs on a single thread
+ * driven by an EventScheduler, so a whole day is simulated in milliseconds.
+ */
+public class DiscreteEventSimulation {
+    private final int numChefs;
+    private final int numWaiters;
+    private final Map<String, Integer> prepTimesMinutes;
+    private final CustomerSource customers; // Read lazily: only the next arrival is scheduled at any time
+    private final VirtualClock clock;
+    private final EventScheduler scheduler;
+    private final SplittableRandom random; // For simulating eating time; seeded so a run can be repeated
+    private final EventLog log;
+    private final EventRecorder recorder;
+
+    // Shared statistics, same accumulators the threaded actors update
+    private final LatencyStats stats;
+    private final CustomerTracker tracker;
+
+    // Restaurant state (only touched from the scheduler thread)
+    private final PriorityQueue<Integer> freeTables = new PriorityQueue<>(); // Lowest table ID first
+    private final ArrayDeque<PendingCustomer> waitingForTable = new ArrayDeque<>();
+    private final Queue<OrderedMeal> orderedMeals; // Oldest first, or in the order policy's priority order
+    private final OrderPolicy policy;
+    private final BatchCooking batching;
+    private final boolean waiterStaysWhileEating; // Legacy model: the waiter waits for the customer to leave
+    private final ArrayDeque<CookedMeal> cookedMeals = new ArrayDeque<>();
+    private final ArrayDeque<Integer> idleChefs = new ArrayDeque<>();
+    private final ArrayDeque<Integer> idleWaiters = new ArrayDeque<>();
+    private long dayStart;
+
+    public DiscreteEventSimulation(int numChefs, int numWaiters, int numTables, Map<String, Integer> prepTimesMinutes,
+                                   CustomerSource customers, VirtualClock clock, LatencyStats stats, CustomerTracker tracker,
+                                   OrderPolicy policy, BatchCooking batching, boolean waiterStaysWhileEating,
+                                   long seed, EventLog log, EventRecorder recorder) {
+        this.numChefs = numChefs;
+        this.numWaiters = numWaiters;
+        this.prepTimesMinutes = prepTimesMinutes;
+        this.customers = customers;
+        this.clock = clock;
+        this.scheduler = new EventScheduler(clock);
+        this.stats = stats;
+        this.tracker = tracker;
+        this.log = log;
+        this.recorder = recorder;
+        this.policy = policy;
+        this.batching = batching;
+        this.waiterStaysWhileEating = waiterStaysWhileEating;
+        this.random = new SplittableRandom(seed);
+        this.orderedMeals = policy.isFifo() ? new ArrayDeque<>() : new PriorityQueue<>(policy.comparator());
+        for (int i = 1; i <= numTables; i++) {
+            freeTables.add(i); // Table IDs start from 1
+        }
+    }
+
+    /**
+     * Processes events until the customer stream is exhausted and the restaurant is empty.
+     * Each arrival schedules the next one, so customers are read from the source only as
+     * the simulation clock reaches them.
+     * @return The number of events processed.
+     * @throws UncheckedIOException If the customer source cannot be read.
+     * @throws IllegalArgumentException If a customer record is malformed.
+     */
+    public long run() {
+        for (int i = 1; i <= numChefs; i++) {
+            idleChefs.add(i);
+        }
+        for (int i = 1; i <= numWaiters; i++) {
+            idleWaiters.add(i);
+        }
+        dayStart = clock.getTimeMillis();
+        scheduleNextArrival();
+        return scheduler.run();
+    }
+
+    // Reads the next customer and schedules their arrival. Customers listed out of order arrive immediately.
+    private void scheduleNextArrival() {
+        Customer customer;
+        try {
+            customer = customers.next();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading customers", e);
+        }
+        if (customer != null) {
+            long arrivalMillis = dayStart + (long) customer.getArrivalTimeMinutes() * 60 * 1000;
+            scheduler.scheduleAt(Math.max(arrivalMillis, clock.getTimeMillis()), () -> {
+                tracker.customerEntered();
+                customerArrives(customer);
+                scheduleNextArrival();
+            });
+        } else {
+            tracker.arrivalsComplete();
+        }
+    }
+
+    // --- Customer side (mirrors CustKiosk) ---
+
+    private void customerArrives(Customer customer) {
+        printEvent("Customer " + customer.getCustomerId(), "arrives.");
+        recorder.record(JournalEventType.ARRIVED, clock.getTimeMillis(), customer.getCustomerId(), -1, -1, customer.getOrderMealName(), 0);
+        PendingCustomer pending = new PendingCustomer(customer, clock.getTimeMillis());
+        if (freeTables.isEmpty()) {
+            waitingForTable.add(pending); // Blocks on the table semaphore in the threaded version
+        } else {
+            seatCustomer(pending, freeTables.poll());
+        }
+    }
+
+    private void seatCustomer(PendingCustomer pending, int tableId) {
+        int customerId = pending.customer.getCustomerId();
+        long waitTime = clock.getTimeMillis() - pending.arrivalMillis;
+        stats.tableWait().record(waitTime);
+        printEvent("Customer " + customerId, "is seated at Table " + tableId + " (Waited " + (waitTime / 1000.0) + " sec).");
+        recorder.record(JournalEventType.SEATED, clock.getTimeMillis(), customerId, -1, tableId, pending.customer.getOrderMealName(), waitTime);
+
+        orderedMeals.add(new OrderedMeal(customerId, pending.customer.getOrderMealName(), tableId, pending.arrivalMillis, clock.getTimeMillis()));
+        printEvent("Customer " + customerId, "places an order: " + pending.customer.getOrderMealName() + ".");
+        recorder.record(JournalEventType.ORDER_PLACED, clock.getTimeMillis(), customerId, -1, tableId, pending.customer.getOrderMealName(), 0);
+        dispatchChefs();
+    }
+
+    // --- Kitchen side (mirrors Chef) ---
+
+    private void dispatchChefs() {
+        while (!idleChefs.isEmpty() && !orderedMeals.isEmpty()) {
+            startPreparing(idleChefs.poll(), orderedMeals.poll());
+        }
+    }
+
+    private void startPreparing(int chefId, OrderedMeal order) {
+        List<OrderedMeal> batch = gatherBatch(order);
+        printEvent("Chef " + chefId, "starts preparing " + describe(batch) + ".");
+        long prepStartTime = clock.getTimeMillis();
+        for (OrderedMeal batched : batch) {
+            long queueTime = prepStartTime - batched.getOrderTimeMillis();
+            stats.orderQueue().record(queueTime);
+            stats.orderQueue(batched.getMealName()).record(queueTime);
+            recorder.record(JournalEventType.PREP_STARTED, prepStartTime, batched.getCustomerId(), chefId, batched.getTableId(), batched.getMealName(), 0);
+        }
+        int prepTimeMinutes = prepTimesMinutes.getOrDefault(order.getMealName(), 5); // Default 5 min if meal not found
+        prepTimeMinutes = batching.getPrepMinutes(order.getMealName(), prepTimeMinutes, batch.size());
+        long prepTimeMillis = (long) prepTimeMinutes * 60 * 1000;
+        scheduler.scheduleAfter(prepTimeMillis, () -> finishPreparing(chefId, batch, prepStartTime));
+    }
+
+    private void finishPreparing(int chefId, List<OrderedMeal> batch, long prepStartTime) {
+        long prepDuration = clock.getTimeMillis() - prepStartTime;
+        for (OrderedMeal order : batch) {
+            stats.prep().record(prepDuration);
+            recorder.record(JournalEventType.PREP_FINISHED, clock.getTimeMillis(), order.getCustomerId(), chefId, order.getTableId(), order.getMealName(), prepDuration);
+            cookedMeals.add(new CookedMeal(chefId, order, clock.getTimeMillis()));
+        }
+        batching.recordBatch(batch.get(0).getMealName(), batch.size());
+        printEvent("Chef " + chefId, "finishes preparing " + describe(batch) + ".");
+
+        idleChefs.add(chefId);
+        dispatchChefs();
+        dispatchWaiters();
+    }
+
+    // Adds to an order any queued orders of the same meal, up to the meal's batch size, in the order policy's order (mirrors Chef)
+    private List<OrderedMeal> gatherBatch(OrderedMeal first) {
+        List<OrderedMeal> batch = new ArrayList<>();
+        batch.add(first);
+        int maxBatch = batching.getMaxBatch(first.getMealName());
+        if (maxBatch > 1) {
+            List<OrderedMeal> matching = new ArrayList<>();
+            for (OrderedMeal queued : orderedMeals) {
+                if (queued.getMealName().equals(first.getMealName())) {
+                    matching.add(queued);
+                }
+            }
+            if (!policy.isFifo()) {
+                matching.sort(policy.comparator()); // A PriorityQueue iterates in no particular order
+            }
+            for (OrderedMeal queued : matching.subList(0, Math.min(matching.size(), maxBatch - 1))) {
+                orderedMeals.remove(queued);
+                batch.add(queued);
+            }
+        }
+        return batch;
+    }
+
+    // "Burger for Customer 4", or "3 Burger for Customers 4, 7, 9" for a batch
+    private static String describe(List<OrderedMeal> batch) {
+        OrderedMeal first = batch.get(0);
+        if (batch.size() == 1) {
+            return first.getMealName() + " for Customer " + first.getCustomerId();
+        }
+        StringBuilder customers = new StringBuilder();
+        for (OrderedMeal order : batch) {
+            customers.append(customers.length() == 0 ? "" : ", ").append(order.getCustomerId());
+        }
+        return batch.size() + " " + first.getMealName() + " for Customers " + customers;
+    }
+
+    // --- Service side (mirrors Waiter) ---
+
+    private void dispatchWaiters() {
+        while (!idleWaiters.isEmpty() && !cookedMeals.isEmpty()) {
+            serve(idleWaiters.poll(), cookedMeals.poll());
+        }
+    }
+
+    private void serve(int waiterId, CookedMeal meal) {
+        printEvent("Waiter " + waiterId, "serves " + meal.getMealName() + " to Customer " + meal.getCustomerId() + " at Table " + meal.getTableId() + ".");
+        stats.cookedQueue().record(clock.getTimeMillis() - meal.getReadyTimeMillis());
+        recorder.record(JournalEventType.SERVED, clock.getTimeMillis(), meal.getCustomerId(), waiterId, meal.getTableId(), meal.getMealName(), 0);
+        // Eating takes between 5 and 15 simulation minutes; the waiter either stays with the table or moves on
+        int eatingTimeMinutes = 5 + random.nextInt(11);
+        long eatingTimeMillis = (long) eatingTimeMinutes * 60 * 1000;
+        scheduler.scheduleAfter(eatingTimeMillis, () -> customerLeaves(waiterId, meal));
+        if (!waiterStaysWhileEating) {
+            idleWaiters.add(waiterId);
+        }
+    }
+
+    private void customerLeaves(int waiterId, CookedMeal meal) {
+        String actor = waiterStaysWhileEating ? "Waiter " + waiterId : "Customer " + meal.getCustomerId();
+        printEvent(actor, waiterStaysWhileEating
+                ? "sees Customer " + meal.getCustomerId() + " finishes eating and leaves the restaurant."
+                : "finishes eating and leaves the restaurant.");
+        stats.endToEnd().record(clock.getTimeMillis() - meal.getOrder().getArrivalTimeMillis());
+        recorder.record(JournalEventType.CUSTOMER_LEFT, clock.getTimeMillis(), meal.getCustomerId(), waiterId, meal.getTableId(), meal.getMealName(), 0);
+        printEvent(actor, (waiterStaysWhileEating ? "clears Table " : "has left Table ") + meal.getTableId() + ". Table is now available.");
+        recorder.record(JournalEventType.TABLE_CLEARED, clock.getTimeMillis(), meal.getCustomerId(), waiterId, meal.getTableId(), meal.getMealName(), 0);
+        tracker.customerServed();
+        releaseTable(meal.getTableId());
+
+        if (waiterStaysWhileEating) {
+            idleWaiters.add(waiterId);
+            dispatchWaiters();
+        }
+    }
+
+    private void releaseTable(int tableId) {
+        PendingCustomer next = waitingForTable.poll();
+        if (next != null) {
+            seatCustomer(next, tableId); // Hand the table straight to the longest-waiting customer
+        } else {
+            freeTables.add(tableId);
+        }
+    }
+
+    private void printEvent(String actor, String message) {
+        log.event(clock.getTimeMillis(), actor, message);
+    }
+
+    private static final class PendingCustomer {
+        private final Customer customer;
+        private final long arrivalMillis;
+
+        PendingCustomer(Customer customer, long arrivalMillis) {
+            this.customer = customer;
+            this.arrivalMillis = arrivalMillis;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only binary journal of lifecycle events.
+ * Every event is a fixed-size record in a memory-mapped segment file; when a segment is full
+ * the journal rolls over to the next one. A writer claims a record slot with one atomic
+ * increment and fills it in place, so recording is lock-free apart from the rare segment roll.
+ * <pre>
+ * journal.meta        int magic "RSJL", int version, int recordsPerSegment, long startOfDayMillis,
+ *                     int NC, int NW, int NT, int mealCount, per meal: UTF name, int prepMinutes
+ * segment-NNNNNN.dat  records of RECORD_SIZE bytes:
+ *                     long timeMillis, short type, short reserved, int customerId, int actorId,
+ *                     int tableId, int mealIndex, int durationMillis
+ * </pre>
+ * A record whose type is 0 was never written and marks the end of the journal.
+ * Use JournalReader to read it back.
+ */
+public class EventJournal implements EventRecorder, AutoCloseable {
+    public static final int MAGIC = 0x52534A4C; // "RSJL"
+    public static final int VERSION = 1;
+    public static final int RECORD_SIZE = 32;
+    public static final String META_FILE = "journal.meta";
+    public static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 20; // 32 MB segments
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final Map<String, Integer> mealIndexes = new HashMap<>();
+    private final AtomicLong nextSlot = new AtomicLong(0);
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+
+    /**
+     * Creates a journal in the given directory, replacing any journal already there.
+     * @param directory Directory for the meta file and the segments; created if missing.
+     * @param recordsPerSegment Records per segment file.
+     * @param startOfDayMillis Simulation time of 08:00, used to compute run duration on replay.
+     * @param numChefs NC of the run.
+     * @param numWaiters NW of the run.
+     * @param numTables NT of the run.
+     * @param mealPrepTimes The menu; record meal indexes refer to its iteration order.
+     * @throws IOException If the directory or meta file cannot be written.
+     */
+    public EventJournal(Path directory, int recordsPerSegment, long startOfDayMillis, int numChefs, int numWaiters,
+                        int numTables, Map<String, Integer> mealPrepTimes) throws IOException {
+        if (recordsPerSegment <= 0 || (long) recordsPerSegment * RECORD_SIZE > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid segment size: " + recordsPerSegment + " records");
+        }
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+        Files.createDirectories(directory);
+        try (var segmentFiles = Files.newDirectoryStream(directory, "segment-*.dat")) {
+            for (Path old : segmentFiles) {
+                Files.delete(old); // A stale tail segment would otherwise be replayed as part of this run
+            }
+        }
+        try (OutputStream file = Files.newOutputStream(directory.resolve(META_FILE));
+             DataOutputStream meta = new DataOutputStream(file)) {
+            meta.writeInt(MAGIC);
+            meta.writeInt(VERSION);
+            meta.writeInt(recordsPerSegment);
+            meta.writeLong(startOfDayMillis);
+            meta.writeInt(numChefs);
+            meta.writeInt(numWaiters);
+            meta.writeInt(numTables);
+            meta.writeInt(mealPrepTimes.size());
+            for (Map.Entry<String, Integer> meal : mealPrepTimes.entrySet()) {
+                meta.writeUTF(meal.getKey());
+                meta.writeInt(meal.getValue());
+                mealIndexes.put(meal.getKey(), mealIndexes.size());
+            }
+        }
+    }
+
+    @Override
+    public void record(JournalEventType type, long timeMillis, int customerId, int actorId, int tableId, String mealName, long durationMillis) {
+        long slot = nextSlot.getAndIncrement();
+        MappedByteBuffer segment = segment((int) (slot / recordsPerSegment));
+        int offset = (int) (slot % recordsPerSegment) * RECORD_SIZE;
+        Integer mealIndex = mealIndexes.get(mealName);
+        segment.putLong(offset, timeMillis);
+        segment.putShort(offset + 10, (short) 0);
+        segment.putInt(offset + 12, customerId);
+        segment.putInt(offset + 16, actorId);
+        segment.putInt(offset + 20, tableId);
+        segment.putInt(offset + 24, mealIndex != null ? mealIndex : -1);
+        segment.putInt(offset + 28, (int) Math.min(durationMillis, Integer.MAX_VALUE));
+        segment.putShort(offset + 8, type.getCode()); // Type last: a non-zero type marks a complete record
+    }
+
+    /**
+     * Gets the number of records written so far.
+     * @return The record count.
+     */
+    public long getRecordCount() {
+        return nextSlot.get();
+    }
+
+    /**
+     * Flushes all segments to disk. Records written after closing are lost.
+     */
+    @Override
+    public void close() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    // Returns the mapping for a segment, creating the segment file when a writer first rolls into it
+    private MappedByteBuffer segment(int index) {
+        MappedByteBuffer[] current = segments;
+        if (index < current.length) {
+            return current[index];
+        }
+        synchronized (this) {
+            current = segments;
+            if (index >= current.length) {
+                MappedByteBuffer[] grown = Arrays.copyOf(current, index + 1);
+                for (int i = current.length; i <= index; i++) {
+                    grown[i] = mapSegment(i);
+                }
+                segments = grown;
+                current = grown;
+            }
+            return current[index];
+        }
+    }
+
+    private MappedByteBuffer mapSegment(int index) {
+        Path file = segmentPath(directory, index);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordsPerSegment * RECORD_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create journal segment " + file, e);
+        }
+    }
+
+    /**
+     * Path of a segment file.
+     * @param directory The journal directory.
+     * @param index Segment number, starting at 0.
+     * @return The segment path.
+     */
+    public static Path segmentPath(Path directory, int index) {
+        return directory.resolve(String.format("segment-%06d.dat", index));
+    }
+}
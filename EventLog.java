@@ -0,0 +1,173 @@
+import java.io.PrintStream;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous event log for the simulation.
+ * Actors append records to a lock-free queue and return immediately; a background writer
+ * drains the queue in batches, formats the timestamps and writes each batch to the output
+ * with a single call. Actors therefore never contend on the output stream's lock.
+ * At level SUMMARY, per-event records are dropped at the call site and only
+ * simulation-level messages are written; at level NONE nothing is written and no writer is started.
+ */
+public class EventLog implements AutoCloseable {
+
+    /**
+     * How much the log writes.
+     */
+    public enum Level {
+        /** Nothing at all, for runs whose output is never shown, such as replications. */
+        NONE,
+        /** Only simulation-level messages (start, completion, shutdown). */
+        SUMMARY,
+        /** Every actor event as well. */
+        EVENTS
+    }
+
+    private static final int MAX_BATCH = 4096; // Records formatted per write
+    private static final long IDLE_PARK_NANOS = 50_000_000L; // Writer re-checks at least this often
+
+    private final PrintStream out;
+    private final Level level;
+    private final TimestampFormatter formatter = new TimestampFormatter();
+    private final ConcurrentLinkedQueue<Record> queue = new ConcurrentLinkedQueue<>();
+    private final Thread writer;
+    private volatile boolean writerIdle = false;
+    private volatile boolean closed = false;
+
+    /**
+     * Creates a log and starts its writer thread, unless the level is NONE.
+     * The thread is started once the log is built, so it never sees a partly constructed log.
+     * @param out Stream the log is written to.
+     * @param level Which records to write.
+     * @return The open log; the caller closes it.
+     */
+    public static EventLog open(PrintStream out, Level level) {
+        EventLog log = new EventLog(out, level);
+        if (log.writer != null) {
+            log.writer.start();
+        }
+        return log;
+    }
+
+    private EventLog(PrintStream out, Level level) {
+        this.out = out;
+        this.level = level;
+        if (level == Level.NONE) {
+            this.writer = null;
+            this.closed = true; // Every record is dropped in enqueue
+            return;
+        }
+        this.writer = new Thread(this::writeLoop, "EventLog");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Returns whether per-event records are written.
+     * @return true at level EVENTS.
+     */
+    public boolean isEventsEnabled() {
+        return level == Level.EVENTS;
+    }
+
+    /**
+     * Logs an actor event, e.g. "[08:01:00] Chef 1 starts preparing Burger ...".
+     * Dropped unless the level is EVENTS.
+     * @param timeMillis Simulation time of the event.
+     * @param actor Who the event is about, e.g. "Chef 1".
+     * @param message What happened.
+     */
+    public void event(long timeMillis, String actor, String message) {
+        if (level == Level.EVENTS) {
+            enqueue(new Record(timeMillis, actor, message));
+        }
+    }
+
+    /**
+     * Logs a simulation-level message, written at every level but NONE.
+     * @param timeMillis Simulation time of the message.
+     * @param message The message.
+     */
+    public void info(long timeMillis, String message) {
+        enqueue(new Record(timeMillis, null, message));
+    }
+
+    /**
+     * Writes all queued records and stops the writer. Records logged afterwards are dropped.
+     */
+    @Override
+    public void close() {
+        if (writer == null) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writeBatch(new StringBuilder()); // Anything that raced with shutdown
+        out.flush();
+    }
+
+    private void enqueue(Record record) {
+        if (closed) {
+            return;
+        }
+        queue.add(record);
+        if (writerIdle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void writeLoop() {
+        StringBuilder batch = new StringBuilder(MAX_BATCH * 64);
+        while (!closed) {
+            if (!writeBatch(batch)) {
+                writerIdle = true;
+                if (queue.isEmpty() && !closed) { // Re-check after announcing idleness so no record is missed
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                writerIdle = false;
+            }
+        }
+        while (writeBatch(batch)) {
+            // Drain what was queued before close
+        }
+    }
+
+    // Formats up to MAX_BATCH queued records and writes them in one call. Returns false if the queue was empty.
+    private boolean writeBatch(StringBuilder batch) {
+        batch.setLength(0);
+        Record record;
+        int count = 0;
+        while (count < MAX_BATCH && (record = queue.poll()) != null) {
+            batch.append('[');
+            formatter.appendTo(batch, record.timeMillis).append("] ");
+            if (record.actor != null) {
+                batch.append(record.actor).append(' ');
+            }
+            batch.append(record.message).append(System.lineSeparator());
+            count++;
+        }
+        if (count == 0) {
+            return false;
+        }
+        out.print(batch);
+        out.flush();
+        return true;
+    }
+
+    private static final class Record {
+        private final long timeMillis;
+        private final String actor;
+        private final String message;
+
+        Record(long timeMillis, String actor, String message) {
+            this.timeMillis = timeMillis;
+            this.actor = actor;
+            this.message = message;
+        }
+    }
+}
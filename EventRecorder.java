@@ -0,0 +1,21 @@
+/**
+ * Receives structured lifecycle events from the actors.
+ * Unlike EventLog, which produces human-readable text, a recorder keeps machine-readable
+ * records that can be analysed after the run.
+ */
+public interface EventRecorder {
+    /** Recorder that discards everything, used when no journal is configured. */
+    EventRecorder NONE = (type, timeMillis, customerId, actorId, tableId, mealName, durationMillis) -> { };
+
+    /**
+     * Records one lifecycle event.
+     * @param type What happened.
+     * @param timeMillis Simulation time of the event.
+     * @param customerId The customer the event concerns.
+     * @param actorId Chef or waiter ID, or -1 if the customer acted alone.
+     * @param tableId Table ID, or -1 if the customer is not seated.
+     * @param mealName Meal ordered by the customer.
+     * @param durationMillis Duration measured by the event (table wait, prep time), or 0.
+     */
+    void record(JournalEventType type, long timeMillis, int customerId, int actorId, int tableId, String mealName, long durationMillis);
+}
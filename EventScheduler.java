@@ -0,0 +1,79 @@
+import java.util.PriorityQueue;
+
+/**
+ * Discrete-event scheduler for the simulation.
+ * Keeps pending events in a priority queue ordered by simulation time and jumps the
+ * VirtualClock straight to the next event instead of sleeping.
+ * Events scheduled for the same instant run in the order they were scheduled.
+ */
+public class EventScheduler {
+    private final VirtualClock clock;
+    private final PriorityQueue<ScheduledEvent> queue = new PriorityQueue<>();
+    private long nextSequence = 0; // Tie-breaker so equal timestamps stay FIFO
+
+    public EventScheduler(VirtualClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Schedules an action to run at an absolute simulation time.
+     * @param timeMillis Simulation time (ms since 00:00) at which the action fires.
+     * @param action The work to perform when the event fires.
+     */
+    public void scheduleAt(long timeMillis, Runnable action) {
+        if (timeMillis < clock.getTimeMillis()) {
+            throw new IllegalArgumentException("Cannot schedule an event in the past.");
+        }
+        queue.add(new ScheduledEvent(timeMillis, nextSequence++, action));
+    }
+
+    /**
+     * Schedules an action to run after a delay relative to the current simulation time.
+     * @param delayMillis Delay in simulation milliseconds. Must be non-negative.
+     * @param action The work to perform when the event fires.
+     */
+    public void scheduleAfter(long delayMillis, Runnable action) {
+        scheduleAt(clock.getTimeMillis() + delayMillis, action);
+    }
+
+    /**
+     * Runs events in time order until the queue is empty.
+     * @return The number of events processed.
+     */
+    public long run() {
+        long processed = 0;
+        ScheduledEvent event;
+        while ((event = queue.poll()) != null) {
+            clock.advanceTo(event.timeMillis);
+            event.action.run();
+            processed++;
+        }
+        return processed;
+    }
+
+    /**
+     * Returns the number of events still waiting to fire.
+     * @return Pending event count.
+     */
+    public int getPendingEvents() {
+        return queue.size();
+    }
+
+    private static final class ScheduledEvent implements Comparable<ScheduledEvent> {
+        private final long timeMillis;
+        private final long sequence;
+        private final Runnable action;
+
+        ScheduledEvent(long timeMillis, long sequence, Runnable action) {
+            this.timeMillis = timeMillis;
+            this.sequence = sequence;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(ScheduledEvent other) {
+            int byTime = Long.compare(timeMillis, other.timeMillis);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+}
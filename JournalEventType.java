@@ -0,0 +1,41 @@
+/**
+ * Lifecycle events written to the EventJournal.
+ * The code is what is stored on disk, so existing codes must never change.
+ */
+public enum JournalEventType {
+    ARRIVED(1),
+    SEATED(2),         // duration = table wait
+    ORDER_PLACED(3),
+    PREP_STARTED(4),
+    PREP_FINISHED(5),  // duration = preparation time
+    SERVED(6),
+    CUSTOMER_LEFT(7),
+    TABLE_CLEARED(8);
+
+    private static final JournalEventType[] BY_CODE = new JournalEventType[9];
+
+    static {
+        for (JournalEventType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final short code;
+
+    JournalEventType(int code) {
+        this.code = (short) code;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    /**
+     * Looks up a type by its on-disk code.
+     * @param code The stored code.
+     * @return The type, or null for unknown codes (including 0, an unwritten record).
+     */
+    public static JournalEventType fromCode(int code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
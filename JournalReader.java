@@ -0,0 +1,136 @@
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads back a journal written by EventJournal.
+ * The meta file is loaded eagerly; records are streamed segment by segment through a Visitor,
+ * so journals larger than the heap can be replayed.
+ */
+public class JournalReader {
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final long startOfDayMillis;
+    private final int numChefs;
+    private final int numWaiters;
+    private final int numTables;
+    private final List<String> mealNames = new ArrayList<>();
+    private final List<Integer> mealPrepTimes = new ArrayList<>();
+
+    /**
+     * Callback for each journal record, in the order the records were written.
+     */
+    public interface Visitor {
+        void visit(JournalEventType type, long timeMillis, int customerId, int actorId, int tableId, int mealIndex, int durationMillis);
+    }
+
+    /**
+     * Opens a journal directory and reads its meta file.
+     * @param directory The journal directory.
+     * @throws IOException If the meta file is missing or not a journal.
+     */
+    public JournalReader(Path directory) throws IOException {
+        this.directory = directory;
+        try (InputStream file = Files.newInputStream(directory.resolve(EventJournal.META_FILE));
+             DataInputStream meta = new DataInputStream(file)) {
+            if (meta.readInt() != EventJournal.MAGIC) {
+                throw new IOException("Not an event journal: " + directory);
+            }
+            int version = meta.readInt();
+            if (version != EventJournal.VERSION) {
+                throw new IOException("Unsupported journal version " + version);
+            }
+            recordsPerSegment = meta.readInt();
+            startOfDayMillis = meta.readLong();
+            numChefs = meta.readInt();
+            numWaiters = meta.readInt();
+            numTables = meta.readInt();
+            int mealCount = meta.readInt();
+            for (int i = 0; i < mealCount; i++) {
+                mealNames.add(meta.readUTF());
+                mealPrepTimes.add(meta.readInt());
+            }
+        }
+    }
+
+    /**
+     * Streams every complete record to the visitor.
+     * Reading stops at the first unwritten record or after the last segment.
+     * @param visitor Receives each record.
+     * @return The number of records visited.
+     * @throws IOException If a segment cannot be read or holds an unknown record type.
+     */
+    public long forEach(Visitor visitor) throws IOException {
+        long count = 0;
+        for (int index = 0; Files.exists(EventJournal.segmentPath(directory, index)); index++) {
+            MappedByteBuffer segment;
+            try (FileChannel channel = FileChannel.open(EventJournal.segmentPath(directory, index), StandardOpenOption.READ)) {
+                segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            for (int offset = 0; offset + EventJournal.RECORD_SIZE <= segment.limit(); offset += EventJournal.RECORD_SIZE) {
+                short code = segment.getShort(offset + 8);
+                if (code == 0) {
+                    return count; // End of journal
+                }
+                JournalEventType type = JournalEventType.fromCode(code);
+                if (type == null) {
+                    throw new IOException("Unknown record type " + code + " in segment " + index);
+                }
+                visit(visitor, type, segment, offset);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void visit(Visitor visitor, JournalEventType type, ByteBuffer segment, int offset) {
+        visitor.visit(type, segment.getLong(offset), segment.getInt(offset + 12), segment.getInt(offset + 16),
+                segment.getInt(offset + 20), segment.getInt(offset + 24), segment.getInt(offset + 28));
+    }
+
+    public int getRecordsPerSegment() {
+        return recordsPerSegment;
+    }
+
+    public long getStartOfDayMillis() {
+        return startOfDayMillis;
+    }
+
+    public int getNumChefs() {
+        return numChefs;
+    }
+
+    public int getNumWaiters() {
+        return numWaiters;
+    }
+
+    public int getNumTables() {
+        return numTables;
+    }
+
+    /**
+     * Gets the menu in the order record meal indexes refer to.
+     * @return Meal names, unmodifiable.
+     */
+    public List<String> getMealNames() {
+        return Collections.unmodifiableList(mealNames);
+    }
+
+    /**
+     * Gets the configured prep time of a meal.
+     * @param mealIndex Index into getMealNames().
+     * @return Prep time in minutes.
+     */
+    public int getMealPrepMinutes(int mealIndex) {
+        return mealPrepTimes.get(mealIndex);
+    }
+}
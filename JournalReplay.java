@@ -0,0 +1,84 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Recomputes run statistics from an EventJournal without re-running the simulation.
+ * Prints the same summary block as RestSimApp, followed by per-event and per-meal
+ * breakdowns that the live summary does not report.
+ * Usage: java JournalReplay <journal_dir>
+ */
+public class JournalReplay {
+
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Usage: java JournalReplay <journal_dir>");
+            System.exit(1);
+        }
+        JournalReader reader = null;
+        Aggregator totals = null;
+        try {
+            reader = new JournalReader(Path.of(args[0]));
+            totals = new Aggregator(reader.getMealNames().size());
+            long records = reader.forEach(totals);
+            System.out.println("Replayed " + records + " records (" + reader.getNumChefs() + " Chefs, "
+                    + reader.getNumWaiters() + " Waiters, " + reader.getNumTables() + " Tables).");
+        } catch (IOException e) {
+            System.err.println("Error reading journal '" + args[0] + "': " + e.getMessage());
+            System.exit(1);
+        }
+
+        // The run ends when the last recorded event happens
+        long durationMillis = totals.lastEventMillis >= reader.getStartOfDayMillis() ? totals.lastEventMillis - reader.getStartOfDayMillis() : 0;
+        SimulationSummary summary = new SimulationSummary(totals.typeCounts[JournalEventType.TABLE_CLEARED.ordinal()],
+                totals.totalWaitMillis, totals.typeCounts[JournalEventType.PREP_FINISHED.ordinal()], totals.totalPrepMillis, durationMillis);
+        summary.print(System.out, new TimestampFormatter().format(Math.max(totals.lastEventMillis, reader.getStartOfDayMillis())));
+
+        System.out.println("\nEvents:");
+        for (JournalEventType type : JournalEventType.values()) {
+            System.out.printf("  %-14s %d%n", type, totals.typeCounts[type.ordinal()]);
+        }
+        System.out.printf("Longest Wait for Table: %.2f Minutes%n", totals.maxWaitMillis / 60_000.0);
+
+        System.out.println("\nMeals:");
+        List<String> meals = reader.getMealNames();
+        for (int i = 0; i < meals.size(); i++) {
+            int prepared = totals.mealCounts[i];
+            double averagePrep = prepared > 0 ? totals.mealPrepMillis[i] / (double) prepared / 60_000.0 : 0.0;
+            System.out.printf("  %-10s prepared %d, average prep %.2f Minutes (configured %d)%n",
+                    meals.get(i), prepared, averagePrep, reader.getMealPrepMinutes(i));
+        }
+    }
+
+    // Folds records into running totals; everything is O(1) per record so replay streams at disk speed
+    private static final class Aggregator implements JournalReader.Visitor {
+        final int[] typeCounts = new int[JournalEventType.values().length];
+        final int[] mealCounts;
+        final long[] mealPrepMillis;
+        long totalWaitMillis = 0;
+        long maxWaitMillis = 0;
+        long totalPrepMillis = 0;
+        long lastEventMillis = Long.MIN_VALUE;
+
+        Aggregator(int mealCount) {
+            mealCounts = new int[mealCount];
+            mealPrepMillis = new long[mealCount];
+        }
+
+        @Override
+        public void visit(JournalEventType type, long timeMillis, int customerId, int actorId, int tableId, int mealIndex, int durationMillis) {
+            typeCounts[type.ordinal()]++;
+            lastEventMillis = Math.max(lastEventMillis, timeMillis);
+            if (type == JournalEventType.SEATED) {
+                totalWaitMillis += durationMillis;
+                maxWaitMillis = Math.max(maxWaitMillis, durationMillis);
+            } else if (type == JournalEventType.PREP_FINISHED) {
+                totalPrepMillis += durationMillis;
+                if (mealIndex >= 0 && mealIndex < mealCounts.length) {
+                    mealCounts[mealIndex]++;
+                    mealPrepMillis[mealIndex] += durationMillis;
+                }
+            }
+        }
+    }
+}
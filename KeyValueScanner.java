@@ -0,0 +1,156 @@
+/**
+ * Allocation-free scanner over "Key1=Val1 Key2=Val2" lines.
+ * Pairs are separated by whitespace that is followed by another "Word=" key, so values
+ * may contain spaces. Keys and values are exposed as positions in the line and compared
+ * or converted in place, so scanning a line creates no substrings and no map.
+ * One instance can be reused for many lines; it is not thread-safe.
+ */
+public class KeyValueScanner {
+    private String line;
+    private int pos;
+    private int keyStart;
+    private int keyEnd;
+    private int valueStart;
+    private int valueEnd;
+
+    /**
+     * Starts scanning a new line.
+     * @param line The line to scan.
+     */
+    public void reset(String line) {
+        this.line = line;
+        this.pos = 0;
+        this.keyStart = this.keyEnd = this.valueStart = this.valueEnd = 0;
+    }
+
+    /**
+     * Returns whether the line is blank or a comment (first non-blank character is '#').
+     * @return true if the line holds no pairs.
+     */
+    public boolean isBlankOrComment() {
+        int i = skipWhitespace(0);
+        return i >= line.length() || line.charAt(i) == '#';
+    }
+
+    /**
+     * Advances to the next key=value pair.
+     * @return true if a pair was found, false at the end of the line.
+     * @throws IllegalArgumentException If the next token has no '='.
+     */
+    public boolean next() {
+        int length = line.length();
+        pos = skipWhitespace(pos);
+        if (pos >= length) {
+            return false;
+        }
+        keyStart = pos;
+        while (pos < length && line.charAt(pos) != '=' && !Character.isWhitespace(line.charAt(pos))) {
+            pos++;
+        }
+        if (pos >= length || line.charAt(pos) != '=') {
+            throw new IllegalArgumentException("Invalid pair format: " + line.substring(keyStart, pos));
+        }
+        keyEnd = pos++;
+        valueStart = pos;
+        while (true) {
+            while (pos < length && !Character.isWhitespace(line.charAt(pos))) {
+                pos++;
+            }
+            valueEnd = pos;
+            if (pos >= length) {
+                return true;
+            }
+            // Whitespace: the value ends here only if a "Word=" key follows
+            int next = skipWhitespace(pos);
+            int word = next;
+            while (word < length && isWordChar(line.charAt(word))) {
+                word++;
+            }
+            if (word == length && next == length) {
+                return true; // Trailing whitespace
+            }
+            if (word > next && word < length && line.charAt(word) == '=') {
+                pos = next;
+                return true;
+            }
+            pos = word > next ? word : next; // Part of the value, keep scanning
+        }
+    }
+
+    /**
+     * Compares the current key with the given name.
+     * @param name The key to compare against.
+     * @return true if they are equal.
+     */
+    public boolean keyIs(String name) {
+        return keyEnd - keyStart == name.length() && line.regionMatches(keyStart, name, 0, name.length());
+    }
+
+    /**
+     * Compares the current value with the given text.
+     * @param text The text to compare against.
+     * @return true if they are equal.
+     */
+    public boolean valueIs(String text) {
+        return valueEnd - valueStart == text.length() && line.regionMatches(valueStart, text, 0, text.length());
+    }
+
+    /** @return The current key as a new String. */
+    public String key() {
+        return line.substring(keyStart, keyEnd);
+    }
+
+    /** @return The current value as a new String. */
+    public String value() {
+        return line.substring(valueStart, valueEnd);
+    }
+
+    /**
+     * Parses the current value as a non-negative decimal integer.
+     * @return The value.
+     * @throws NumberFormatException If the value is not a non-negative integer.
+     */
+    public int valueAsInt() {
+        return parseInt(valueStart, valueEnd);
+    }
+
+    /**
+     * Parses the current value as a duration or clock time, "HH:MM" or plain minutes.
+     * @return The value in minutes.
+     * @throws NumberFormatException If the value has neither form.
+     */
+    public int valueAsMinutes() {
+        for (int i = valueStart; i < valueEnd; i++) {
+            if (line.charAt(i) == ':') {
+                return parseInt(valueStart, i) * 60 + parseInt(i + 1, valueEnd);
+            }
+        }
+        return parseInt(valueStart, valueEnd);
+    }
+
+    private int parseInt(int from, int to) {
+        if (from >= to || to - from > 9) {
+            throw new NumberFormatException("Invalid number: '" + line.substring(from, to) + "'");
+        }
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Invalid number: '" + line.substring(from, to) + "'");
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private int skipWhitespace(int from) {
+        while (from < line.length() && Character.isWhitespace(line.charAt(from))) {
+            from++;
+        }
+        return from;
+    }
+
+    private static boolean isWordChar(char c) {
+        return c == '_' || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+}
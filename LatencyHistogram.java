@@ -0,0 +1,133 @@
+/**
+ * Log-linear latency histogram in the style of HdrHistogram.
+ * Values are counted in buckets whose width grows with the value, so every recorded value
+ * is kept to within 1/64 (about 1.6%) of its true value over the whole range while the
+ * histogram stays a fixed, small array. Histograms with the same layout can be merged
+ * by adding their counts, which is how per-thread recordings are combined.
+ * Not thread-safe; concurrent recording goes through LatencyRecorder.
+ */
+public class LatencyHistogram {
+    static final int SUB_BUCKET_BITS = 7;                        // 128 linear sub-buckets per power of two
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT / 2;
+    static final int MAX_VALUE_BITS = 44;                        // Values up to ~17.6e12 (over 500 years in ms)
+    static final long HIGHEST_TRACKABLE_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_VALUE_BITS - SUB_BUCKET_BITS) * HALF_SUB_BUCKET_COUNT;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount = 0;
+    private long totalValue = 0;
+    private long maxValue = 0;
+
+    /**
+     * Records one value. Negative values count as 0, values beyond the trackable range are clamped.
+     * @param value The value, normally a latency in milliseconds.
+     */
+    public void record(long value) {
+        long clamped = clamp(value);
+        counts[bucketIndex(clamped)]++;
+        totalCount++;
+        totalValue += clamped;
+        maxValue = Math.max(maxValue, clamped);
+    }
+
+    /**
+     * Adds all values recorded in another histogram to this one.
+     * @param other The histogram to merge in; left unchanged.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        totalValue += other.totalValue;
+        maxValue = Math.max(maxValue, other.maxValue);
+    }
+
+    // Bulk merge used by LatencyRecorder snapshots
+    void addBucket(int index, long count) {
+        counts[index] += count;
+        totalCount += count;
+    }
+
+    void addTotals(long value, long max) {
+        totalValue += value;
+        maxValue = Math.max(maxValue, max);
+    }
+
+    public long getCount() {
+        return totalCount;
+    }
+
+    /**
+     * Sum of all recorded values, exact.
+     * @return The total.
+     */
+    public long getTotal() {
+        return totalValue;
+    }
+
+    /**
+     * Largest recorded value, exact.
+     * @return The maximum, 0 if nothing was recorded.
+     */
+    public long getMax() {
+        return maxValue;
+    }
+
+    /**
+     * Mean of the recorded values, exact.
+     * @return The mean, 0 if nothing was recorded.
+     */
+    public double getMean() {
+        return totalCount > 0 ? totalValue / (double) totalCount : 0.0;
+    }
+
+    /**
+     * Gets the value at or below which the given percentage of recorded values fall.
+     * The result is the top of the matching bucket, capped at the recorded maximum.
+     * @param percentile Percentile between 0 and 100.
+     * @return The value, 0 if nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        double fraction = Math.min(Math.max(percentile, 0.0), 100.0) / 100.0;
+        long target = Math.max(1, (long) Math.ceil(fraction * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(highestValueInBucket(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    static long clamp(long value) {
+        return Math.min(Math.max(value, 0), HIGHEST_TRACKABLE_VALUE);
+    }
+
+    /**
+     * Maps a value to its bucket. Values below SUB_BUCKET_COUNT get exact buckets; above that,
+     * each power of two is split into HALF_SUB_BUCKET_COUNT equal buckets.
+     */
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = (64 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS; // >= 1
+        int subBucket = (int) (value >>> shift); // In [HALF_SUB_BUCKET_COUNT, SUB_BUCKET_COUNT)
+        return SUB_BUCKET_COUNT + (shift - 1) * HALF_SUB_BUCKET_COUNT + (subBucket - HALF_SUB_BUCKET_COUNT);
+    }
+
+    static long highestValueInBucket(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / HALF_SUB_BUCKET_COUNT + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % HALF_SUB_BUCKET_COUNT + HALF_SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,74 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe, lock-free recorder for one latency stage.
+ * Recording threads are spread over a few striped histograms by thread ID, so chefs and
+ * waiters on platform threads almost always write to their own stripe and never contend.
+ * Customer kiosks may run on one virtual thread each; striping (rather than a histogram per
+ * thread) keeps memory bounded no matter how many of them record.
+ * snapshot() merges the stripes into a LatencyHistogram for reporting.
+ */
+public class LatencyRecorder {
+    private final String name;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    /**
+     * Creates a recorder with one stripe per available processor (rounded up to a power of two, at most 16).
+     * @param name Stage name shown in reports.
+     */
+    public LatencyRecorder(String name) {
+        this.name = name;
+        int count = Integer.highestOneBit(Math.min(16, Math.max(1, Runtime.getRuntime().availableProcessors())) * 2 - 1);
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMask = count - 1;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records one latency.
+     * @param valueMillis Latency in simulation milliseconds.
+     */
+    public void record(long valueMillis) {
+        long value = LatencyHistogram.clamp(valueMillis);
+        Stripe stripe = stripes[(int) Thread.currentThread().threadId() & stripeMask];
+        stripe.counts.incrementAndGet(LatencyHistogram.bucketIndex(value));
+        stripe.total.addAndGet(value);
+        long max = stripe.max.get();
+        while (value > max && !stripe.max.compareAndSet(max, value)) {
+            max = stripe.max.get();
+        }
+    }
+
+    /**
+     * Merges all stripes into a new histogram. Values recorded concurrently with the snapshot
+     * may or may not be included, so take it after the recording threads have finished.
+     * @return A new histogram holding everything recorded so far.
+     */
+    public LatencyHistogram snapshot() {
+        LatencyHistogram merged = new LatencyHistogram();
+        for (Stripe stripe : stripes) {
+            for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+                long count = stripe.counts.get(i);
+                if (count != 0) {
+                    merged.addBucket(i, count);
+                }
+            }
+            merged.addTotals(stripe.total.get(), stripe.max.get());
+        }
+        return merged;
+    }
+
+    private static final class Stripe {
+        final AtomicLongArray counts = new AtomicLongArray(LatencyHistogram.BUCKET_COUNT);
+        final AtomicLong total = new AtomicLong();
+        final AtomicLong max = new AtomicLong();
+    }
+}
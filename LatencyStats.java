@@ -0,0 +1,130 @@
+import java.io.PrintStream;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency recorders for each stage of a customer's visit, shared by all actors.
+ * <pre>
+ * arrival --tableWait--> seated/ordered --orderQueue--> prep start --prep--> cooked
+ *         --cookedQueue--> served ... leaves      (endToEnd: arrival to leaving)
+ * </pre>
+ * Order queueing is also broken down by meal, which shows how an order policy treats long and short meals.
+ */
+public class LatencyStats {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final LatencyRecorder tableWait = new LatencyRecorder("Table wait");
+    private final LatencyRecorder orderQueue = new LatencyRecorder("Order queueing");
+    private final LatencyRecorder prep = new LatencyRecorder("Preparation");
+    private final LatencyRecorder cookedQueue = new LatencyRecorder("Cooked queueing");
+    private final LatencyRecorder endToEnd = new LatencyRecorder("End to end");
+    private final LatencyRecorder[] stages = {tableWait, orderQueue, prep, cookedQueue, endToEnd};
+    private static final String[] STAGE_KEYS = {"tableWait", "orderQueue", "prep", "cookedQueue", "endToEnd"};
+    private final Map<String, LatencyRecorder> orderQueueByMeal = new ConcurrentHashMap<>();
+
+    /** Arrival until seated at a table. */
+    public LatencyRecorder tableWait() {
+        return tableWait;
+    }
+
+    /** Order placed until a chef starts preparing it. */
+    public LatencyRecorder orderQueue() {
+        return orderQueue;
+    }
+
+    /** Order placed until a chef starts preparing it, for one meal; created on first use. */
+    public LatencyRecorder orderQueue(String meal) {
+        return orderQueueByMeal.computeIfAbsent(meal, LatencyRecorder::new);
+    }
+
+    /** Preparation by the chef. */
+    public LatencyRecorder prep() {
+        return prep;
+    }
+
+    /** Meal cooked until a waiter serves it. */
+    public LatencyRecorder cookedQueue() {
+        return cookedQueue;
+    }
+
+    /** Arrival until the customer leaves. */
+    public LatencyRecorder endToEnd() {
+        return endToEnd;
+    }
+
+    /**
+     * Prints count, mean, p50/p90/p99/p99.9 and max per stage, in simulation minutes.
+     * @param out Stream to print to.
+     */
+    public void print(PrintStream out) {
+        out.println("\nLatency (Minutes):");
+        printHeader(out, "Stage");
+        for (LatencyRecorder stage : stages) {
+            printRow(out, stage);
+        }
+        out.println("-----------------------------------------");
+    }
+
+    /**
+     * Prints the order queueing statistics of each meal, in simulation minutes.
+     * @param out Stream to print to.
+     * @param meals Meals to print, in this order; meals nobody ordered are skipped.
+     */
+    public void printOrderQueueByMeal(PrintStream out, Collection<String> meals) {
+        out.println("\nOrder Queueing by Meal (Minutes):");
+        printHeader(out, "Meal");
+        for (String meal : meals) {
+            LatencyRecorder recorder = orderQueueByMeal.get(meal);
+            if (recorder != null) {
+                printRow(out, recorder);
+            }
+        }
+        out.println("-----------------------------------------");
+    }
+
+    private static void printHeader(PrintStream out, String label) {
+        out.printf("%-16s %8s %8s %8s %8s %8s %8s %8s%n", label, "Count", "Mean", "p50", "p90", "p99", "p99.9", "Max");
+    }
+
+    private static void printRow(PrintStream out, LatencyRecorder recorder) {
+        LatencyHistogram histogram = recorder.snapshot();
+        out.printf("%-16s %8d %8.2f", recorder.getName(), histogram.getCount(), histogram.getMean() / 60_000.0);
+        for (double percentile : PERCENTILES) {
+            out.printf(" %8.2f", histogram.getValueAtPercentile(percentile) / 60_000.0);
+        }
+        out.printf(" %8.2f%n", histogram.getMax() / 60_000.0);
+    }
+
+    /**
+     * Adds count, percentiles and max of every stage to a machine-readable report,
+     * as "latency.STAGE.STATISTIC" keys (e.g. latency.tableWait.p99) with values in simulation milliseconds.
+     * Order queueing per meal is added as "latency.orderQueue.meal.MEAL.STATISTIC".
+     * @param report Report to add to.
+     */
+    public void addTo(Properties report) {
+        for (int i = 0; i < stages.length; i++) {
+            addTo(report, "latency." + STAGE_KEYS[i] + ".", stages[i]);
+        }
+        for (Map.Entry<String, LatencyRecorder> meal : new TreeMap<>(orderQueueByMeal).entrySet()) {
+            addTo(report, "latency.orderQueue.meal." + meal.getKey() + ".", meal.getValue());
+        }
+    }
+
+    private static void addTo(Properties report, String prefix, LatencyRecorder recorder) {
+        LatencyHistogram histogram = recorder.snapshot();
+        report.setProperty(prefix + "count", Long.toString(histogram.getCount()));
+        report.setProperty(prefix + "mean", Double.toString(histogram.getMean()));
+        for (double percentile : PERCENTILES) {
+            report.setProperty(prefix + "p" + formatPercentile(percentile), Long.toString(histogram.getValueAtPercentile(percentile)));
+        }
+        report.setProperty(prefix + "max", Long.toString(histogram.getMax()));
+    }
+
+    // 50 -> "50", 99.9 -> "99.9"
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+    }
+}
@@ -0,0 +1,96 @@
+import java.util.Comparator;
+import java.util.Map;
+
+/**
+ * Order in which chefs take queued orders. Every order gets a fixed priority key when it is queued
+ * and the lowest key is cooked first, so the queue can stay a plain heap.
+ * <pre>
+ * fifo  key = order time                       oldest order first
+ * spt   key = order time + aging * prep time   shortest prep first; each minute waited counts
+ *                                              as 1/aging minutes less prep, so long meals still
+ *                                              get their turn (aging 0 is FIFO)
+ * edf   key = order time + prep time           earliest deadline first, the deadline being the
+ *                                              soonest the meal could be ready after seating
+ * </pre>
+ * Ties go to the order placed first.
+ */
+public final class OrderPolicy {
+    /** The default aging factor for shortest-prep-first. */
+    public static final double DEFAULT_AGING = 4.0;
+
+    private enum Kind { FIFO, SPT, EDF }
+
+    private final Kind kind;
+    private final double aging;
+    private final Map<String, Integer> prepTimesMinutes;
+
+    private OrderPolicy(Kind kind, double aging, Map<String, Integer> prepTimesMinutes) {
+        this.kind = kind;
+        this.aging = aging;
+        this.prepTimesMinutes = prepTimesMinutes;
+    }
+
+    /**
+     * Creates a policy from its command line name.
+     * @param name "fifo", "spt" or "edf".
+     * @param aging Aging factor for spt; ignored by the other policies.
+     * @param prepTimesMinutes Meal -> prep time in minutes.
+     * @return The policy.
+     * @throws IllegalArgumentException If the name or aging factor is invalid.
+     */
+    public static OrderPolicy parse(String name, double aging, Map<String, Integer> prepTimesMinutes) throws IllegalArgumentException {
+        if (!(aging >= 0)) {
+            throw new IllegalArgumentException("Aging factor must be zero or positive.");
+        }
+        switch (name) {
+            case "fifo":
+                return new OrderPolicy(Kind.FIFO, 0, prepTimesMinutes);
+            case "spt":
+                return new OrderPolicy(Kind.SPT, aging, prepTimesMinutes);
+            case "edf":
+                return new OrderPolicy(Kind.EDF, 1, prepTimesMinutes);
+            default:
+                throw new IllegalArgumentException("Unknown order policy '" + name + "'. Expected 'fifo', 'spt' or 'edf'.");
+        }
+    }
+
+    /** @return true for plain first-in, first-out order, which needs no priority queue. */
+    public boolean isFifo() {
+        return kind == Kind.FIFO;
+    }
+
+    /**
+     * Computes the priority key of an order; lower keys are cooked first.
+     * @param order The order.
+     * @return The key, in simulation milliseconds.
+     */
+    public long keyOf(OrderedMeal order) {
+        if (kind == Kind.FIFO) {
+            return order.getOrderTimeMillis();
+        }
+        long prepMillis = (long) prepTimesMinutes.getOrDefault(order.getMealName(), 5) * 60 * 1000; // Same default as Chef
+        return order.getOrderTimeMillis() + (long) (aging * prepMillis);
+    }
+
+    /**
+     * Returns a comparator ordering orders by key, then by order time and customer ID.
+     * @return The comparator.
+     */
+    public Comparator<OrderedMeal> comparator() {
+        return Comparator.comparingLong(this::keyOf)
+                .thenComparingLong(OrderedMeal::getOrderTimeMillis)
+                .thenComparingInt(OrderedMeal::getCustomerId);
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case SPT:
+                return "shortest-prep-first (aging " + aging + ")";
+            case EDF:
+                return "earliest-deadline-first";
+            default:
+                return "fifo";
+        }
+    }
+}
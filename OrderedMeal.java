@@ -7,11 +7,15 @@ public class OrderedMeal extends BufElement {
     private final int customerId;
     private final String mealName;
     private final int tableId; // Table where the customer is seated
+    private final long arrivalTimeMillis; // Simulation time the customer arrived, for end-to-end latency
+    private final long orderTimeMillis;   // Simulation time the order was placed, for queueing latency
 
-    public OrderedMeal(int customerId, String mealName, int tableId) {
+    public OrderedMeal(int customerId, String mealName, int tableId, long arrivalTimeMillis, long orderTimeMillis) {
         this.customerId = customerId;
         this.mealName = mealName;
         this.tableId = tableId;
+        this.arrivalTimeMillis = arrivalTimeMillis;
+        this.orderTimeMillis = orderTimeMillis;
     }
 
     public int getCustomerId() {
@@ -26,6 +30,14 @@ public class OrderedMeal extends BufElement {
         return tableId;
     }
 
+    public long getArrivalTimeMillis() {
+        return arrivalTimeMillis;
+    }
+
+    public long getOrderTimeMillis() {
+        return orderTimeMillis;
+    }
+
     @Override
     public String toString() {
         return mealName + " for Customer " + customerId + " at Table " + tableId;
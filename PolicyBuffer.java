@@ -0,0 +1,206 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * Bounded order buffer that hands out orders by an OrderPolicy instead of oldest first.
+ * Synchronized like Buffer, with custom Semaphores for spaces, items and mutual exclusion, but the
+ * orders are kept in a heap keyed by the policy's priority key. Each key is computed once, when the
+ * order is produced; equal keys come out in the order they went in.
+ */
+public class PolicyBuffer implements BoundedBuffer {
+    private final OrderPolicy policy;
+    private final PriorityQueue<Entry> heap;
+    private final int capacity;
+    private final Semaphore mutex;  // For mutual exclusion accessing the heap; held only briefly, so taken uninterruptibly
+    private final Semaphore spaces; // Counts empty spaces in the buffer
+    private final Semaphore items;  // Counts available items in the buffer
+    private long sequence = 0;      // Insertion counter, breaks ties between equal keys; written under the mutex
+    private volatile int size = 0;  // Mirror of heap.size(), written under the mutex so readers need no lock
+    private volatile boolean closed = false; // Written under the mutex
+
+    /**
+     * Creates a PolicyBuffer.
+     * @param capacity The maximum number of orders the buffer can hold.
+     * @param policy Decides which order is consumed next.
+     */
+    public PolicyBuffer(int capacity, OrderPolicy policy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Buffer capacity must be positive");
+        }
+        this.policy = policy;
+        this.capacity = capacity;
+        this.heap = new PriorityQueue<>(capacity);
+        this.mutex = new Semaphore(1);
+        this.spaces = new Semaphore(capacity);
+        this.items = new Semaphore(0);
+    }
+
+    /**
+     * Adds an order to the buffer, blocking if it is full.
+     * @param item Must be an OrderedMeal.
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    @Override
+    public void produce(BufElement item) throws InterruptedException {
+        if (!(item instanceof OrderedMeal)) {
+            throw new IllegalArgumentException("PolicyBuffer can only hold OrderedMeal objects.");
+        }
+        long key = policy.keyOf((OrderedMeal) item); // Outside the mutex; it only reads the order
+        spaces.acquire();
+        mutex.acquireUninterruptibly(); // An interrupt here would strand the space permit just taken
+        if (closed) {
+            mutex.release();
+            spaces.release();
+            throw new IllegalStateException("Buffer is closed");
+        }
+        heap.add(new Entry(key, sequence++, item));
+        size = heap.size();
+        mutex.release();
+        items.release();
+    }
+
+    /**
+     * Removes the order with the lowest priority key, blocking if the buffer is empty.
+     * @return The consumed OrderedMeal, or CLOSED if the buffer is closed and empty.
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    @Override
+    public BufElement consume() throws InterruptedException {
+        items.acquire();  // Wait for an available item (or the close marker)
+        mutex.acquireUninterruptibly(); // An interrupt here would strand the item permit just taken
+        if (heap.isEmpty()) { // Only possible after close: the permit was the close marker
+            mutex.release();
+            items.release(); // Put the marker back for the next consumer
+            return CLOSED;
+        }
+        BufElement item = heap.poll().item;
+        size = heap.size();
+        mutex.release();
+        spaces.release();
+        return item;
+    }
+
+    /**
+     * Removes up to maxItems orders in priority order, blocking only until the first one is available.
+     * @param target Collection the consumed items are added to.
+     * @param maxItems Maximum number of items to take. Must be positive.
+     * @return The number of items added to target; 0 if the buffer is closed and empty.
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    @Override
+    public int drainTo(Collection<? super BufElement> target, int maxItems) throws InterruptedException {
+        if (maxItems <= 0) {
+            throw new IllegalArgumentException("maxItems must be positive");
+        }
+        items.acquire(); // Wait for at least one item
+        int permits = 1 + items.tryAcquireUpTo(maxItems - 1); // Take whatever else is already there
+        mutex.acquireUninterruptibly(); // The claimed item permits must not be lost to an interrupt
+
+        // After close one permit is the close marker rather than an item
+        int count = Math.min(permits, heap.size());
+        for (int i = 0; i < count; i++) {
+            target.add(heap.poll().item);
+        }
+        size = heap.size();
+
+        mutex.release();
+        if (count < permits) {
+            items.release(permits - count); // Put the marker back for the next consumer
+        }
+        spaces.release(count);
+        return count;
+    }
+
+    /**
+     * Removes up to maxItems orders that match the filter, highest priority first, without blocking.
+     * Permits are claimed and handed back as in Buffer.drainMatching.
+     * @param target Collection the removed items are added to.
+     * @param filter Which items to remove.
+     * @param maxItems Maximum number of items to remove.
+     * @return The number of items added to target.
+     */
+    @Override
+    public int drainMatching(Collection<? super BufElement> target, Predicate<? super BufElement> filter, int maxItems) {
+        int permits = maxItems > 0 ? items.tryAcquireUpTo(maxItems) : 0;
+        if (permits == 0) {
+            return 0;
+        }
+        mutex.acquireUninterruptibly();
+        List<Entry> matching = new ArrayList<>();
+        for (Entry entry : heap) {
+            if (filter.test(entry.item)) {
+                matching.add(entry);
+            }
+        }
+        Collections.sort(matching); // The heap iterates in no particular order
+        int count = Math.min(permits, matching.size());
+        for (int i = 0; i < count; i++) {
+            Entry entry = matching.get(i);
+            heap.remove(entry);
+            target.add(entry.item);
+        }
+        size = heap.size();
+        mutex.release();
+        if (count < permits) {
+            items.release(permits - count);
+        }
+        spaces.release(count);
+        return count;
+    }
+
+    /**
+     * Closes the buffer, releasing one extra item permit as the close marker (see Buffer.close).
+     */
+    @Override
+    public void close() {
+        mutex.acquireUninterruptibly();
+        boolean wasClosed = closed;
+        closed = true;
+        mutex.release();
+        if (!wasClosed) {
+            items.release();
+        }
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Returns the current number of orders in the buffer without locking.
+     * @return The number of items.
+     */
+    @Override
+    public int getCurrentSize() {
+        return size;
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** A queued order with its priority key. */
+    private static final class Entry implements Comparable<Entry> {
+        final long key;
+        final long sequence;
+        final BufElement item;
+
+        Entry(long key, long sequence, BufElement item) {
+            this.key = key;
+            this.sequence = sequence;
+            this.item = item;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byKey = Long.compare(key, other.key);
+            return byKey != 0 ? byKey : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -1,3 +1,5 @@
+import java.util.Collection;
+
 /**
  * Interface for Producer roles in the Producer-Consumer pattern.
  * [cite: 71, 72]
@@ -9,4 +11,17 @@ public interface Producer {
      * @throws InterruptedException If the thread is interrupted.
      */
     void produce(BufElement item) throws InterruptedException;
-}
\ No newline at end of file
+
+    /**
+     * Produces a batch of items, in iteration order.
+     * Implementations backed by a buffer should synchronize once per batch rather than per item;
+     * the default simply produces them one at a time.
+     * @param items The BufElements to add.
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    default void produceAll(Collection<? extends BufElement> items) throws InterruptedException {
+        for (BufElement item : items) {
+            produce(item);
+        }
+    }
+}
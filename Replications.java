@@ -0,0 +1,272 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Monte Carlo replications: runs the event engine several times on the same setup, side by side on a
+ * fixed pool, and summarizes each metric across runs as a mean with a 95% confidence interval.
+ * Replications differ only in their random seed. Each one builds its own clock, statistics, tracker,
+ * batch counters and customer stream; only the immutable SimulationConfig and OrderPolicy are shared,
+ * so runs cannot disturb each other. Seeds are drawn in order from a SplittableRandom seeded with the
+ * base seed before any run starts, so a set of replications gives the same results whatever the pool size.
+ */
+public class Replications {
+    /** Metrics collected from each replication, in report order. */
+    public static final String[] KEYS = {"served", "simulationMinutes", "tableWait.mean", "tableWait.p95",
+            "orderQueue.mean", "prep.mean", "endToEnd.mean", "endToEnd.p95"};
+    private static final String[] LABELS = {"Customers served", "Simulated day (min)", "Table wait mean (min)", "Table wait p95 (min)",
+            "Order queue mean (min)", "Prep mean (min)", "End to end mean (min)", "End to end p95 (min)"};
+
+    // Two-sided 95% Student t quantiles for 1 to 30 degrees of freedom
+    private static final double[] T_975 = {12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042};
+
+    private final SimulationConfig config;
+    private final OrderPolicy policy;
+    private final boolean waiterStaysWhileEating;
+    private final int threads;
+
+    /**
+     * @param config The setup every replication runs.
+     * @param policy Order policy of every replication.
+     * @param waiterStaysWhileEating Legacy eating model (--eating=waiter).
+     * @param threads Replications run at once.
+     */
+    public Replications(SimulationConfig config, OrderPolicy policy, boolean waiterStaysWhileEating, int threads) {
+        this.config = config;
+        this.policy = policy;
+        this.waiterStaysWhileEating = waiterStaysWhileEating;
+        this.threads = threads;
+    }
+
+    /**
+     * Runs the replications and waits for all of them.
+     * @param count Number of replications, at least 2.
+     * @param baseSeed Seed the replication seeds are drawn from.
+     * @return Per-run metrics and their summary.
+     * @throws IOException If the configuration file cannot be read.
+     * @throws IllegalArgumentException If the configuration file is malformed.
+     * @throws InterruptedException If interrupted while waiting for the runs.
+     */
+    public Result run(int count, long baseSeed) throws IOException, IllegalArgumentException, InterruptedException {
+        if (count < 2) {
+            throw new IllegalArgumentException("At least 2 replications are needed for a confidence interval.");
+        }
+        long wallStartNanos = System.nanoTime();
+        List<Callable<double[]>> runs = new ArrayList<>();
+        for (long seed : seeds(baseSeed, count)) {
+            runs.add(() -> runOnce(seed));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, count));
+        double[][] values = new double[count][];
+        try {
+            List<Future<double[]>> results = pool.invokeAll(runs);
+            for (int i = 0; i < count; i++) {
+                values[i] = results.get(i).get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Replication failed", cause);
+        } finally {
+            pool.shutdownNow();
+        }
+        return new Result(values, baseSeed, Math.min(threads, count), (System.nanoTime() - wallStartNanos) / 1_000_000);
+    }
+
+    /**
+     * Runs one replication on the calling thread, with nothing logged.
+     * @param seed Seed of the run's random eating times.
+     * @return The run's metrics, indexed like KEYS.
+     * @throws IOException If the configuration file cannot be read.
+     * @throws IllegalArgumentException If the configuration file is malformed.
+     */
+    public double[] runOnce(long seed) throws IOException, IllegalArgumentException {
+        VirtualClock clock = new VirtualClock();
+        LatencyStats stats = new LatencyStats();
+        CustomerTracker tracker = new CustomerTracker();
+        EventLog log = EventLog.open(System.out, EventLog.Level.NONE);
+        try (ConfigSource customers = config.openCustomers()) {
+            new DiscreteEventSimulation(config.getNumChefs(), config.getNumWaiters(), config.getNumTables(), config.getMealPrepTimes(),
+                    customers, clock, stats, tracker, policy, new BatchCooking(config.getBatchRules()), waiterStaysWhileEating,
+                    seed, log, EventRecorder.NONE).run();
+        }
+        LatencyHistogram tableWait = stats.tableWait().snapshot();
+        LatencyHistogram endToEnd = stats.endToEnd().snapshot();
+        return new double[] {
+                tracker.getServed(),
+                minutes(clock.getElapsedSimulationMillis()),
+                minutes(tableWait.getMean()),
+                minutes(tableWait.getValueAtPercentile(95)),
+                minutes(stats.orderQueue().snapshot().getMean()),
+                minutes(stats.prep().snapshot().getMean()),
+                minutes(endToEnd.getMean()),
+                minutes(endToEnd.getValueAtPercentile(95)),
+        };
+    }
+
+    /**
+     * Draws replication seeds. The first n seeds are the same whatever the count, so more runs extend a set.
+     * @param baseSeed Seed of the sequence.
+     * @param count Number of seeds.
+     * @return The seeds, in replication order.
+     */
+    public static long[] seeds(long baseSeed, int count) {
+        SplittableRandom random = new SplittableRandom(baseSeed);
+        long[] seeds = new long[count];
+        for (int i = 0; i < count; i++) {
+            seeds[i] = random.nextLong();
+        }
+        return seeds;
+    }
+
+    /**
+     * Returns the index of a metric.
+     * @param key One of KEYS.
+     * @return Its index in each run's metrics.
+     * @throws IllegalArgumentException If the key is unknown.
+     */
+    public static int indexOf(String key) throws IllegalArgumentException {
+        for (int i = 0; i < KEYS.length; i++) {
+            if (KEYS[i].equals(key)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown replication metric '" + key + "'.");
+    }
+
+    private static double minutes(double millis) {
+        return millis / 60_000.0;
+    }
+
+    // Two-sided 95% t quantile; beyond the table 1.96 + 2.4/df is within 0.002 of the exact value
+    private static double t975(int degreesOfFreedom) {
+        return degreesOfFreedom <= T_975.length ? T_975[degreesOfFreedom - 1] : 1.96 + 2.4 / degreesOfFreedom;
+    }
+
+    /** The metrics of a set of replications and their mean, spread and 95% confidence interval. */
+    public static final class Result {
+        private final double[][] values; // [replication][metric]
+        private final long baseSeed;
+        private final int threads;
+        private final long wallMillis;
+
+        /**
+         * @param values Each replication's metrics, indexed like KEYS; at least two replications.
+         * @param baseSeed Seed the replication seeds were drawn from.
+         * @param threads Replications run at once.
+         * @param wallMillis Real time the replications took.
+         */
+        Result(double[][] values, long baseSeed, int threads, long wallMillis) {
+            this.values = values;
+            this.baseSeed = baseSeed;
+            this.threads = threads;
+            this.wallMillis = wallMillis;
+        }
+
+        /** @return Number of replications. */
+        public int getCount() {
+            return values.length;
+        }
+
+        /**
+         * @param metric Index into KEYS.
+         * @return The metric's mean across replications.
+         */
+        public double getMean(int metric) {
+            double sum = 0;
+            for (double[] run : values) {
+                sum += run[metric];
+            }
+            return sum / values.length;
+        }
+
+        /**
+         * @param metric Index into KEYS.
+         * @return The metric's sample standard deviation across replications.
+         */
+        public double getStdDev(int metric) {
+            double mean = getMean(metric);
+            double squares = 0;
+            for (double[] run : values) {
+                squares += (run[metric] - mean) * (run[metric] - mean);
+            }
+            return Math.sqrt(squares / (values.length - 1));
+        }
+
+        /**
+         * Returns the half-width of the 95% confidence interval of the mean, from Student's t distribution.
+         * @param metric Index into KEYS.
+         * @return The half-width; the interval is the mean plus or minus this.
+         */
+        public double getHalfWidth(int metric) {
+            return t975(values.length - 1) * getStdDev(metric) / Math.sqrt(values.length);
+        }
+
+        public double getMin(int metric) {
+            double min = Double.POSITIVE_INFINITY;
+            for (double[] run : values) {
+                min = Math.min(min, run[metric]);
+            }
+            return min;
+        }
+
+        public double getMax(int metric) {
+            double max = Double.NEGATIVE_INFINITY;
+            for (double[] run : values) {
+                max = Math.max(max, run[metric]);
+            }
+            return max;
+        }
+
+        /**
+         * Prints one line per metric: mean, 95% confidence interval, standard deviation and range.
+         * @param out Stream to print to.
+         */
+        public void print(PrintStream out) {
+            out.println("\nReplications: " + values.length + " runs of the event engine, base seed " + baseSeed
+                    + ", " + threads + " at a time, " + wallMillis + " ms");
+            out.printf("%-24s %10s %10s %10s %10s %10s%n", "Metric", "Mean", "95% CI +-", "StdDev", "Min", "Max");
+            for (int i = 0; i < KEYS.length; i++) {
+                out.printf("%-24s %10.2f %10.2f %10.2f %10.2f %10.2f%n", LABELS[i],
+                        getMean(i), getHalfWidth(i), getStdDev(i), getMin(i), getMax(i));
+            }
+            out.println("-----------------------------------------");
+        }
+
+        /**
+         * Adds every metric to a machine-readable report as "replication.METRIC.STATISTIC" keys.
+         * @param report Report to add to.
+         */
+        public void addTo(Properties report) {
+            report.setProperty("replications", Integer.toString(values.length));
+            report.setProperty("replication.wall.millis", Long.toString(wallMillis));
+            for (int i = 0; i < KEYS.length; i++) {
+                String prefix = "replication." + KEYS[i] + ".";
+                report.setProperty(prefix + "mean", Double.toString(getMean(i)));
+                report.setProperty(prefix + "ci95", Double.toString(getHalfWidth(i)));
+                report.setProperty(prefix + "stddev", Double.toString(getStdDev(i)));
+                report.setProperty(prefix + "min", Double.toString(getMin(i)));
+                report.setProperty(prefix + "max", Double.toString(getMax(i)));
+            }
+        }
+    }
+}
@@ -1,15 +1,24 @@
-import java.io.BufferedReader;
-import java.io.FileReader;
+import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
+import javax.management.JMException;
 
 
 /**
@@ -21,36 +30,143 @@ import java.util.concurrent.atomic.AtomicLong;
 public class RestSimApp {
 
     // Configuration Variables
-    private static int numChefs;
-    private static int numWaiters;
-    private static int numTables;
-    private static final Map<String, Integer> mealPrepTimes = new HashMap<>(); // Meal name -> prep time in minutes
-    private static final List<Customer> customers = new ArrayList<>();
+    private static SimulationConfig config; // Staffing, menu, stations and batch rules
+    private static ConfigSource configSource; // Customers are streamed from here as the simulation reaches them
+    private static BatchCooking batchCooking = BatchCooking.NONE; // Meals chefs cook several orders at a time
+    private static long seed; // Seeds every random eating time, so a run can be repeated with --seed
+    private static final Map<String, String> options = new HashMap<>(); // Command line "--key=value" options
 
     // Shared Resources & Synchronization Primitives [cite: 66, 69]
     private static TableBuffer tableBuffer;
-    private static Buffer orderedMealsBuf;
-    private static Buffer cookedMealsBuf;
+    private static BoundedSink orderedMealsBuf; // Kiosks place orders here; chefs consume from the shared buffer or the router's views
+    private static BoundedBuffer cookedMealsBuf;
+    private static StationRouter stationRouter; // Routes orders to kitchen stations; null without stations
+    private static OrderPolicy orderPolicy; // Which queued order a chef takes next
 
     // Simulation Clock & Statistics
-    private static SimulationClock simulationClock;
-    private static final AtomicLong totalTableWaitTimeMillis = new AtomicLong(0);
-    private static final AtomicLong totalPrepTimeMillis = new AtomicLong(0);
-    private static final AtomicInteger totalCustomersServed = new AtomicInteger(0);
-    private static final AtomicInteger totalMealsPrepared = new AtomicInteger(0);
-    private static final AtomicInteger totalCustomersEntered = new AtomicInteger(0);
+    private static SimulationTime simulationClock; // The engine's clock, read-only; the run methods get the typed clock
+    private static EventLog eventLog; // Asynchronous output for actor events and progress messages
+    private static EventJournal journal; // Binary lifecycle journal, null unless --journal is given
+    private static EventRecorder eventRecorder = EventRecorder.NONE;
+    private static final LatencyStats latencyStats = new LatencyStats(); // Per-stage latency histograms
+    private static final CustomerTracker customers = new CustomerTracker(); // Entered/served counts and completion signal
+    private static long summaryDurationMillis; // Simulated duration reported in the summary
+    private static Replications.Result replicationResult; // Set instead of the single-run statistics with --replications
+
+    private static final int TIMER_WORKERS = 2; // Threads running timing wheel callbacks in the threaded engine
+    private static final int ARRIVAL_LOOKAHEAD = 1024; // Most arrivals scheduled ahead of the clock
 
 
     public static void main(String[] args) {
+        long wallStartNanos = System.nanoTime();
         if (args.length < 1) {
-            System.err.println("Usage: java RestSimApp <input_config_file>");
+            System.err.println("Usage: java RestSimApp <input_config_file|trace_file> [--engine=threaded|event|async] [--speed=<factor>] [--buffer=monitor|ring] [--dispatch=shared|stealing] [--policy=fifo|spt|edf] [--aging=<factor>] [--eating=timer|waiter] [--seed=<n>] [--replications=<n>] [--threads=platform|virtual] [--workers=<n>] [--log=events|summary] [--journal=<dir>] [--status=<seconds>] [--jmx=on|off] [--report=<file>]");
             System.exit(1);
         }
         String configFile = args[0];
 
-        simulationClock = new SimulationClock(); // Start the clock!
-        long simulationStartTimeMillis = System.currentTimeMillis(); // Real start time
+        try {
+            parseOptions(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error in command line options: " + e.getMessage());
+            System.exit(1);
+        }
+        String engine = options.getOrDefault("engine", "threaded");
+        if (!engine.equals("threaded") && !engine.equals("event") && !engine.equals("async")) {
+            System.err.println("Unknown engine '" + engine + "'. Expected 'threaded', 'event' or 'async'.");
+            System.exit(1);
+        }
+        int replications = 0; // Independent event-engine runs summarized together; 0 for a single run
+        if (options.containsKey("replications")) {
+            try {
+                replications = Integer.parseInt(options.get("replications"));
+                if (replications < 2) throw new NumberFormatException();
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid replication count '" + options.get("replications") + "'. Expected an integer, 2 or more.");
+                System.exit(1);
+            }
+            if (!engine.equals("event") && options.containsKey("engine")) {
+                System.err.println("Replications run the event engine; use --engine=event or leave --engine out.");
+                System.exit(1);
+            }
+            if (options.containsKey("journal")) {
+                System.err.println("--journal records a single run and is not available with --replications.");
+                System.exit(1);
+            }
+            engine = "event";
+        }
+        try {
+            seed = options.containsKey("seed") ? Long.parseLong(options.get("seed")) : ThreadLocalRandom.current().nextLong();
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid seed '" + options.get("seed") + "'. Expected an integer.");
+            System.exit(1);
+        }
+        String threadKind = options.getOrDefault("threads", "platform");
+        if (!threadKind.equals("platform") && !threadKind.equals("virtual")) {
+            System.err.println("Unknown thread kind '" + threadKind + "'. Expected 'platform' or 'virtual'.");
+            System.exit(1);
+        }
+        String logLevel = options.getOrDefault("log", "events");
+        if (!logLevel.equals("events") && !logLevel.equals("summary")) {
+            System.err.println("Unknown log level '" + logLevel + "'. Expected 'events' or 'summary'.");
+            System.exit(1);
+        }
+        String bufferKind = options.getOrDefault("buffer", "monitor");
+        if (!bufferKind.equals("monitor") && !bufferKind.equals("ring")) {
+            System.err.println("Unknown buffer '" + bufferKind + "'. Expected 'monitor' or 'ring'.");
+            System.exit(1);
+        }
+
+        String dispatch = options.getOrDefault("dispatch", "shared");
+        if (!dispatch.equals("shared") && !dispatch.equals("stealing")) {
+            System.err.println("Unknown dispatch '" + dispatch + "'. Expected 'shared' or 'stealing'.");
+            System.exit(1);
+        }
 
+        String eating = options.getOrDefault("eating", "timer");
+        if (!eating.equals("timer") && !eating.equals("waiter")) {
+            System.err.println("Unknown eating model '" + eating + "'. Expected 'timer' or 'waiter'.");
+            System.exit(1);
+        }
+        if (eating.equals("waiter") && engine.equals("async")) {
+            System.err.println("--eating=waiter is only available with the threaded and event engines.");
+            System.exit(1);
+        }
+
+        String jmx = options.getOrDefault("jmx", "off");
+        if (!jmx.equals("on") && !jmx.equals("off")) {
+            System.err.println("Unknown jmx setting '" + jmx + "'. Expected 'on' or 'off'.");
+            System.exit(1);
+        }
+        try {
+            double statusSeconds = Double.parseDouble(options.getOrDefault("status", "0"));
+            if (!(statusSeconds >= 0)) throw new NumberFormatException();
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid status interval '" + options.get("status") + "'. Expected seconds, 0 to disable.");
+            System.exit(1);
+        }
+        if (!engine.equals("threaded") && (options.containsKey("status") || jmx.equals("on"))) {
+            System.err.println("Live metrics (--status, --jmx) are only available with the threaded engine.");
+            System.exit(1);
+        }
+
+        int workers = Runtime.getRuntime().availableProcessors(); // Pool size of the async engine and of replications
+        try {
+            workers = Integer.parseInt(options.getOrDefault("workers", Integer.toString(workers)));
+            if (workers <= 0) throw new NumberFormatException();
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid worker count '" + options.get("workers") + "'. Expected a positive integer.");
+            System.exit(1);
+        }
+
+        double speedFactor = 1.0; // Simulated milliseconds per real millisecond
+        try {
+            speedFactor = Double.parseDouble(options.getOrDefault("speed", "1"));
+            if (!(speedFactor > 0)) throw new NumberFormatException();
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid speed factor '" + options.get("speed") + "'. Expected a positive number.");
+            System.exit(1);
+        }
 
         try {
             readConfig(configFile); // [cite: 27]
@@ -62,255 +178,491 @@ public class RestSimApp {
             System.exit(1);
         }
 
-        // Initialize Shared Buffers [cite: 69]
-        // Capacity for buffers - let's assume order buffer capacity = num tables, cooked buffer = num tables? (Can be adjusted)
-        int orderBufferCapacity = numTables > 0 ? numTables : 5; // Sensible default if numTables is 0?
-        int cookedBufferCapacity = numTables > 0 ? numTables : 5;
+        // The order policy needs the menu's prep times, so it is parsed after the config
+        try {
+            double aging = Double.parseDouble(options.getOrDefault("aging", Double.toString(OrderPolicy.DEFAULT_AGING)));
+            orderPolicy = OrderPolicy.parse(options.getOrDefault("policy", "fifo"), aging, config.getMealPrepTimes());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid aging factor '" + options.get("aging") + "'. Expected a number, 0 or more.");
+            System.exit(1);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+        if (!orderPolicy.isFifo() && (engine.equals("async") || dispatch.equals("stealing"))) {
+            System.err.println("Order policies other than fifo need a shared order queue (--engine=threaded|event, --dispatch=shared).");
+            System.exit(1);
+        }
 
-        tableBuffer = new TableBuffer(numTables);
-        orderedMealsBuf = new Buffer(orderBufferCapacity);
-        cookedMealsBuf = new Buffer(cookedBufferCapacity);
+        // Start the clock! The event engine uses virtual time that only advances between events.
+        VirtualClock virtualClock = null; // Event engine: time only advances between events
+        SimulationClock wallClock = null; // Threaded and async engines: actors sleep or set timers on it
+        if (engine.equals("event")) {
+            virtualClock = new VirtualClock();
+            simulationClock = virtualClock;
+        } else {
+            wallClock = new SimulationClock(TimeSource.SYSTEM, speedFactor);
+            simulationClock = wallClock;
+        }
 
+        eventLog = EventLog.open(System.out, logLevel.equals("events") ? EventLog.Level.EVENTS : EventLog.Level.SUMMARY);
+
+        String journalDir = options.get("journal");
+        if (journalDir != null) {
+            try {
+                journal = new EventJournal(Path.of(journalDir), EventJournal.DEFAULT_RECORDS_PER_SEGMENT, simulationClock.getStartOfDayMillis(),
+                        config.getNumChefs(), config.getNumWaiters(), config.getNumTables(), config.getMealPrepTimes());
+                eventRecorder = journal;
+            } catch (IOException | UncheckedIOException e) {
+                System.err.println("Error creating event journal in '" + journalDir + "': " + e.getMessage());
+                System.exit(1);
+            }
+        }
 
         // --- Simulation Start ---
-        System.out.println("Simulation Started with " + numChefs + " Chefs, " + numWaiters + " Waiters, and " + numTables + " Tables."); // [cite: 32, 33]
+        System.out.println("Simulation Started with " + config.getNumChefs() + " Chefs, " + config.getNumWaiters() + " Waiters, and " + config.getNumTables() + " Tables."); // [cite: 32, 33]
+        System.out.println("Random seed: " + seed + (replications > 0 ? " (" + replications + " replications)" : ""));
+        if (!config.getStations().isEmpty()) {
+            System.out.println("Kitchen stations: " + config.getStations());
+            if (!engine.equals("threaded")) {
+                System.out.println("Warning: Stations are only modelled by the threaded engine; every chef cooks every meal.");
+            }
+        }
+        if (!batchCooking.isEmpty()) {
+            System.out.println("Batch cooking: " + config.getBatchRules());
+            if (engine.equals("async")) {
+                System.out.println("Warning: Batch cooking is not modelled by the async engine; every order is cooked on its own.");
+            } else if (engine.equals("threaded") && bufferKind.equals("ring")) {
+                System.out.println("Warning: The ring buffer cannot take orders out of turn; with --buffer=ring every order is cooked on its own.");
+            }
+        }
+
+        if (replications > 0) {
+            runReplications(replications, workers);
+        } else if (engine.equals("event")) {
+            runEventDriven(virtualClock);
+        } else if (engine.equals("async")) {
+            runAsync(wallClock, workers);
+        } else {
+            runThreaded(wallClock);
+        }
+        try {
+            configSource.close();
+        } catch (IOException e) {
+            System.err.println("Error closing configuration file: " + e.getMessage());
+        }
+        if (options.containsKey("report")) {
+            writeReport(options.get("report"), engine, (System.nanoTime() - wallStartNanos) / 1_000_000);
+        }
+    }
+
+    /**
+     * Runs the simulation with one thread per chef, waiter and customer kiosk,
+     * modelling time with real sleeps.
+     * @param clock Wall-paced clock the actors sleep on.
+     */
+    private static void runThreaded(SimulationClock clock) {
+        // Initialize Shared Buffers [cite: 69]
+        // Capacity for buffers - let's assume order buffer capacity = num tables, cooked buffer = num tables? (Can be adjusted)
+        int orderBufferCapacity = config.getNumTables() > 0 ? config.getNumTables() : 5; // Sensible default if numTables is 0?
+        int cookedBufferCapacity = config.getNumTables() > 0 ? config.getNumTables() : 5;
+
+        tableBuffer = new TableBuffer(config.getNumTables());
+        // Work-stealing dispatch gives every chef a deque of their own instead of one shared order queue
+        boolean stealing = options.getOrDefault("dispatch", "shared").equals("stealing") && config.getNumChefs() > 0;
+        BoundedBuffer sharedOrders = null; // Every chef consumes from it, unless stations route the orders
+        // With kitchen stations each station gets a shard of its own, created the same way for its chefs
+        if (!config.getStations().isEmpty()) {
+            stationRouter = new StationRouter(config.getStations(), config.getNumChefs(), orderBufferCapacity, clock,
+                    (capacity, chefs) -> stealing ? new WorkStealingBuffer(capacity, chefs) : createOrderBuffer(capacity));
+            orderedMealsBuf = stationRouter;
+        } else {
+            sharedOrders = stealing ? new WorkStealingBuffer(orderBufferCapacity, config.getNumChefs()) : createOrderBuffer(orderBufferCapacity);
+            orderedMealsBuf = sharedOrders;
+        }
+        cookedMealsBuf = createBuffer(cookedBufferCapacity);
+
+        // Live metrics read the buffers and table count directly; none of them take a lock
+        RestaurantMetrics metrics = new RestaurantMetrics(clock, config.getNumChefs(), config.getNumWaiters(), tableBuffer, orderedMealsBuf, cookedMealsBuf);
+        if (options.getOrDefault("jmx", "off").equals("on")) {
+            try {
+                metrics.register();
+            } catch (JMException e) {
+                System.err.println("Error registering metrics MBean: " + e.getMessage());
+            }
+        }
+        StatusReporter statusReporter = null;
+        long statusIntervalMillis = (long) (Double.parseDouble(options.getOrDefault("status", "0")) * 1000);
+        if (statusIntervalMillis > 0) {
+            statusReporter = new StatusReporter(metrics, clock, eventLog, statusIntervalMillis);
+            statusReporter.start();
+        }
 
         // Create Executor Services for different roles
-        ExecutorService chefExecutor = Executors.newFixedThreadPool(numChefs);
-        ExecutorService waiterExecutor = Executors.newFixedThreadPool(numWaiters);
-        // CustKiosk handles arrival timing internally, so a cached pool is fine
-        ExecutorService customerExecutor = Executors.newCachedThreadPool();
+        ExecutorService chefExecutor = createExecutor("Chef", config.getNumChefs());
+        ExecutorService waiterExecutor = createExecutor("Waiter", config.getNumWaiters());
+        // Arrivals and the ends of meals are callbacks on one timing wheel, run by a few timer workers
+        ExecutorService timerExecutor = createExecutor("Timer", TIMER_WORKERS);
+        TimingWheel timers = TimingWheel.start(TimingWheel.DEFAULT_TICK_NANOS, timerExecutor, "Timer");
+        // Customers finish eating on the wheel, so waiters are free as soon as they have served; null if waiters wait instead
+        TimingWheel eatingTimer = options.getOrDefault("eating", "timer").equals("timer") ? timers : null;
+        // Kiosks are submitted at their customer's arrival time and only block while waiting for a table
+        ExecutorService customerExecutor = createExecutor("Customer", 0);
 
 
         // Start Chef Threads [cite: 69]
         List<Chef> chefList = new ArrayList<>();
-        for (int i = 0; i < numChefs; i++) {
-            Chef chef = new Chef(i + 1, orderedMealsBuf, cookedMealsBuf, mealPrepTimes, simulationClock, totalPrepTimeMillis, totalMealsPrepared);
+        for (int i = 0; i < config.getNumChefs(); i++) {
+            Consumer orders = stationRouter != null ? stationRouter.forChef(i)
+                    : stealing ? ((WorkStealingBuffer) sharedOrders).forConsumer(i) : sharedOrders;
+            Chef chef = new Chef(i + 1, orders, cookedMealsBuf, config.getMealPrepTimes(), batchCooking, clock, latencyStats, metrics, eventLog, eventRecorder);
             chefList.add(chef);
             chefExecutor.submit(chef);
         }
 
         // Start Waiter Threads [cite: 69]
         List<Waiter> waiterList = new ArrayList<>();
-        for (int i = 0; i < numWaiters; i++) {
-            Waiter waiter = new Waiter(i + 1, cookedMealsBuf, tableBuffer, simulationClock, totalCustomersServed);
+        SplittableRandom waiterSeeds = new SplittableRandom(seed); // Each waiter draws eating times from a seed of their own
+        for (int i = 0; i < config.getNumWaiters(); i++) {
+            Waiter waiter = new Waiter(i + 1, cookedMealsBuf, tableBuffer, clock, customers, eatingTimer, waiterSeeds.nextLong(), latencyStats, metrics, eventLog, eventRecorder);
             waiterList.add(waiter);
             waiterExecutor.submit(waiter);
         }
 
-        // Start Customer Arrival Threads (via CustKiosk) [cite: 69, 78]
-        totalCustomersEntered.set(customers.size()); // Track how many customers should arrive
-        for (Customer customer : customers) {
-            CustKiosk kiosk = new CustKiosk(customer, tableBuffer, orderedMealsBuf, simulationClock, totalTableWaitTimeMillis, simulationStartTimeMillis);
-            customerExecutor.submit(kiosk);
-        }
+        // Start Customer Arrivals (via CustKiosk) [cite: 69, 78]
+        // A single thread reads the customer stream ahead of the clock and schedules each arrival on the wheel
+        Thread arrivalThread = new Thread(() -> scheduleArrivals(clock, timers, customerExecutor, metrics), "Arrivals");
+        arrivalThread.start();
 
         // --- Simulation Monitoring and Termination ---
-        // We need a way to decide when the simulation is over.
-        // A simple approach: wait until all customers who arrived have been served.
-        // This assumes no new customers arrive after the initial list.
-
+        // The simulation is over once the customer stream is exhausted and every customer who arrived
+        // has been served. The tracker opens its latch on exactly that transition, so no polling is needed.
+        long simulatedDurationMillis = -1;
         try {
-            // Monitor until all expected customers have been served
-            while (totalCustomersServed.get() < totalCustomersEntered.get()) {
-                // Print status periodically (optional)
-                // System.out.println("["+simulationClock.getFormattedTime()+"] Status: Served " + totalCustomersServed.get() + "/" + totalCustomersEntered.get());
-                Thread.sleep(2000); // Check every 2 seconds
-                // Add a timeout condition? What if a customer never gets served due to a bug?
-                // For now, we assume the simulation will eventually complete.
-            }
+            customers.awaitAllServed();
 
-            System.out.println("[" + simulationClock.getFormattedTime() + "] All " + totalCustomersEntered.get() + " customers have been served. Shutting down...");
+            simulatedDurationMillis = clock.getElapsedSimulationMillis();
+            eventLog.info(clock.getTimeMillis(), "All " + customers.getEntered() + " customers have been served. Shutting down...");
 
         } catch (InterruptedException e) {
             System.err.println("Simulation monitoring interrupted.");
             Thread.currentThread().interrupt();
         } finally {
             // --- Shutdown ---
-            // Signal threads to stop by interrupting them
-            System.out.println("[" + simulationClock.getFormattedTime() + "] Interrupting threads...");
+            // Close the pipeline front to back: each stage drains what is left, sees its input buffer
+            // closed and returns, after which the next buffer can be closed. Interrupts are only a fallback.
+            if (statusReporter != null) {
+                statusReporter.stop();
+            }
+            eventLog.info(clock.getTimeMillis(), "Closing buffers...");
+            arrivalThread.interrupt(); // Only still running if monitoring was interrupted
+            timers.shutdown(); // Nothing is due once every customer has left
+            shutdownAndAwaitTermination(timerExecutor, "Timer");
             shutdownAndAwaitTermination(customerExecutor, "Customer"); // Kiosks finish quickly anyway
+            orderedMealsBuf.close();
             shutdownAndAwaitTermination(chefExecutor, "Chef");
+            cookedMealsBuf.close();
             shutdownAndAwaitTermination(waiterExecutor, "Waiter");
+            metrics.unregister();
 
-            long simulationEndTimeMillis = System.currentTimeMillis();
-            long totalSimulationDurationMillis = simulationEndTimeMillis - simulationStartTimeMillis;
-
-
-            // --- Final Summary --- [cite: 49, 53]
-            System.out.println("\n[" + simulationClock.getFormattedTime() + "] [End of Simulation]"); // [cite: 49]
-            System.out.println("\nSummary:");
-            System.out.println("-----------------------------------------");
-            int servedCount = totalCustomersServed.get();
-            System.out.println("Total Customers Served: " + servedCount); // [cite: 50]
-
-            double avgWaitSeconds = (servedCount > 0)
-                    ? (totalTableWaitTimeMillis.get() / (double) servedCount) / 1000.0
-                    : 0.0;
-            // Convert seconds to minutes for output
-            double avgWaitMinutes = avgWaitSeconds / 60.0;
-            System.out.printf("Average Wait Time for Table: %.2f Minutes%n", avgWaitMinutes); // [cite: 50]
+            // Simulated duration up to the last customer leaving; equals wall-clock time at speed 1
+            if (simulatedDurationMillis < 0) {
+                simulatedDurationMillis = clock.getElapsedSimulationMillis();
+            }
+            eventLog.close(); // Flush every event before the summary
+            closeJournal();
+            printSummary(simulatedDurationMillis);
+        }
+    }
 
+    /**
+     * Runs the simulation as a chain of asynchronous stages per customer on a fixed pool of worker threads,
+     * modelling time with timers on the real-time clock. Tables, chefs and waiters are non-blocking permits.
+     * @param clock Wall-paced clock the timers are set on.
+     * @param workers Number of pool threads running stages and timers.
+     */
+    private static void runAsync(SimulationClock clock, int workers) {
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        TimingWheel timers = TimingWheel.start(TimingWheel.DEFAULT_TICK_NANOS, executor, "Timer");
+        AsyncPipeline pipeline = new AsyncPipeline(config.getNumChefs(), config.getNumWaiters(), config.getNumTables(), config.getMealPrepTimes(), configSource,
+                clock, executor, timers, seed, customers, latencyStats, eventLog, eventRecorder);
 
-            int mealsPreparedCount = totalMealsPrepared.get();
-            double avgPrepSeconds = (mealsPreparedCount > 0)
-                    ? (totalPrepTimeMillis.get() / (double) mealsPreparedCount) / 1000.0
-                    : 0.0;
-            // Convert seconds to minutes for output
-            double avgPrepMinutes = avgPrepSeconds / 60.0;
-            System.out.printf("Average Order Preparation Time: %.2f Minutes%n", avgPrepMinutes); // [cite: 51]
+        long simulatedDurationMillis = -1;
+        try {
+            pipeline.start();
+            customers.awaitAllServed();
 
-            double totalSimMinutes = totalSimulationDurationMillis / (1000.0 * 60.0);
-            System.out.printf("Total Simulation Time: %.2f Minutes%n", totalSimMinutes); // [cite: 52]
-            System.out.println("-----------------------------------------");
+            simulatedDurationMillis = clock.getElapsedSimulationMillis();
+            eventLog.info(clock.getTimeMillis(), "All " + customers.getEntered() + " customers have been served. Shutting down...");
+        } catch (InterruptedException e) {
+            System.err.println("Simulation monitoring interrupted.");
+            Thread.currentThread().interrupt();
+        } finally {
+            timers.shutdown();
+            shutdownAndAwaitTermination(executor, "Async");
+            if (simulatedDurationMillis < 0) {
+                simulatedDurationMillis = clock.getElapsedSimulationMillis();
+            }
+            eventLog.close(); // Flush every event before the summary
+            closeJournal();
+            printSummary(simulatedDurationMillis);
         }
     }
 
     /**
-     * Parses the configuration file.
-     * [cite: 27, 28, 29, 30, 31]
-     * @param filename Path to the configuration file.
-     * @throws IOException If there's an error reading the file.
-     * @throws IllegalArgumentException If the format is invalid.
+     * Reads customers from the config source and schedules each one's arrival on the timing wheel,
+     * which submits a CustKiosk for them at their arrival time. At most ARRIVAL_LOOKAHEAD customers
+     * are read ahead of the clock, so memory use does not grow with the length of the stream.
+     * Customers should be listed in arrival order; one listed out of order arrives as soon as it is read.
+     * @param clock Wall-paced clock the arrivals are timed by.
+     * @param timers Wheel the arrivals are scheduled on.
+     * @param customerExecutor Executor running the kiosks.
+     * @param metrics Live metrics, told about each arrival.
      */
-    private static void readConfig(String filename) throws IOException, IllegalArgumentException {
-        try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
-            String line;
-
-            // 1. Read NC, NW, NT line
-            line = reader.readLine();
-            if (line == null) throw new IllegalArgumentException("Missing NC, NW, NT line.");
-            parseCounts(line);
-
-            // 2. Read meal prep times line
-            line = reader.readLine();
-            if (line == null) throw new IllegalArgumentException("Missing meal prep times line.");
-            parsePrepTimes(line);
-
-            // 3. Read customer lines
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (!line.isEmpty() && !line.startsWith("#")) { // Ignore empty lines and comments
-                    parseCustomer(line);
-                }
+    private static void scheduleArrivals(SimulationClock clock, TimingWheel timers, ExecutorService customerExecutor, RestaurantMetrics metrics) {
+        Semaphore lookahead = new Semaphore(ARRIVAL_LOOKAHEAD); // One permit per arrival scheduled but not yet due
+        try {
+            Customer customer;
+            while ((customer = configSource.next()) != null) {
+                lookahead.acquire();
+                long arrivalMillis = clock.getStartOfDayMillis() + (long) customer.getArrivalTimeMinutes() * 60 * 1000;
+                Customer arriving = customer;
+                timers.schedule(() -> {
+                    try {
+                        customers.customerEntered(); // Counted before the kiosk runs so it cannot be served first
+                        metrics.customerEntered();
+                        customerExecutor.submit(new CustKiosk(arriving, tableBuffer, orderedMealsBuf, clock, clock.getTimeMillis(),
+                                latencyStats, eventLog, eventRecorder));
+                    } catch (RejectedExecutionException e) {
+                        // Simulation is shutting down
+                    } finally {
+                        lookahead.release();
+                    }
+                }, clock.getRealNanosUntil(arrivalMillis), TimeUnit.NANOSECONDS);
             }
-            if (customers.isEmpty()) {
-                System.out.println("Warning: No customer information found in the config file.");
+            lookahead.acquire(ARRIVAL_LOOKAHEAD); // Every scheduled customer has arrived
+            if (customers.getEntered() == 0) {
+                eventLog.info(clock.getTimeMillis(), "Warning: No customer information found in the config file.");
             }
-
+        } catch (IOException e) {
+            System.err.println("Error reading customers: " + e.getMessage() + ". No further customers will arrive.");
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error in configuration file format: " + e.getMessage() + ". No further customers will arrive.");
+        } catch (InterruptedException | RejectedExecutionException e) {
+            Thread.currentThread().interrupt(); // Simulation is shutting down
+        } finally {
+            customers.arrivalsComplete();
         }
     }
 
-    // Helper to parse NC=X NW=Y NT=Z
-    private static void parseCounts(String line) throws IllegalArgumentException {
-        try {
-            Map<String, Integer> counts = parseKeyValuePairs(line);
-            numChefs = counts.getOrDefault("NC", 0);
-            numWaiters = counts.getOrDefault("NW", 0);
-            numTables = counts.getOrDefault("NT", 0);
-            if (numChefs <= 0 || numWaiters <= 0 || numTables <= 0) {
-                throw new IllegalArgumentException("NC, NW, and NT must be positive integers.");
-            }
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Invalid format for NC, NW, NT line: '" + line + "'. Expected 'NC=X NW=Y NT=Z'. " + e.getMessage(), e);
+    /**
+     * Creates the executor for one actor role, backed by the thread kind selected with --threads.
+     * Platform threads use a fixed pool of poolSize threads, or a cached pool when poolSize is 0.
+     * Virtual threads get one thread per task; all blocking in Semaphore, Buffer, RingBuffer and
+     * SimulationClock parks rather than holding a monitor, so sleeping actors release their carrier.
+     * @param role Name used for the threads, e.g. "Chef".
+     * @param poolSize Number of platform threads, or 0 for an unbounded pool.
+     * @return The new executor.
+     */
+    private static ExecutorService createExecutor(String role, int poolSize) {
+        if (options.getOrDefault("threads", "platform").equals("virtual")) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(role + "-", 1).factory());
         }
+        return poolSize > 0 ? Executors.newFixedThreadPool(poolSize) : Executors.newCachedThreadPool();
     }
 
-
-    // Helper to parse Meal=HH:MM ...
-    private static void parsePrepTimes(String line) throws IllegalArgumentException {
-        try {
-            Map<String, String> times = parseKeyValuePairsString(line);
-            for (Map.Entry<String, String> entry : times.entrySet()) {
-                String mealName = entry.getKey();
-                String timeStr = entry.getValue(); // Format HH:MM or just MM
-                int minutes;
-                if (timeStr.contains(":")) {
-                    String[] parts = timeStr.split(":");
-                    if (parts.length != 2) throw new IllegalArgumentException("Invalid time format for " + mealName + ": " + timeStr);
-                    minutes = Integer.parseInt(parts[0]) * 60 + Integer.parseInt(parts[1]);
-                } else {
-                    minutes = Integer.parseInt(timeStr); // Assume just minutes if no colon
-                }
-                if (minutes < 0) throw new IllegalArgumentException("Preparation time cannot be negative for " + mealName);
-                mealPrepTimes.put(mealName, minutes);
-            }
-            if (mealPrepTimes.isEmpty()) {
-                throw new IllegalArgumentException("No meal preparation times found.");
-            }
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Invalid format for meal prep times line: '" + line + "'. " + e.getMessage(), e);
+    /**
+     * Creates a meal buffer of the kind selected with --buffer.
+     * "monitor" (default) is the semaphore-based Buffer, "ring" the lock-free RingBuffer.
+     * @param capacity The buffer capacity.
+     * @return The new buffer.
+     */
+    private static BoundedBuffer createBuffer(int capacity) {
+        String kind = options.getOrDefault("buffer", "monitor");
+        switch (kind) {
+            case "monitor":
+                return new Buffer(capacity);
+            case "ring":
+                return new RingBuffer(capacity);
+            default:
+                throw new IllegalArgumentException("Unknown buffer '" + kind + "'. Expected 'monitor' or 'ring'.");
         }
     }
 
+    /**
+     * Creates the shared order buffer: a PolicyBuffer for any policy but fifo, otherwise the --buffer kind.
+     * @param capacity The buffer capacity.
+     * @return The new buffer.
+     */
+    private static BoundedBuffer createOrderBuffer(int capacity) {
+        return orderPolicy.isFifo() ? createBuffer(capacity) : new PolicyBuffer(capacity, orderPolicy);
+    }
 
-    // Helper to parse CustomerID=X ArrivalTime=HH:MM Order=Meal
-    private static void parseCustomer(String line) throws IllegalArgumentException {
+    /**
+     * Runs the simulation as a discrete-event model on the calling thread.
+     * The virtual clock jumps from event to event, so no real time is spent waiting.
+     * @param clock Virtual clock the scheduler advances.
+     */
+    private static void runEventDriven(VirtualClock clock) {
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(config.getNumChefs(), config.getNumWaiters(), config.getNumTables(), config.getMealPrepTimes(), configSource,
+                clock, latencyStats, customers, orderPolicy, batchCooking, options.getOrDefault("eating", "timer").equals("waiter"), seed, eventLog, eventRecorder);
+        long eventsProcessed;
         try {
-            Map<String, String> data = parseKeyValuePairsString(line);
-            int id = Integer.parseInt(data.get("CustomerID"));
-            String arrivalStr = data.get("ArrivalTime"); // HH:MM
-            String order = data.get("Order");
-
-            if (arrivalStr == null || order == null) {
-                throw new IllegalArgumentException("Missing ArrivalTime or Order for CustomerID " + id);
-            }
-
-            // Convert HH:MM arrival time to minutes since simulation start (assuming 08:00 is time 0)
-            String[] timeParts = arrivalStr.split(":");
-            if (timeParts.length != 2) throw new IllegalArgumentException("Invalid ArrivalTime format: " + arrivalStr);
-            int arrivalHour = Integer.parseInt(timeParts[0]);
-            int arrivalMinute = Integer.parseInt(timeParts[1]);
-            // Calculate minutes relative to 8:00 AM
-            int arrivalTimeMinutes = (arrivalHour - 8) * 60 + arrivalMinute;
-            if (arrivalTimeMinutes < 0) {
-                System.out.println("Warning: Customer " + id + " arrival time " + arrivalStr + " is before 08:00. Treating as arrival at 08:00 (minute 0).");
-                arrivalTimeMinutes = 0;
-            }
+            eventsProcessed = simulation.run();
+        } catch (IllegalArgumentException e) {
+            eventLog.close();
+            closeJournal();
+            System.err.println("Error in configuration file format: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        if (customers.getEntered() == 0) {
+            eventLog.info(clock.getTimeMillis(), "Warning: No customer information found in the config file.");
+        }
 
+        eventLog.info(clock.getTimeMillis(), "All " + customers.getEntered() + " customers have been served. "
+                + eventsProcessed + " events processed in " + clock.getElapsedRealTimeMillis() + " ms.");
+        eventLog.close(); // Flush every event before the summary
+        closeJournal();
 
-            // Check if the ordered meal exists in the prep times
-            if (!mealPrepTimes.containsKey(order)) {
-                throw new IllegalArgumentException("Customer " + id + " ordered unknown meal '" + order + "'.");
-            }
+        printSummary(clock.getElapsedSimulationMillis());
+    }
 
-            customers.add(new Customer(id, arrivalTimeMinutes, order));
+    /**
+     * Runs independent replications of the event engine side by side and prints their confidence intervals
+     * instead of a single run's summary. Replication seeds are drawn from the run's seed.
+     * @param count Number of replications.
+     * @param workers Replications run at once.
+     */
+    private static void runReplications(int count, int workers) {
+        boolean waiterStaysWhileEating = options.getOrDefault("eating", "timer").equals("waiter");
+        Replications runner = new Replications(config, orderPolicy, waiterStaysWhileEating, workers);
+        try {
+            replicationResult = runner.run(count, seed);
+        } catch (IOException e) {
+            eventLog.close();
+            System.err.println("Error reading configuration file '" + config.getConfigFile() + "': " + e.getMessage());
+            System.exit(1);
+            return;
+        } catch (IllegalArgumentException e) {
+            eventLog.close();
+            System.err.println("Error in configuration file format: " + e.getMessage());
+            System.exit(1);
+            return;
+        } catch (InterruptedException e) {
+            eventLog.close();
+            System.err.println("Replications interrupted.");
+            Thread.currentThread().interrupt();
+            return;
+        }
+        eventLog.close();
+        replicationResult.print(System.out);
+    }
 
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Invalid format for customer line: '" + line + "'. " + e.getMessage(), e);
+    // Forces the journal to disk and reports where it went
+    private static void closeJournal() {
+        if (journal != null) {
+            journal.close();
+            System.out.println("Event journal: " + journal.getRecordCount() + " records written to " + options.get("journal"));
         }
     }
 
+    /**
+     * Prints the final summary shared by all engines. [cite: 49, 53]
+     * @param totalSimulationDurationMillis Duration of the simulated day in milliseconds.
+     */
+    private static void printSummary(long totalSimulationDurationMillis) {
+        LatencyHistogram prep = latencyStats.prep().snapshot();
+        SimulationSummary summary = new SimulationSummary(customers.getServed(), latencyStats.tableWait().snapshot().getTotal(),
+                (int) prep.getCount(), prep.getTotal(), totalSimulationDurationMillis);
+        summary.print(System.out, simulationClock.getFormattedTime());
+        latencyStats.print(System.out);
+        if (options.containsKey("policy")) {
+            System.out.println("\nOrder Policy: " + orderPolicy);
+            latencyStats.printOrderQueueByMeal(System.out, config.getMealPrepTimes().keySet());
+        }
+        if (!batchCooking.isEmpty()) {
+            batchCooking.print(System.out);
+        }
+        if (stationRouter != null) {
+            stationRouter.print(System.out);
+        }
+        summaryDurationMillis = totalSimulationDurationMillis;
+    }
 
-    // Utility to parse "Key1=Val1 Key2=Val2" into a Map<String, Integer>
-    private static Map<String, Integer> parseKeyValuePairs(String line) throws NumberFormatException {
-        Map<String, Integer> map = new HashMap<>();
-        String[] pairs = line.trim().split("\\s+"); // Split by whitespace
-        for (String pair : pairs) {
-            String[] kv = pair.split("=");
-            if (kv.length == 2) {
-                map.put(kv[0], Integer.parseInt(kv[1]));
-            } else {
-                throw new IllegalArgumentException("Invalid pair: " + pair);
+    /**
+     * Writes the run's results as a properties file for scripts such as ScenarioSuite.
+     * Peak heap is the sum of each heap pool's peak, an upper bound on the true peak.
+     * @param reportFile Where to write.
+     * @param engine Engine that ran.
+     * @param wallMillis Real time from start-up to the end of the run.
+     */
+    private static void writeReport(String reportFile, String engine, long wallMillis) {
+        Properties report = new Properties();
+        report.setProperty("engine", engine);
+        report.setProperty("order.policy", orderPolicy.toString());
+        report.setProperty("seed", Long.toString(seed));
+        report.setProperty("wall.millis", Long.toString(wallMillis));
+        if (replicationResult != null) {
+            replicationResult.addTo(report);
+            store(report, reportFile);
+            return;
+        }
+        report.setProperty("customers.entered", Integer.toString(customers.getEntered()));
+        report.setProperty("customers.served", Integer.toString(customers.getServed()));
+        report.setProperty("simulation.millis", Long.toString(summaryDurationMillis));
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peakHeap += pool.getPeakUsage().getUsed();
             }
         }
-        return map;
+        report.setProperty("heap.peak.bytes", Long.toString(peakHeap));
+        latencyStats.addTo(report);
+        batchCooking.addTo(report);
+        if (stationRouter != null) {
+            stationRouter.addTo(report);
+        }
+        store(report, reportFile);
     }
 
-    // Utility to parse "Key1=Val1 Key2=Val2" into a Map<String, String>
-    private static Map<String, String> parseKeyValuePairsString(String line) {
-        Map<String, String> map = new HashMap<>();
-        // Handle potential spaces within values if needed, but basic split works for project spec
-        String[] pairs = line.trim().split("\\s+(?=\\w+=)"); // Split on space only if followed by Key=
-        for (String pair : pairs) {
-            String[] kv = pair.split("=", 2); // Split only on the first '='
-            if (kv.length == 2) {
-                map.put(kv[0], kv[1]);
-            } else {
-                throw new IllegalArgumentException("Invalid pair format: " + pair);
+    private static void store(Properties report, String reportFile) {
+        try (Writer out = new FileWriter(reportFile)) {
+            report.store(out, "RestSimApp run report");
+        } catch (IOException e) {
+            System.err.println("Error writing report '" + reportFile + "': " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parses optional "--key=value" arguments following the config file path.
+     * @param args The command line arguments.
+     * @throws IllegalArgumentException If an option is malformed.
+     */
+    private static void parseOptions(String[] args) throws IllegalArgumentException {
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 3) {
+                throw new IllegalArgumentException("Expected '--key=value' but got '" + arg + "'.");
             }
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
         }
-        return map;
+    }
+
+    /**
+     * Opens the configuration file and reads the restaurant setup.
+     * Accepts either the text format or a binary trace compiled with TraceCompiler.
+     * Customers are not read here; they are streamed while the simulation runs.
+     * [cite: 27, 28, 29, 30, 31]
+     * @param filename Path to the configuration file.
+     * @throws IOException If there's an error reading the file.
+     * @throws IllegalArgumentException If the format is invalid.
+     */
+    private static void readConfig(String filename) throws IOException, IllegalArgumentException {
+        configSource = ConfigSource.open(filename);
+        config = SimulationConfig.of(filename, configSource);
+        batchCooking = new BatchCooking(config.getBatchRules());
     }
 
 
@@ -0,0 +1,206 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Live view of the threaded simulation: queue depths, free tables, busy and idle staff,
+ * and throughput over rolling windows. Chefs and waiters report when they start and stop
+ * working; everything else is read straight from the shared buffers, whose sizes are lock-free.
+ */
+public class RestaurantMetrics implements RestaurantMetricsMXBean {
+    public static final String OBJECT_NAME = "RestSim:type=Restaurant";
+
+    private final SimulationTime clock;
+    private final TableBuffer tableBuffer;
+    private final BoundedSink orderedMealsBuf;
+    private final BoundedBuffer cookedMealsBuf;
+    private final int numChefs;
+    private final int numWaiters;
+    private final AtomicInteger busyChefs = new AtomicInteger();
+    private final AtomicInteger busyWaiters = new AtomicInteger();
+    private final AtomicLong customersEntered = new AtomicLong();
+    private final RollingCounter customersServed;
+    private final RollingCounter mealsPrepared;
+    private volatile boolean registered; // Avoids starting the platform MBean server just to unregister
+
+    public RestaurantMetrics(SimulationTime clock, int numChefs, int numWaiters, TableBuffer tableBuffer,
+                             BoundedSink orderedMealsBuf, BoundedBuffer cookedMealsBuf) {
+        this.clock = clock;
+        this.numChefs = numChefs;
+        this.numWaiters = numWaiters;
+        this.tableBuffer = tableBuffer;
+        this.orderedMealsBuf = orderedMealsBuf;
+        this.cookedMealsBuf = cookedMealsBuf;
+        this.customersServed = new RollingCounter(clock.getStartOfDayMillis());
+        this.mealsPrepared = new RollingCounter(clock.getStartOfDayMillis());
+    }
+
+    /**
+     * Registers this object with the platform MBean server so JMX clients can read it.
+     * @throws JMException If registration fails, e.g. a second simulation in the same JVM.
+     */
+    public void register() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        server.registerMBean(this, new ObjectName(OBJECT_NAME));
+        registered = true;
+    }
+
+    /**
+     * Removes this object from the platform MBean server, if registered.
+     */
+    public void unregister() {
+        if (!registered) {
+            return;
+        }
+        registered = false;
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            System.err.println("Error unregistering metrics MBean: " + e.getMessage());
+        }
+    }
+
+    // --- Updates from the actors ---
+
+    public void chefBusy() {
+        busyChefs.incrementAndGet();
+    }
+
+    public void chefIdle() {
+        busyChefs.decrementAndGet();
+    }
+
+    public void waiterBusy() {
+        busyWaiters.incrementAndGet();
+    }
+
+    public void waiterIdle() {
+        busyWaiters.decrementAndGet();
+    }
+
+    public void customerEntered() {
+        customersEntered.incrementAndGet();
+    }
+
+    public void customerServed(long timeMillis) {
+        customersServed.increment(timeMillis);
+    }
+
+    public void mealPrepared(long timeMillis) {
+        mealsPrepared.increment(timeMillis);
+    }
+
+    /**
+     * Formats the compact one-line status printed by the status reporter.
+     * @return e.g. "Served 40/52 | Orders 3/10 | Cooked 0/10 | Tables 2/10 free | Chefs 2/2 busy | Waiters 1/3 busy | Served/h 1m 60.0 15m 48.0 60m 40.0"
+     */
+    public String formatStatus() {
+        long now = clock.getTimeMillis();
+        return String.format("Served %d/%d | Orders %d/%d | Cooked %d/%d | Tables %d/%d free | Chefs %d/%d busy | Waiters %d/%d busy | Served/h 1m %.1f 15m %.1f 60m %.1f",
+                getCustomersServed(), getCustomersEntered(),
+                getOrderedMealsQueued(), getOrderedMealsCapacity(),
+                getCookedMealsQueued(), getCookedMealsCapacity(),
+                getFreeTables(), getTotalTables(),
+                getBusyChefs(), numChefs, getBusyWaiters(), numWaiters,
+                customersServed.ratePerHour(now, 1), customersServed.ratePerHour(now, 15), customersServed.ratePerHour(now, 60));
+    }
+
+    // --- MXBean attributes ---
+
+    @Override
+    public String getSimulationTime() {
+        return clock.getFormattedTime();
+    }
+
+    @Override
+    public int getOrderedMealsQueued() {
+        return orderedMealsBuf.getCurrentSize();
+    }
+
+    @Override
+    public int getOrderedMealsCapacity() {
+        return orderedMealsBuf.getCapacity();
+    }
+
+    @Override
+    public int getCookedMealsQueued() {
+        return cookedMealsBuf.getCurrentSize();
+    }
+
+    @Override
+    public int getCookedMealsCapacity() {
+        return cookedMealsBuf.getCapacity();
+    }
+
+    @Override
+    public int getFreeTables() {
+        return tableBuffer.getFreeTables();
+    }
+
+    @Override
+    public int getTotalTables() {
+        return tableBuffer.getTotalTables();
+    }
+
+    @Override
+    public int getBusyChefs() {
+        return busyChefs.get();
+    }
+
+    @Override
+    public int getIdleChefs() {
+        return numChefs - busyChefs.get();
+    }
+
+    @Override
+    public int getBusyWaiters() {
+        return busyWaiters.get();
+    }
+
+    @Override
+    public int getIdleWaiters() {
+        return numWaiters - busyWaiters.get();
+    }
+
+    @Override
+    public long getCustomersEntered() {
+        return customersEntered.get();
+    }
+
+    @Override
+    public long getCustomersServed() {
+        return customersServed.getTotal();
+    }
+
+    @Override
+    public long getMealsPrepared() {
+        return mealsPrepared.getTotal();
+    }
+
+    @Override
+    public double getServedPerHourLast1Minute() {
+        return customersServed.ratePerHour(clock.getTimeMillis(), 1);
+    }
+
+    @Override
+    public double getServedPerHourLast15Minutes() {
+        return customersServed.ratePerHour(clock.getTimeMillis(), 15);
+    }
+
+    @Override
+    public double getServedPerHourLast60Minutes() {
+        return customersServed.ratePerHour(clock.getTimeMillis(), 60);
+    }
+
+    @Override
+    public double getMealsPerHourLast15Minutes() {
+        return mealsPrepared.ratePerHour(clock.getTimeMillis(), 15);
+    }
+}
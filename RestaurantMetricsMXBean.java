@@ -0,0 +1,46 @@
+/**
+ * Management interface of the live restaurant metrics, registered as "RestSim:type=Restaurant".
+ * Every attribute is read without taking a simulation lock, so polling from JConsole or
+ * the status reporter does not slow the actors down.
+ */
+public interface RestaurantMetricsMXBean {
+    String getSimulationTime();
+
+    int getOrderedMealsQueued();
+
+    int getOrderedMealsCapacity();
+
+    int getCookedMealsQueued();
+
+    int getCookedMealsCapacity();
+
+    int getFreeTables();
+
+    int getTotalTables();
+
+    int getBusyChefs();
+
+    int getIdleChefs();
+
+    int getBusyWaiters();
+
+    int getIdleWaiters();
+
+    long getCustomersEntered();
+
+    long getCustomersServed();
+
+    long getMealsPrepared();
+
+    /** Customers served per simulated hour over the last 1 simulated minute. */
+    double getServedPerHourLast1Minute();
+
+    /** Customers served per simulated hour over the last 15 simulated minutes. */
+    double getServedPerHourLast15Minutes();
+
+    /** Customers served per simulated hour over the last 60 simulated minutes. */
+    double getServedPerHourLast60Minutes();
+
+    /** Meals prepared per simulated hour over the last 15 simulated minutes. */
+    double getMealsPerHourLast15Minutes();
+}
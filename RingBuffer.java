@@ -0,0 +1,288 @@
+import java.util.Collection;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free bounded buffer for many producers and many consumers.
+ * Items live in an array ring; each slot carries a sequence number that tells producers
+ * and consumers whether it is free for the lap they are on, so claiming a slot is a single
+ * CAS on the tail or head counter and no lock is ever taken.
+ * When the ring is full or empty a thread first spins briefly and then parks until the
+ * other side signals it.
+ */
+public class RingBuffer implements BoundedBuffer {
+    private static final int SPIN_TRIES = 100;   // Busy-wait attempts before yielding
+    private static final int YIELD_TRIES = 10;   // Yield attempts before parking
+
+    private final int capacity;
+    private final int slotCount; // At least 2: with one slot the full mark of a lap equals the free mark of the next
+    private final AtomicReferenceArray<BufElement> slots;
+    private final AtomicLongArray sequences; // Per-slot sequence: position + 1 when full, position when free
+    private final AtomicLong head = new AtomicLong(0); // Next position to consume
+    private final AtomicLong tail = new AtomicLong(0); // Next position to produce
+    private final ConcurrentLinkedQueue<Thread> waitingConsumers = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Thread> waitingProducers = new ConcurrentLinkedQueue<>();
+    private volatile boolean closed = false;
+
+    /**
+     * Creates a RingBuffer with a specified capacity.
+     * @param capacity The maximum number of items the buffer can hold.
+     */
+    public RingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Buffer capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.slotCount = Math.max(capacity, 2);
+        this.slots = new AtomicReferenceArray<>(slotCount);
+        this.sequences = new AtomicLongArray(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            sequences.set(i, i); // Slot i is free for position i on the first lap
+        }
+    }
+
+    /**
+     * Adds an item to the buffer, blocking while it is full.
+     * @param item The BufElement to add.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    @Override
+    public void produce(BufElement item) throws InterruptedException {
+        if (item == null) {
+            throw new IllegalArgumentException("Cannot produce a null item.");
+        }
+        checkOpen();
+        if (offer(item)) {
+            return;
+        }
+        for (int i = 0; i < SPIN_TRIES + YIELD_TRIES; i++) {
+            backOff(i);
+            if (offer(item)) {
+                return;
+            }
+        }
+        Thread self = Thread.currentThread();
+        while (true) {
+            waitingProducers.add(self);
+            if (offer(item)) { // Re-check after registering so a concurrent consume cannot be missed
+                leave(waitingProducers, self);
+                return;
+            }
+            if (closed) {
+                leave(waitingProducers, self);
+                throw new IllegalStateException("Buffer is closed");
+            }
+            LockSupport.park(this);
+            boolean signalled = !waitingProducers.remove(self);
+            if (Thread.interrupted()) {
+                if (signalled) {
+                    signal(waitingProducers); // Hand the wake-up to another waiter
+                }
+                throw new InterruptedException();
+            }
+            if (offer(item)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest item from the buffer, blocking while it is empty.
+     * @return The consumed BufElement, or CLOSED if the buffer is closed and empty.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    @Override
+    public BufElement consume() throws InterruptedException {
+        BufElement item = poll();
+        if (item != null) {
+            return item;
+        }
+        for (int i = 0; i < SPIN_TRIES + YIELD_TRIES; i++) {
+            backOff(i);
+            if ((item = poll()) != null) {
+                return item;
+            }
+        }
+        Thread self = Thread.currentThread();
+        while (true) {
+            waitingConsumers.add(self);
+            if ((item = poll()) != null) { // Re-check after registering so a concurrent produce cannot be missed
+                leave(waitingConsumers, self);
+                return item;
+            }
+            if (closed) { // Checked after registering so close() either sees this thread or this thread sees close()
+                leave(waitingConsumers, self);
+                return (item = poll()) != null ? item : CLOSED; // An item published just before close still counts
+            }
+            LockSupport.park(this);
+            boolean signalled = !waitingConsumers.remove(self);
+            if (Thread.interrupted()) {
+                if (signalled) {
+                    signal(waitingConsumers); // Hand the wake-up to another waiter
+                }
+                throw new InterruptedException();
+            }
+            if ((item = poll()) != null) {
+                return item;
+            }
+        }
+    }
+
+    /**
+     * Removes up to maxItems items, blocking only until the first one is available.
+     * The rest are claimed with non-blocking polls, so no lock is involved.
+     * @param target Collection the consumed items are added to.
+     * @param maxItems Maximum number of items to take. Must be positive.
+     * @return The number of items added to target; 0 if the buffer is closed and empty.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    @Override
+    public int drainTo(Collection<? super BufElement> target, int maxItems) throws InterruptedException {
+        if (maxItems <= 0) {
+            throw new IllegalArgumentException("maxItems must be positive");
+        }
+        BufElement first = consume();
+        if (first == CLOSED) {
+            return 0;
+        }
+        target.add(first);
+        int count = 1;
+        BufElement item;
+        while (count < maxItems && (item = poll()) != null) {
+            target.add(item);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Tries to add an item without blocking.
+     * @param item The BufElement to add.
+     * @return true if the item was added, false if the buffer was full.
+     */
+    public boolean offer(BufElement item) {
+        long pos = tail.get();
+        while (true) {
+            if (slotCount > capacity && pos - head.get() >= capacity) {
+                return false; // Spare slot of a capacity-1 ring: full before the ring is
+            }
+            int index = (int) (pos % slotCount);
+            long difference = sequences.get(index) - pos;
+            if (difference == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots.set(index, item);
+                    sequences.set(index, pos + 1); // Publish: slot now holds the item for position pos
+                    signal(waitingConsumers);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (difference < 0) {
+                return false; // Slot still holds an item from the previous lap: full
+            } else {
+                pos = tail.get(); // Another producer claimed this position
+            }
+        }
+    }
+
+    /**
+     * Tries to remove the oldest item without blocking.
+     * @return The removed BufElement, or null if the buffer was empty.
+     */
+    public BufElement poll() {
+        long pos = head.get();
+        while (true) {
+            int index = (int) (pos % slotCount);
+            long difference = sequences.get(index) - (pos + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    BufElement item = slots.get(index);
+                    slots.set(index, null);
+                    sequences.set(index, pos + slotCount); // Free the slot for the next lap
+                    signal(waitingProducers);
+                    return item;
+                }
+                pos = head.get();
+            } else if (difference < 0) {
+                return null; // Nothing has been published at this position yet: empty
+            } else {
+                pos = head.get(); // Another consumer took this position
+            }
+        }
+    }
+
+    /**
+     * Returns the current number of items in the buffer without locking.
+     * The value is a snapshot and may be stale under concurrent use.
+     * @return The number of items.
+     */
+    @Override
+    public int getCurrentSize() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    /**
+     * Returns the capacity of the buffer.
+     * @return The capacity.
+     */
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Closes the buffer and wakes every parked consumer and producer so they can see it.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        Thread waiter;
+        while ((waiter = waitingConsumers.poll()) != null) {
+            LockSupport.unpark(waiter);
+        }
+        while ((waiter = waitingProducers.poll()) != null) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Buffer is closed");
+        }
+    }
+
+    // Spin for the first attempts, then give other threads the CPU
+    private static void backOff(int attempt) {
+        if (attempt < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else {
+            Thread.yield();
+        }
+    }
+
+    // Wakes one parked thread from the given queue, if any
+    private static void signal(ConcurrentLinkedQueue<Thread> waiters) {
+        if (!waiters.isEmpty()) {
+            Thread waiter = waiters.poll();
+            if (waiter != null) {
+                LockSupport.unpark(waiter);
+            }
+        }
+    }
+
+    // Deregisters a waiter. If a signal already removed it, that wake-up was consumed
+    // by this thread, so pass it on to keep other parked threads from missing it.
+    private static void leave(ConcurrentLinkedQueue<Thread> waiters, Thread self) {
+        if (!waiters.remove(self)) {
+            signal(waiters);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free event counter over rolling windows of simulation time.
+ * Counts are kept per simulated minute in a ring of slots. Each slot packs the minute it
+ * belongs to and its count into one long, so a slot is reused for a new minute and
+ * incremented with a single CAS and no count is lost when the ring wraps.
+ */
+public class RollingCounter {
+    public static final int MAX_WINDOW_MINUTES = 60;
+
+    private static final int SLOTS = 64;            // Power of two above MAX_WINDOW_MINUTES
+    private static final int COUNT_BITS = 24;       // Up to ~16.7 million events per simulated minute
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final long MINUTE_MILLIS = 60_000;
+
+    private final long startMillis;
+    private final AtomicLongArray slots = new AtomicLongArray(SLOTS);
+    private final AtomicLong total = new AtomicLong();
+
+    /**
+     * @param startMillis Simulation time at which minute 0 begins.
+     */
+    public RollingCounter(long startMillis) {
+        this.startMillis = startMillis;
+        for (int i = 0; i < SLOTS; i++) {
+            slots.set(i, pack(-1, 0)); // Minute -1 never matches a real minute
+        }
+    }
+
+    /**
+     * Counts one event.
+     * @param timeMillis Simulation time of the event.
+     */
+    public void increment(long timeMillis) {
+        total.incrementAndGet();
+        long minute = minuteOf(timeMillis);
+        int index = (int) (minute & (SLOTS - 1));
+        while (true) {
+            long current = slots.get(index);
+            long slotMinute = current >> COUNT_BITS;
+            long next;
+            if (slotMinute == minute) {
+                next = (current & COUNT_MASK) == COUNT_MASK ? current : current + 1; // Saturate rather than spill into the minute
+            } else if (slotMinute < minute) {
+                next = pack(minute, 1); // Slot still holds a minute that has left every window
+            } else {
+                return; // Straggler from a minute this slot has already moved past; only the total keeps it
+            }
+            if (slots.compareAndSet(index, current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Counts the events in the last windowMinutes simulated minutes, including the current one.
+     * @param nowMillis Current simulation time.
+     * @param windowMinutes Window length, 1 to MAX_WINDOW_MINUTES.
+     * @return The event count.
+     */
+    public long countInWindow(long nowMillis, int windowMinutes) {
+        if (windowMinutes < 1 || windowMinutes > MAX_WINDOW_MINUTES) {
+            throw new IllegalArgumentException("Window must be 1 to " + MAX_WINDOW_MINUTES + " minutes");
+        }
+        long now = minuteOf(nowMillis);
+        long sum = 0;
+        for (int i = 0; i < SLOTS; i++) {
+            long slot = slots.get(i);
+            long minute = slot >> COUNT_BITS;
+            if (minute <= now && minute > now - windowMinutes) {
+                sum += slot & COUNT_MASK;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Events per simulated hour over the window. Early in the run the window is cut to the elapsed time.
+     * @param nowMillis Current simulation time.
+     * @param windowMinutes Window length, 1 to MAX_WINDOW_MINUTES.
+     * @return The rate per hour.
+     */
+    public double ratePerHour(long nowMillis, int windowMinutes) {
+        double elapsedMinutes = Math.max(1, Math.min(windowMinutes, (nowMillis - startMillis) / (double) MINUTE_MILLIS));
+        return countInWindow(nowMillis, windowMinutes) * 60.0 / elapsedMinutes;
+    }
+
+    /**
+     * Gets the number of events counted since the start.
+     * @return The total.
+     */
+    public long getTotal() {
+        return total.get();
+    }
+
+    private long minuteOf(long timeMillis) {
+        return Math.max(0, timeMillis - startMillis) / MINUTE_MILLIS;
+    }
+
+    private static long pack(long minute, long count) {
+        return (minute << COUNT_BITS) | count;
+    }
+}
@@ -0,0 +1,201 @@
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * End-to-end scenario benchmark: generates workloads with WorkloadGenerator and runs RestSimApp
+ * on each in a fresh JVM, so runs do not share heap or JIT state.
+ * Reports customers simulated per second, wall time, peak heap and latency percentiles,
+ * on the console and as CSV, so engine changes can be compared run against run.
+ * Usage: java ScenarioSuite [options] [RestSimApp options]
+ * <pre>
+ * --scenarios=a,b,...    Scenarios to run, or "all". Default: every scenario except poisson-10m
+ * --engines=a,b,...      RestSimApp engines to run each scenario with. Default event
+ * --format=trace|text    Workload file format. Default trace
+ * --seed=S               Workload seed. Default 42
+ * --heap=SIZE            -Xmx for the simulation JVMs, e.g. 4g. Default: JVM default
+ * --work=DIR             Workloads, run logs and results.csv go here. Default scenarios
+ * </pre>
+ * Any other --key=value option is passed on to RestSimApp, e.g. --buffer=ring --threads=virtual.
+ */
+public class ScenarioSuite {
+    // Name, WorkloadGenerator options, --speed for the real-time engines (threaded, async).
+    // Speeds stay at or below 6000x, where one simulated minute is 10 ticks of the 1 ms timing wheel; at 60000x
+    // a minute is a single tick and the real-time engines measure pacing error instead of queueing. Even at
+    // 6000x each thread wake-up costs a few simulated seconds, so near saturation their queues run somewhat
+    // longer than the event engine's; compare real-time rows with each other rather than with event rows.
+    // Staffing is sized to keep up with the mean arrival rate (prep averages 5.5 minutes, and a waiter
+    // stays until the customers on a trip have eaten), so queues build only around the rush peaks.
+    private static final String[][] SCENARIOS = {
+        {"tiny", "--customers=10 --rate=30 --chefs=2 --waiters=6 --tables=15", "600"},
+        {"lunch-1k", "--customers=1000 --arrivals=rush --rate=60 --peak=4 --chefs=14 --waiters=24 --tables=60", "6000"},
+        {"poisson-100k", "--customers=100000 --rate=1200 --chefs=140 --waiters=240 --tables=600", "6000"},
+        {"rush-1m", "--customers=1000000 --arrivals=rush --rate=3000 --peak=3 --chefs=560 --waiters=960 --tables=2400", "6000"},
+        {"poisson-10m", "--customers=10000000 --rate=12000 --chefs=1400 --waiters=2400 --tables=6000", "6000"},
+    };
+    private static final String DEFAULT_SCENARIOS = "tiny,lunch-1k,poisson-100k,rush-1m";
+    private static final List<String> OWN_OPTIONS = Arrays.asList("scenarios", "engines", "format", "seed", "heap", "work");
+    private static final String[] STAGES = {"tableWait", "orderQueue", "prep", "cookedQueue", "endToEnd"};
+    private static final String[] STATISTICS = {"p50", "p90", "p99", "p99.9", "max"};
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        List<String> simOptions = new ArrayList<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 3) {
+                System.err.println("Usage: java ScenarioSuite [--scenarios=a,b|all] [--engines=event,threaded,async] [--format=trace|text] "
+                        + "[--seed=S] [--heap=SIZE] [--work=DIR] [RestSimApp --key=value options]");
+                System.exit(1);
+            }
+            String key = arg.substring(2, eq);
+            if (OWN_OPTIONS.contains(key)) {
+                options.put(key, arg.substring(eq + 1));
+            } else {
+                simOptions.add(arg);
+            }
+        }
+
+        Map<String, String[]> scenarios = new LinkedHashMap<>();
+        for (String[] scenario : SCENARIOS) {
+            scenarios.put(scenario[0], scenario);
+        }
+        String selection = options.getOrDefault("scenarios", DEFAULT_SCENARIOS);
+        List<String> names = selection.equals("all") ? new ArrayList<>(scenarios.keySet()) : Arrays.asList(selection.split(","));
+        for (String name : names) {
+            if (!scenarios.containsKey(name)) {
+                System.err.println("Unknown scenario '" + name + "'. Known: " + String.join(", ", scenarios.keySet()));
+                System.exit(1);
+            }
+        }
+        String[] engines = options.getOrDefault("engines", "event").split(",");
+        String format = options.getOrDefault("format", "trace");
+        String seed = options.getOrDefault("seed", "42");
+        Path work = Path.of(options.getOrDefault("work", "scenarios"));
+
+        try {
+            Files.createDirectories(work);
+            try (PrintWriter csv = new PrintWriter(work.resolve("results.csv").toFile())) {
+                csv.print("scenario,engine,customers,wall_ms,run_ms,customers_per_sec,peak_heap_bytes");
+                for (String stage : STAGES) {
+                    for (String statistic : STATISTICS) {
+                        csv.print("," + stage + "_" + statistic + "_ms");
+                    }
+                }
+                csv.println();
+
+                System.out.printf("%-14s %-9s %10s %9s %12s %9s %11s %11s %11s %11s%n", "Scenario", "Engine", "Customers", "Wall s",
+                        "Customers/s", "Heap MB", "Wait p50", "Wait p99", "E2E p50", "E2E p99");
+                for (String name : names) {
+                    String[] scenario = scenarios.get(name);
+                    Path workload = prepareWorkload(work, scenario, format, seed);
+                    for (String engine : engines) {
+                        runScenario(work, scenario, engine, workload, options.get("heap"), simOptions, csv);
+                    }
+                }
+            }
+            System.out.println("\nResults written to " + work.resolve("results.csv") + ".");
+        } catch (IOException e) {
+            System.err.println("Error running scenarios: " + e.getMessage());
+            System.exit(1);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid scenario: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            System.err.println("Scenario suite interrupted.");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Generates the scenario's workload unless an identical one (same name, seed and format) is already there
+    private static Path prepareWorkload(Path work, String[] scenario, String format, String seed) throws IOException {
+        Path file = work.resolve(scenario[0] + "-seed" + seed + (format.equals("trace") ? ".trace" : ".txt"));
+        if (Files.exists(file)) {
+            return file;
+        }
+        Map<String, String> generatorOptions = new HashMap<>();
+        for (String option : scenario[1].split(" ")) {
+            int eq = option.indexOf('=');
+            generatorOptions.put(option.substring(2, eq), option.substring(eq + 1));
+        }
+        generatorOptions.put("out", file.toString());
+        generatorOptions.put("format", format);
+        generatorOptions.put("seed", seed);
+        System.out.println("Generating " + scenario[0] + " workload into " + file + "...");
+        WorkloadGenerator.generate(generatorOptions);
+        return file;
+    }
+
+    private static void runScenario(Path work, String[] scenario, String engine, Path workload, String heap,
+                                    List<String> simOptions, PrintWriter csv) throws IOException, InterruptedException {
+        String runName = scenario[0] + "-" + engine;
+        File reportFile = work.resolve(runName + ".properties").toFile();
+        File logFile = work.resolve(runName + ".log").toFile();
+        Files.deleteIfExists(reportFile.toPath());
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (heap != null) {
+            command.add("-Xmx" + heap);
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("RestSimApp");
+        command.add(workload.toString());
+        command.add("--engine=" + engine);
+        command.add("--log=summary");
+        command.add("--report=" + reportFile);
+        if (!engine.equals("event")) {
+            command.add("--speed=" + scenario[2]);
+        }
+        command.addAll(simOptions);
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(logFile).start();
+        int exitCode = process.waitFor();
+        long wallMillis = (System.nanoTime() - start) / 1_000_000;
+
+        if (exitCode != 0 || !reportFile.exists()) {
+            System.out.printf("%-14s %-9s FAILED (exit code %d, see %s)%n", scenario[0], engine, exitCode, logFile);
+            return;
+        }
+        Properties report = new Properties();
+        try (Reader in = new FileReader(reportFile)) {
+            report.load(in);
+        }
+        long served = Long.parseLong(report.getProperty("customers.served", "0"));
+        long runMillis = Math.max(1, Long.parseLong(report.getProperty("wall.millis", "0")));
+        double customersPerSecond = served * 1000.0 / runMillis; // Excludes JVM start-up
+        long peakHeap = Long.parseLong(report.getProperty("heap.peak.bytes", "0"));
+
+        System.out.printf("%-14s %-9s %10d %9.2f %12.0f %9.1f %11.2f %11.2f %11.2f %11.2f%n", scenario[0], engine, served,
+                wallMillis / 1000.0, customersPerSecond, peakHeap / (1024.0 * 1024.0),
+                minutes(report, "tableWait", "p50"), minutes(report, "tableWait", "p99"),
+                minutes(report, "endToEnd", "p50"), minutes(report, "endToEnd", "p99"));
+
+        csv.print(scenario[0] + "," + engine + "," + served + "," + wallMillis + "," + runMillis + ","
+                + String.format("%.1f", customersPerSecond) + "," + peakHeap);
+        for (String stage : STAGES) {
+            for (String statistic : STATISTICS) {
+                csv.print("," + report.getProperty("latency." + stage + "." + statistic, ""));
+            }
+        }
+        csv.println();
+        csv.flush();
+    }
+
+    private static double minutes(Properties report, String stage, String statistic) {
+        return Long.parseLong(report.getProperty("latency." + stage + "." + statistic, "0")) / 60_000.0;
+    }
+}
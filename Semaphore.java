@@ -1,19 +1,40 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.AbstractQueuedSynchronizer;
+
 /**
- * Custom Semaphore class using basic Java synchronization.
+ * Custom counting Semaphore built on a queue-based synchronizer (AbstractQueuedSynchronizer).
  * As required by the project description, this does not use java.util.concurrent.Semaphore.
+ * The permit count is the synchronizer state and is updated with CAS, so uncontended
+ * acquire/release never takes a lock. Blocked threads wait in a FIFO queue and are
+ * unparked individually on release instead of competing for a monitor.
+ * A semaphore is either fair (permits are granted in arrival order) or barging
+ * (an arriving thread may take a permit ahead of queued ones, which gives higher throughput).
+ * Before queueing, a thread spins briefly, since permits in this simulation are usually
+ * held for very short critical sections.
  */
 public class Semaphore {
-    private int permits;
+    private static final int SPIN_TRIES = 64; // Attempts before parking in the wait queue
+
+    private final Sync sync;
 
     /**
-     * Creates a Semaphore with the given number of permits.
+     * Creates a barging Semaphore with the given number of permits.
      * @param permits The initial number of permits available. Must be non-negative.
      */
     public Semaphore(int permits) {
+        this(permits, false);
+    }
+
+    /**
+     * Creates a Semaphore with the given number of permits and fairness mode.
+     * @param permits The initial number of permits available. Must be non-negative.
+     * @param fair true to grant permits in first-come first-served order, false to allow barging.
+     */
+    public Semaphore(int permits, boolean fair) {
         if (permits < 0) {
             throw new IllegalArgumentException("Permits must be non-negative");
         }
-        this.permits = permits;
+        this.sync = new Sync(permits, fair);
     }
 
     /**
@@ -21,29 +42,218 @@ public class Semaphore {
      * Also known as P() or wait().
      * @throws InterruptedException if the current thread is interrupted while waiting.
      */
-    public synchronized void acquire() throws InterruptedException {
-        while (permits == 0) {
-            wait(); // Wait until a permit is released
+    public void acquire() throws InterruptedException {
+        acquire(1);
+    }
+
+    /**
+     * Acquires the given number of permits, blocking until all of them are available at once.
+     * @param n The number of permits to acquire. Must be non-negative.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     */
+    public void acquire(int n) throws InterruptedException {
+        checkPermits(n);
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (spinAcquire(n)) {
+            return;
+        }
+        sync.acquireSharedInterruptibly(n);
+    }
+
+    /**
+     * Acquires a permit, blocking until one is available even if the thread is interrupted.
+     * An interrupt received while waiting is kept in the thread's interrupt status.
+     * For short critical sections that must complete, such as closing a buffer during shutdown.
+     */
+    public void acquireUninterruptibly() {
+        if (!spinAcquire(1)) {
+            sync.acquireShared(1);
+        }
+    }
+
+    /**
+     * Acquires a permit only if one is available at the time of the call.
+     * In fair mode this fails if other threads are already queued.
+     * @return true if a permit was acquired.
+     */
+    public boolean tryAcquire() {
+        return sync.tryAcquireShared(1) >= 0;
+    }
+
+    /**
+     * Acquires the given number of permits only if all of them are available at the time of the call.
+     * @param n The number of permits to acquire. Must be non-negative.
+     * @return true if the permits were acquired.
+     */
+    public boolean tryAcquire(int n) {
+        checkPermits(n);
+        return sync.tryAcquireShared(n) >= 0;
+    }
+
+    /**
+     * Acquires a permit, waiting up to the given time for one to become available.
+     * @param timeout The maximum time to wait.
+     * @param unit The unit of the timeout argument.
+     * @return true if a permit was acquired, false if the timeout elapsed first.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     */
+    public boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        return tryAcquire(1, timeout, unit);
+    }
+
+    /**
+     * Acquires the given number of permits, waiting up to the given time for all of them.
+     * @param n The number of permits to acquire. Must be non-negative.
+     * @param timeout The maximum time to wait.
+     * @param unit The unit of the timeout argument.
+     * @return true if the permits were acquired, false if the timeout elapsed first.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     */
+    public boolean tryAcquire(int n, long timeout, TimeUnit unit) throws InterruptedException {
+        checkPermits(n);
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (spinAcquire(n)) {
+            return true;
         }
-        permits--;
+        return sync.tryAcquireSharedNanos(n, unit.toNanos(timeout));
+    }
+
+    /**
+     * Acquires as many permits as are available right now, up to maxPermits, without blocking.
+     * @param maxPermits The most permits to take.
+     * @return The number of permits acquired, possibly 0.
+     */
+    public int tryAcquireUpTo(int maxPermits) {
+        return sync.takeUpTo(maxPermits);
     }
 
     /**
      * Releases a permit, returning it to the semaphore.
      * Also known as V() or signal().
      * Increases the number of available permits by one. If any threads are waiting
-     * to acquire a permit, one is woken up.
+     * to acquire a permit, the longest-waiting one is unparked.
+     */
+    public void release() {
+        sync.releaseShared(1);
+    }
+
+    /**
+     * Releases the given number of permits. Queued threads are unparked in order
+     * for as long as their requests can be satisfied.
+     * @param n The number of permits to release. Must be non-negative.
      */
-    public synchronized void release() {
-        permits++;
-        notify(); // Notify a waiting thread that a permit is available
+    public void release(int n) {
+        checkPermits(n);
+        sync.releaseShared(n);
     }
 
     /**
      * Returns the current number of permits available in this semaphore.
      * @return the number of permits available.
      */
-    public synchronized int availablePermits() {
-        return permits;
+    public int availablePermits() {
+        return sync.getPermits();
+    }
+
+    /**
+     * Returns whether this semaphore grants permits in arrival order.
+     * @return true if fair.
+     */
+    public boolean isFair() {
+        return sync.fair;
+    }
+
+    /**
+     * Returns an estimate of the number of threads blocked waiting for permits.
+     * @return The number of queued threads.
+     */
+    public int getQueueLength() {
+        return sync.getQueueLength();
+    }
+
+    // Short busy-wait before falling back to the parking queue
+    private boolean spinAcquire(int n) {
+        for (int i = 0; i < SPIN_TRIES; i++) {
+            if (sync.tryAcquireShared(n) >= 0) {
+                return true;
+            }
+            if (sync.hasQueuedThreads()) {
+                return false; // Others are already parked; join the queue instead of burning CPU
+            }
+            Thread.onSpinWait();
+        }
+        return false;
+    }
+
+    private static void checkPermits(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Permits must be non-negative");
+        }
+    }
+
+    /**
+     * Synchronizer whose state is the number of available permits.
+     */
+    private static final class Sync extends AbstractQueuedSynchronizer {
+        private static final long serialVersionUID = 1L;
+
+        private final boolean fair;
+
+        Sync(int permits, boolean fair) {
+            this.fair = fair;
+            setState(permits);
+        }
+
+        int getPermits() {
+            return getState();
+        }
+
+        @Override
+        protected int tryAcquireShared(int acquires) {
+            while (true) {
+                if (fair && hasQueuedPredecessors()) {
+                    return -1;
+                }
+                int available = getState();
+                int remaining = available - acquires;
+                if (remaining < 0) {
+                    return remaining; // Not enough permits: caller queues
+                }
+                if (compareAndSetState(available, remaining)) {
+                    return remaining;
+                }
+            }
+        }
+
+        @Override
+        protected boolean tryReleaseShared(int releases) {
+            while (true) {
+                int current = getState();
+                int next = current + releases;
+                if (next < current) {
+                    throw new Error("Maximum permit count exceeded");
+                }
+                if (compareAndSetState(current, next)) {
+                    return true;
+                }
+            }
+        }
+
+        int takeUpTo(int maxPermits) {
+            while (true) {
+                if (fair && hasQueuedPredecessors()) {
+                    return 0;
+                }
+                int available = getState();
+                int taken = Math.max(0, Math.min(available, maxPermits));
+                if (taken == 0 || compareAndSetState(available, available - taken)) {
+                    return taken;
+                }
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,39 +1,72 @@
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A simple clock to manage simulation time, starting from a base time (e.g., 08:00).
+ * Simulation time runs at a configurable multiple of real time (the speed factor), measured
+ * from a monotonic TimeSource. Actors wait with sleepUntil on absolute simulation deadlines,
+ * so scheduler jitter from earlier sleeps does not accumulate over a long run.
+ * Only this wall-paced clock can be waited on; the event engine's VirtualClock shares just the
+ * read-only SimulationTime view.
  */
-public class SimulationClock {
-    private final long startTimeMillis; // Real system time when simulation started
-    private final long simulationStartTimeOffsetMillis; // Offset for simulation start time (e.g., 8 hours for 08:00)
-    private final SimpleDateFormat timeFormat;
+public class SimulationClock implements SimulationTime {
+    private final TimeSource timeSource;
+    private final double speedFactor; // Simulated milliseconds per real millisecond
+    private final long startNanos; // Time source reading when simulation started
+    private final TimestampFormatter timeFormat = new TimestampFormatter(); // Thread-safe, caches the current second
 
-    // Example: Start simulation conceptually at 08:00:00
+    // Example: Start simulation conceptually at 08:00:00, running in real time
     public SimulationClock() {
-        this.startTimeMillis = System.currentTimeMillis();
-        // Calculate offset for 8 AM UTC (adjust if timezone needed, but for formatting it's simpler)
-        this.simulationStartTimeOffsetMillis = 8 * 60 * 60 * 1000L;
-        this.timeFormat = new SimpleDateFormat("HH:mm:ss");
-        this.timeFormat.setTimeZone(TimeZone.getTimeZone("UTC")); // Format relative to 00:00 base
+        this(TimeSource.SYSTEM, 1.0);
     }
 
     /**
-     * Gets the current simulation time in milliseconds since the simulation's conceptual epoch (00:00).
-     * @return Current simulation time in milliseconds.
+     * Creates a clock that runs faster (or slower) than real time.
+     * @param timeSource Monotonic time source to measure real elapsed time.
+     * @param speedFactor Simulated milliseconds per real millisecond, e.g. 6000 makes one simulated minute last 10 ms.
      */
+    public SimulationClock(TimeSource timeSource, double speedFactor) {
+        if (!(speedFactor > 0) || Double.isInfinite(speedFactor)) {
+            throw new IllegalArgumentException("Speed factor must be a positive number");
+        }
+        this.timeSource = timeSource;
+        this.speedFactor = speedFactor;
+        this.startNanos = timeSource.nanoTime();
+    }
+
+    @Override
     public long getTimeMillis() {
-        long elapsedTime = System.currentTimeMillis() - startTimeMillis;
-        return simulationStartTimeOffsetMillis + elapsedTime;
+        long elapsedRealNanos = timeSource.nanoTime() - startNanos;
+        return START_OF_DAY_MILLIS + (long) (elapsedRealNanos * speedFactor / 1_000_000.0);
+    }
+
+    /**
+     * Blocks the calling thread until the simulation clock reaches the given time.
+     * Returns immediately if that time has already passed.
+     * @param timeMillis Absolute simulation time (ms since 00:00) to wait for.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public void sleepUntil(long timeMillis) throws InterruptedException {
+        long remainingNanos;
+        // Re-check after every wake-up: sleeps may end early or late, the deadline does not move
+        while ((remainingNanos = getRealNanosUntil(timeMillis)) > 0) {
+            TimeUnit.NANOSECONDS.sleep(remainingNanos);
+        }
     }
 
     /**
-     * Gets the current simulation time formatted as HH:mm:ss. [cite: 34]
-     * @return Formatted time string.
+     * Gets how much real time remains until the simulation clock reaches the given time,
+     * for callers that schedule a timer instead of blocking in sleepUntil.
+     * @param timeMillis Absolute simulation time (ms since 00:00).
+     * @return Remaining real time in nanoseconds; zero or negative if that time has passed.
      */
+    public long getRealNanosUntil(long timeMillis) {
+        long deadlineNanos = startNanos + (long) ((timeMillis - START_OF_DAY_MILLIS) * 1_000_000.0 / speedFactor);
+        return deadlineNanos - timeSource.nanoTime();
+    }
+
+    @Override
     public String getFormattedTime() {
-        return timeFormat.format(new Date(getTimeMillis()));
+        return timeFormat.format(getTimeMillis());
     }
 
     /**
@@ -41,6 +74,14 @@ public class SimulationClock {
      * @return Elapsed time in milliseconds.
      */
     public long getElapsedRealTimeMillis() {
-        return System.currentTimeMillis() - startTimeMillis;
+        return TimeUnit.NANOSECONDS.toMillis(timeSource.nanoTime() - startNanos);
+    }
+
+    /**
+     * Gets the number of simulated milliseconds that pass per real millisecond.
+     * @return The speed factor.
+     */
+    public double getSpeedFactor() {
+        return speedFactor;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,103 @@
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The restaurant setup read from a configuration file: staffing, menu, kitchen stations and batch rules.
+ * Immutable, so one instance can be shared by simulations running side by side; each simulation
+ * opens its own customer stream from the file with openCustomers.
+ */
+public class SimulationConfig {
+    private final String configFile;
+    private final int numChefs;
+    private final int numWaiters;
+    private final int numTables;
+    private final Map<String, Integer> mealPrepTimes; // Meal name -> prep time in minutes, in declaration order
+    private final List<Station> stations;
+    private final List<BatchRule> batchRules;
+
+    private SimulationConfig(String configFile, int numChefs, int numWaiters, int numTables, Map<String, Integer> mealPrepTimes,
+                             List<Station> stations, List<BatchRule> batchRules) {
+        this.configFile = configFile;
+        this.numChefs = numChefs;
+        this.numWaiters = numWaiters;
+        this.numTables = numTables;
+        this.mealPrepTimes = mealPrepTimes;
+        this.stations = stations;
+        this.batchRules = batchRules;
+    }
+
+    /**
+     * Takes the setup from a source that has just been opened. The source's customers are left unread.
+     * @param configFile Path the source was opened from, reopened by openCustomers.
+     * @param source The open source.
+     * @return The setup.
+     */
+    public static SimulationConfig of(String configFile, ConfigSource source) {
+        return new SimulationConfig(configFile, source.getNumChefs(), source.getNumWaiters(), source.getNumTables(),
+                Collections.unmodifiableMap(new LinkedHashMap<>(source.getMealPrepTimes())),
+                List.copyOf(source.getStations()), List.copyOf(source.getBatchRules()));
+    }
+
+    /**
+     * Returns the same setup with different staffing, e.g. for a capacity plan.
+     * @param numChefs Number of chefs.
+     * @param numWaiters Number of waiters.
+     * @param numTables Number of tables.
+     * @return The new setup.
+     * @throws IllegalArgumentException If a count is not positive or the stations need more chefs.
+     */
+    public SimulationConfig withStaff(int numChefs, int numWaiters, int numTables) throws IllegalArgumentException {
+        if (numChefs <= 0 || numWaiters <= 0 || numTables <= 0) {
+            throw new IllegalArgumentException("Chef, waiter and table counts must be positive.");
+        }
+        Station.validate(stations, mealPrepTimes, numChefs);
+        return new SimulationConfig(configFile, numChefs, numWaiters, numTables, mealPrepTimes, stations, batchRules);
+    }
+
+    /**
+     * Opens a fresh customer stream from the configuration file, positioned at the first customer.
+     * @return The open source; the caller closes it.
+     * @throws IOException If the file cannot be read.
+     * @throws IllegalArgumentException If the format is invalid.
+     */
+    public ConfigSource openCustomers() throws IOException, IllegalArgumentException {
+        return ConfigSource.open(configFile);
+    }
+
+    public String getConfigFile() {
+        return configFile;
+    }
+
+    /** @return Number of chefs (NC). */
+    public int getNumChefs() {
+        return numChefs;
+    }
+
+    /** @return Number of waiters (NW). */
+    public int getNumWaiters() {
+        return numWaiters;
+    }
+
+    /** @return Number of tables (NT). */
+    public int getNumTables() {
+        return numTables;
+    }
+
+    /** @return Meal name -> prep time in minutes, in the order the meals were declared. */
+    public Map<String, Integer> getMealPrepTimes() {
+        return mealPrepTimes;
+    }
+
+    /** @return The kitchen stations; empty if every chef is a generalist. */
+    public List<Station> getStations() {
+        return stations;
+    }
+
+    /** @return The batch cooking rules; empty if every meal is cooked one order at a time. */
+    public List<BatchRule> getBatchRules() {
+        return batchRules;
+    }
+}
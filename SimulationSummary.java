@@ -0,0 +1,70 @@
+import java.io.PrintStream;
+
+/**
+ * The end-of-run statistics and the summary block printed from them. [cite: 49, 53]
+ * Shared by the live engines and by offline tools that rebuild the statistics from a journal.
+ */
+public class SimulationSummary {
+    private final int customersServed;
+    private final long totalTableWaitTimeMillis;
+    private final int mealsPrepared;
+    private final long totalPrepTimeMillis;
+    private final long simulationDurationMillis;
+
+    public SimulationSummary(int customersServed, long totalTableWaitTimeMillis, int mealsPrepared,
+                             long totalPrepTimeMillis, long simulationDurationMillis) {
+        this.customersServed = customersServed;
+        this.totalTableWaitTimeMillis = totalTableWaitTimeMillis;
+        this.mealsPrepared = mealsPrepared;
+        this.totalPrepTimeMillis = totalPrepTimeMillis;
+        this.simulationDurationMillis = simulationDurationMillis;
+    }
+
+    public int getCustomersServed() {
+        return customersServed;
+    }
+
+    public int getMealsPrepared() {
+        return mealsPrepared;
+    }
+
+    /**
+     * Average time from arrival to being seated, over served customers.
+     * @return Average wait in minutes, 0 if nobody was served.
+     */
+    public double getAverageWaitMinutes() {
+        return customersServed > 0 ? totalTableWaitTimeMillis / (double) customersServed / 60_000.0 : 0.0;
+    }
+
+    /**
+     * Average preparation time per meal.
+     * @return Average prep time in minutes, 0 if no meal was prepared.
+     */
+    public double getAveragePrepMinutes() {
+        return mealsPrepared > 0 ? totalPrepTimeMillis / (double) mealsPrepared / 60_000.0 : 0.0;
+    }
+
+    /**
+     * Simulated duration of the run.
+     * @return Duration in minutes.
+     */
+    public double getSimulationMinutes() {
+        return simulationDurationMillis / 60_000.0;
+    }
+
+    /**
+     * Prints the summary block.
+     * @param out Stream to print to.
+     * @param endTime Formatted simulation time at which the run ended.
+     */
+    public void print(PrintStream out, String endTime) {
+        out.println("\n[" + endTime + "] [End of Simulation]"); // [cite: 49]
+        out.println("\nSummary:");
+        out.println("-----------------------------------------");
+        out.println("Total Customers Served: " + customersServed); // [cite: 50]
+        out.printf("Average Wait Time for Table: %.2f Minutes%n", getAverageWaitMinutes()); // [cite: 50]
+        out.printf("Average Order Preparation Time: %.2f Minutes%n", getAveragePrepMinutes()); // [cite: 51]
+        out.printf("Total Simulation Time: %.2f Minutes%n", getSimulationMinutes()); // [cite: 52]
+        out.println("-----------------------------------------");
+    }
+}
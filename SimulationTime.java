@@ -0,0 +1,37 @@
+/**
+ * Read-only view of simulation time, shared by the wall-paced SimulationClock and the event engine's
+ * VirtualClock. Code that only timestamps events, such as statistics and live metrics, takes this;
+ * code that waits for simulated time takes a SimulationClock, so a virtual clock can never be slept on.
+ */
+public interface SimulationTime {
+    /** Conceptual start of the simulated day (08:00) in milliseconds since 00:00. */
+    long START_OF_DAY_MILLIS = 8 * 60 * 60 * 1000L;
+
+    /**
+     * Gets the current simulation time in milliseconds since the simulation's conceptual epoch (00:00).
+     * @return Current simulation time in milliseconds.
+     */
+    long getTimeMillis();
+
+    /**
+     * Gets the conceptual start of the simulated day (08:00) in milliseconds since 00:00.
+     * @return Start-of-day offset in milliseconds.
+     */
+    default long getStartOfDayMillis() {
+        return START_OF_DAY_MILLIS;
+    }
+
+    /**
+     * Gets the simulated time that has passed since the conceptual start (08:00).
+     * @return Elapsed simulation time in milliseconds.
+     */
+    default long getElapsedSimulationMillis() {
+        return getTimeMillis() - getStartOfDayMillis();
+    }
+
+    /**
+     * Gets the current simulation time formatted as HH:mm:ss. [cite: 34]
+     * @return Formatted time string.
+     */
+    String getFormattedTime();
+}
@@ -0,0 +1,99 @@
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A kitchen station from the configuration, e.g. {@code Station=Grill Meals=Burger,Steak Chefs=1 Overflow=yes}:
+ * a set of meals cooked only by the station's own chefs. Chefs not assigned to any station are generalists;
+ * they cook every meal without a station and, for stations with Overflow=yes, take orders the station is
+ * too busy to start.
+ */
+public class Station {
+    private final String name;
+    private final List<String> meals;
+    private final int chefs;
+    private final boolean overflow;
+
+    public Station(String name, List<String> meals, int chefs, boolean overflow) {
+        this.name = name;
+        this.meals = Collections.unmodifiableList(meals);
+        this.chefs = chefs;
+        this.overflow = overflow;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** @return The meals routed to this station, using the menu's canonical names. */
+    public List<String> getMeals() {
+        return meals;
+    }
+
+    public int getChefs() {
+        return chefs;
+    }
+
+    /** @return true if generalist chefs may take this station's orders when it is busy. */
+    public boolean isOverflow() {
+        return overflow;
+    }
+
+    /**
+     * Checks a set of stations against the menu and the number of chefs.
+     * @param stations The stations, possibly empty.
+     * @param mealPrepTimes The menu.
+     * @param numChefs NC; chefs beyond those assigned to stations are generalists.
+     * @throws IllegalArgumentException If a station is invalid, two stations share a meal or a name,
+     *         the stations need more chefs than there are, or some orders could not be cooked by anyone.
+     */
+    public static void validate(List<Station> stations, Map<String, Integer> mealPrepTimes, int numChefs) throws IllegalArgumentException {
+        Map<String, String> stationByMeal = new HashMap<>();
+        Set<String> names = new HashSet<>();
+        int stationChefs = 0;
+        boolean anyOverflow = false;
+        for (Station station : stations) {
+            if (!names.add(station.name)) {
+                throw new IllegalArgumentException("Station '" + station.name + "' is declared twice.");
+            }
+            if (station.chefs <= 0) {
+                throw new IllegalArgumentException("Station '" + station.name + "' needs a positive number of Chefs.");
+            }
+            if (station.meals.isEmpty()) {
+                throw new IllegalArgumentException("Station '" + station.name + "' has no Meals.");
+            }
+            for (String meal : station.meals) {
+                if (!mealPrepTimes.containsKey(meal)) {
+                    throw new IllegalArgumentException("Station '" + station.name + "' lists unknown meal '" + meal + "'.");
+                }
+                String other = stationByMeal.put(meal, station.name);
+                if (other != null) {
+                    throw new IllegalArgumentException("Meal '" + meal + "' is assigned to both '" + other + "' and '" + station.name + "'.");
+                }
+            }
+            stationChefs += station.chefs;
+            anyOverflow |= station.overflow;
+        }
+        if (stationChefs > numChefs) {
+            throw new IllegalArgumentException("Stations need " + stationChefs + " chefs but NC is " + numChefs + ".");
+        }
+        if (stationChefs == numChefs) {
+            for (String meal : mealPrepTimes.keySet()) {
+                if (!stationByMeal.containsKey(meal)) {
+                    throw new IllegalArgumentException("Meal '" + meal + "' has no station and every chef is assigned to one.");
+                }
+            }
+            if (anyOverflow) {
+                throw new IllegalArgumentException("Overflow=yes needs generalist chefs, but every chef is assigned to a station.");
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name + " " + meals + " x" + chefs + (overflow ? " (overflow)" : "");
+    }
+}
@@ -0,0 +1,247 @@
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+/**
+ * Order queue split into one shard per kitchen station, plus a general shard for the generalist chefs.
+ * produce() routes each order by meal, so kiosks place orders exactly as they would into a single buffer,
+ * while each chef only ever consumes from their own station's shard through forChef(); the router itself
+ * is only a BoundedSink, so there is nothing to consume from it directly.
+ * An order for a station with Overflow=yes goes to the general shard instead when none of the station's
+ * chefs is waiting for work and the generalists are less loaded: one of them is waiting, or they have
+ * fewer orders queued per chef.
+ * Also keeps per-station statistics: orders routed, orders overflowed, longest queue and queueing time.
+ */
+public class StationRouter implements BoundedSink {
+    private static final String GENERAL = "(general)";
+
+    private final SimulationTime clock;
+    private final String[] names;
+    private final int[] chefs;
+    private final boolean[] overflow;
+    private final BoundedBuffer[] shards;
+    private final int general; // Index of the general shard, or -1 if every chef works at a station
+    private final Map<String, Integer> shardByMeal = new HashMap<>();
+    private final int[] chefShards; // Chef index -> shard
+    private final Consumer[] chefSources; // Chef index -> what that chef consumes from
+
+    // Per-shard statistics and state
+    private final AtomicInteger[] waitingChefs; // Chefs currently blocked in consume
+    private final LongAdder[] orders;
+    private final LongAdder[] overflowed; // Orders for the station sent to the general shard
+    private final AtomicInteger[] maxQueue;
+    private final LatencyRecorder[] queueWait;
+
+    /**
+     * Creates the shards and assigns chefs to them: the first chefs to the first station, and so on,
+     * with the remaining chefs as generalists.
+     * @param stations Validated stations (see Station.validate).
+     * @param numChefs NC.
+     * @param capacity Capacity of each shard.
+     * @param clock Clock used to time queueing.
+     * @param shardFactory Creates a shard from its capacity and number of chefs.
+     */
+    public StationRouter(List<Station> stations, int numChefs, int capacity, SimulationTime clock,
+                         BiFunction<Integer, Integer, BoundedBuffer> shardFactory) {
+        this.clock = clock;
+        int stationChefs = 0;
+        for (Station station : stations) {
+            stationChefs += station.getChefs();
+        }
+        int generalists = numChefs - stationChefs;
+        int shardCount = stations.size() + (generalists > 0 ? 1 : 0);
+        this.general = generalists > 0 ? stations.size() : -1;
+        this.names = new String[shardCount];
+        this.chefs = new int[shardCount];
+        this.overflow = new boolean[shardCount];
+        this.shards = new BoundedBuffer[shardCount];
+        this.waitingChefs = new AtomicInteger[shardCount];
+        this.orders = new LongAdder[shardCount];
+        this.overflowed = new LongAdder[shardCount];
+        this.maxQueue = new AtomicInteger[shardCount];
+        this.queueWait = new LatencyRecorder[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            Station station = i < stations.size() ? stations.get(i) : null;
+            names[i] = station != null ? station.getName() : GENERAL;
+            chefs[i] = station != null ? station.getChefs() : generalists;
+            overflow[i] = station != null && station.isOverflow();
+            shards[i] = shardFactory.apply(capacity, chefs[i]);
+            waitingChefs[i] = new AtomicInteger();
+            orders[i] = new LongAdder();
+            overflowed[i] = new LongAdder();
+            maxQueue[i] = new AtomicInteger();
+            queueWait[i] = new LatencyRecorder(names[i]);
+            if (station != null) {
+                for (String meal : station.getMeals()) {
+                    shardByMeal.put(meal, i);
+                }
+            }
+        }
+
+        this.chefShards = new int[numChefs];
+        this.chefSources = new Consumer[numChefs];
+        int chef = 0;
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int slot = 0; slot < chefs[shard]; slot++, chef++) {
+                chefShards[chef] = shard;
+                chefSources[chef] = shards[shard] instanceof WorkStealingBuffer
+                        ? ((WorkStealingBuffer) shards[shard]).forConsumer(slot)
+                        : shards[shard];
+            }
+        }
+    }
+
+    /**
+     * Returns the order source for a chef: their station's shard.
+     * Consuming through it, including batches taken with drainMatching, also records the station's queueing time.
+     * @param chefIndex Chef index, from 0 to NC - 1.
+     * @return The chef's Consumer.
+     */
+    public Consumer forChef(int chefIndex) {
+        int shard = chefShards[chefIndex];
+        Consumer source = chefSources[chefIndex];
+        return new Consumer() {
+            @Override
+            public BufElement consume() throws InterruptedException {
+                waitingChefs[shard].incrementAndGet();
+                BufElement item;
+                try {
+                    item = source.consume();
+                } finally {
+                    waitingChefs[shard].decrementAndGet();
+                }
+                recordQueueWait(shard, item);
+                return item;
+            }
+
+            @Override
+            public int drainMatching(Collection<? super BufElement> target, Predicate<? super BufElement> filter, int maxItems) {
+                List<BufElement> taken = new ArrayList<>(maxItems);
+                int count = source.drainMatching(taken, filter, maxItems);
+                for (BufElement item : taken) {
+                    recordQueueWait(shard, item);
+                }
+                target.addAll(taken);
+                return count;
+            }
+        };
+    }
+
+    // Records how long a consumed order waited in its shard
+    private void recordQueueWait(int shard, BufElement item) {
+        if (item instanceof OrderedMeal) {
+            queueWait[shard].record(clock.getTimeMillis() - ((OrderedMeal) item).getOrderTimeMillis());
+        }
+    }
+
+    /**
+     * Routes an order to its station's shard, or to the general shard if it has no station or overflows.
+     * @param item Must be an OrderedMeal.
+     * @throws InterruptedException If the thread is interrupted while the shard is full.
+     */
+    @Override
+    public void produce(BufElement item) throws InterruptedException {
+        if (!(item instanceof OrderedMeal)) {
+            throw new IllegalArgumentException("StationRouter can only route OrderedMeal objects.");
+        }
+        int shard = shardByMeal.getOrDefault(((OrderedMeal) item).getMealName(), general);
+        if (overflow[shard] && shouldOverflow(shard)) {
+            overflowed[shard].increment();
+            shard = general;
+        }
+        orders[shard].increment();
+        shards[shard].produce(item);
+        int queued = shards[shard].getCurrentSize();
+        if (queued > maxQueue[shard].get()) {
+            maxQueue[shard].accumulateAndGet(queued, Math::max);
+        }
+    }
+
+    @Override
+    public int getCurrentSize() {
+        int size = 0;
+        for (BoundedBuffer shard : shards) {
+            size += shard.getCurrentSize();
+        }
+        return size;
+    }
+
+    @Override
+    public int getCapacity() {
+        int capacity = 0;
+        for (BoundedBuffer shard : shards) {
+            capacity += shard.getCapacity();
+        }
+        return capacity;
+    }
+
+    /**
+     * Closes every shard.
+     */
+    @Override
+    public void close() {
+        for (BoundedBuffer shard : shards) {
+            shard.close();
+        }
+    }
+
+    @Override
+    public boolean isClosed() {
+        return shards[0].isClosed();
+    }
+
+    /**
+     * Prints orders, overflow, longest queue and queueing percentiles per station, in simulation minutes.
+     * @param out Stream to print to.
+     */
+    public void print(PrintStream out) {
+        out.println("\nStations (Queueing in Minutes):");
+        out.printf("%-16s %6s %8s %10s %9s %8s %8s %8s%n", "Station", "Chefs", "Orders", "Overflowed", "MaxQueue", "p50", "p99", "Max");
+        for (int i = 0; i < shards.length; i++) {
+            LatencyHistogram histogram = queueWait[i].snapshot();
+            out.printf("%-16s %6d %8d %10d %9d %8.2f %8.2f %8.2f%n", names[i], chefs[i], orders[i].sum(), overflowed[i].sum(),
+                    maxQueue[i].get(), histogram.getValueAtPercentile(50) / 60_000.0,
+                    histogram.getValueAtPercentile(99) / 60_000.0, histogram.getMax() / 60_000.0);
+        }
+        out.println("-----------------------------------------");
+    }
+
+    /**
+     * Adds the per-station statistics to a machine-readable report as "station.NAME.STATISTIC" keys,
+     * with queueing times in simulation milliseconds. The general shard is reported as "station.general".
+     * @param report Report to add to.
+     */
+    public void addTo(Properties report) {
+        for (int i = 0; i < shards.length; i++) {
+            LatencyHistogram histogram = queueWait[i].snapshot();
+            String prefix = "station." + (i == general ? "general" : names[i]) + ".";
+            report.setProperty(prefix + "chefs", Integer.toString(chefs[i]));
+            report.setProperty(prefix + "orders", Long.toString(orders[i].sum()));
+            report.setProperty(prefix + "overflowed", Long.toString(overflowed[i].sum()));
+            report.setProperty(prefix + "maxQueue", Integer.toString(maxQueue[i].get()));
+            report.setProperty(prefix + "queue.p50", Long.toString(histogram.getValueAtPercentile(50)));
+            report.setProperty(prefix + "queue.p99", Long.toString(histogram.getValueAtPercentile(99)));
+            report.setProperty(prefix + "queue.max", Long.toString(histogram.getMax()));
+        }
+    }
+
+    // Whether an order for the station should go to the generalists instead
+    private boolean shouldOverflow(int shard) {
+        if (waitingChefs[shard].get() > 0) {
+            return false; // A station chef is free
+        }
+        if (waitingChefs[general].get() > 0) {
+            return true; // A generalist is free
+        }
+        // Everyone is busy: join the shorter backlog per chef
+        return (long) shards[general].getCurrentSize() * chefs[shard] < (long) shards[shard].getCurrentSize() * chefs[general];
+    }
+}
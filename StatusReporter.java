@@ -0,0 +1,63 @@
+/**
+ * Daemon thread that prints RestaurantMetrics.formatStatus() through the EventLog at a fixed
+ * real-time interval, so saturation can be watched during long runs.
+ */
+public class StatusReporter implements Runnable {
+    private final RestaurantMetrics metrics;
+    private final SimulationTime clock;
+    private final EventLog log;
+    private final long intervalMillis;
+    private Thread thread;
+
+    /**
+     * @param metrics Metrics to report.
+     * @param clock Clock used to timestamp the status lines.
+     * @param log Where status lines are written; they are shown at every log level.
+     * @param intervalMillis Real time between status lines.
+     */
+    public StatusReporter(RestaurantMetrics metrics, SimulationTime clock, EventLog log, long intervalMillis) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Status interval must be positive");
+        }
+        this.metrics = metrics;
+        this.clock = clock;
+        this.log = log;
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Starts the reporter thread.
+     */
+    public synchronized void start() {
+        thread = new Thread(this, "StatusReporter");
+        thread.setDaemon(true); // Never keeps the JVM alive
+        thread.start();
+    }
+
+    /**
+     * Stops the reporter thread and waits for it to finish its current line.
+     */
+    public synchronized void stop() {
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(intervalMillis);
+                log.info(clock.getTimeMillis(), "Status: " + metrics.formatStatus());
+            }
+        } catch (InterruptedException e) {
+            // Stopped at the end of the simulation
+        }
+    }
+}
@@ -1,16 +1,17 @@
-import java.util.Vector;
-import java.util.Optional;
-
 /**
  * A specialized buffer to manage available restaurant tables.
  * Uses semaphores to control access to available tables.
  * Implements a custom consumeAt method to release a specific table.
+ * Free tables are kept on a stack of table IDs and tables are looked up directly by ID,
+ * so acquiring and releasing a table take constant time regardless of restaurant size.
  * [cite: 17, 66, 85, 86]
  */
 public class TableBuffer {
-    private final Vector<Table> tables; // Holds all table objects
+    private final Table[] tables; // All table objects, indexed by table ID - 1
+    private final int[] freeTableIds; // Stack of IDs of free tables
+    private int freeCount; // Number of entries on the freeTableIds stack
     private final Semaphore availableTablesSemaphore; // Counts available tables
-    private final Semaphore mutex; // For safe access to the tables vector if needed for specific operations beyond semaphore control
+    private final Semaphore mutex; // Guards the free-table stack
 
     /**
      * Creates a TableBuffer with a specified number of tables.
@@ -20,17 +21,20 @@ public class TableBuffer {
         if (numberOfTables <= 0) {
             throw new IllegalArgumentException("Number of tables must be positive");
         }
-        this.tables = new Vector<>(numberOfTables);
+        this.tables = new Table[numberOfTables];
+        this.freeTableIds = new int[numberOfTables];
         for (int i = 0; i < numberOfTables; i++) {
-            tables.add(new Table(i + 1)); // Table IDs start from 1
+            tables[i] = new Table(i + 1); // Table IDs start from 1
+            freeTableIds[i] = numberOfTables - i; // Pushed in reverse so Table 1 is handed out first
         }
+        this.freeCount = numberOfTables;
         this.availableTablesSemaphore = new Semaphore(numberOfTables); // All tables are initially available
-        this.mutex = new Semaphore(1); // For potential complex modifications, though acquire/release are primary sync
+        this.mutex = new Semaphore(1);
     }
 
     /**
      * Acquires an available table for a customer.
-     * Blocks if no tables are available. Finds the first available table.
+     * Blocks if no tables are available. Takes the most recently freed table.
      * @param customerId The ID of the customer who will occupy the table.
      * @return The Table object that was acquired.
      * @throws InterruptedException If the thread is interrupted while waiting.
@@ -39,13 +43,13 @@ public class TableBuffer {
         availableTablesSemaphore.acquire(); // Wait for a table to become available
 
         Table acquiredTable = null;
-        mutex.acquire(); // Lock to safely find and mark a table as occupied
+        mutex.acquire(); // Lock to safely pop a free table
         try {
-            // Find the first non-occupied table (should always find one due to semaphore)
-            for (Table table : tables) {
-                if (table.occupy(customerId)) { // Try to occupy
+            // The semaphore guarantees the stack is non-empty
+            if (freeCount > 0) {
+                Table table = tables[freeTableIds[--freeCount] - 1];
+                if (table.occupy(customerId)) {
                     acquiredTable = table;
-                    break;
                 }
             }
             if (acquiredTable == null) {
@@ -69,31 +73,30 @@ public class TableBuffer {
      * @return true if the table was found and released, false otherwise.
      */
     public boolean releaseTable(int tableId) throws InterruptedException {
-        Table tableToRelease = null;
-        mutex.acquire(); // Lock to safely find and update the table state
+        if (tableId < 1 || tableId > tables.length) {
+            System.err.println("Error: Attempted to release non-existent Table ID " + tableId);
+            return false; // Table ID not found
+        }
+        Table table = tables[tableId - 1];
+        boolean released = false;
+        mutex.acquire(); // Lock to safely update the table state and push it back
         try {
-            for(Table table : tables) {
-                if(table.getTableId() == tableId) {
-                    if (table.isOccupied()) { // Check if it was actually occupied
-                        table.free(); // Mark as free
-                        tableToRelease = table;
-                    } else {
-                        // Log warning: Trying to release a table that wasn't occupied
-                        System.err.println("Warning: Attempted to release Table " + tableId + " which was not occupied.");
-                    }
-                    break;
-                }
+            if (table.isOccupied()) { // Check if it was actually occupied
+                table.free(); // Mark as free
+                freeTableIds[freeCount++] = tableId;
+                released = true;
             }
         } finally {
             mutex.release(); // Ensure mutex is released
         }
 
-        if (tableToRelease != null) {
+        if (released) {
             availableTablesSemaphore.release(); // Signal that a table is now available
             return true;
         } else {
-            System.err.println("Error: Attempted to release non-existent Table ID " + tableId);
-            return false; // Table ID not found
+            // Log warning: Trying to release a table that wasn't occupied
+            System.err.println("Warning: Attempted to release Table " + tableId + " which was not occupied.");
+            return false;
         }
     }
 
@@ -102,6 +105,14 @@ public class TableBuffer {
      * @return The number of tables.
      */
     public int getTotalTables() {
-        return tables.size();
+        return tables.length;
+    }
+
+    /**
+     * Gets the number of tables currently free.
+     * @return The number of free tables.
+     */
+    public int getFreeTables() {
+        return availableTablesSemaphore.availablePermits();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,299 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming reader for the text configuration format.
+ * [cite: 27, 28, 29, 30, 31]
+ * The NC/NW/NT line, the meal prep times line and any station and batch lines that follow it
+ * (Station=Grill Meals=Burger,Steak Chefs=1 Overflow=yes, Batch=Burger Size=5 Extra=1) are read when the source is opened;
+ * customer lines are parsed one at a time as the simulation asks for them, so memory
+ * use does not grow with the length of the file.
+ */
+public class TextConfigSource implements ConfigSource {
+    private final BufferedReader reader;
+    private final KeyValueScanner scanner = new KeyValueScanner();
+    private int numChefs;
+    private int numWaiters;
+    private int numTables;
+    private final Map<String, Integer> mealPrepTimes = new LinkedHashMap<>(); // Keeps declaration order
+    private String[] mealNames; // Canonical meal name instances, so customers share them
+    private final List<Station> stations = new ArrayList<>();
+    private final List<BatchRule> batchRules = new ArrayList<>();
+    private String pendingLine; // First customer line, read while looking for station and batch lines
+
+    /**
+     * Opens a configuration file and reads its header lines.
+     * @param filename Path to the configuration file.
+     * @throws IOException If there's an error reading the file.
+     * @throws IllegalArgumentException If the header format is invalid.
+     */
+    public TextConfigSource(String filename) throws IOException, IllegalArgumentException {
+        this.reader = new BufferedReader(new FileReader(filename));
+        try {
+            // 1. Read NC, NW, NT line
+            String line = reader.readLine();
+            if (line == null) throw new IllegalArgumentException("Missing NC, NW, NT line.");
+            parseCounts(line);
+
+            // 2. Read meal prep times line
+            line = reader.readLine();
+            if (line == null) throw new IllegalArgumentException("Missing meal prep times line.");
+            parsePrepTimes(line);
+
+            // 3. Read optional station and batch lines, up to the first customer line
+            while ((line = reader.readLine()) != null) {
+                scanner.reset(line);
+                if (scanner.isBlankOrComment()) {
+                    continue;
+                }
+                if (isHeaderLine(line, "Station")) {
+                    stations.add(parseStation(line));
+                } else if (isHeaderLine(line, "Batch")) {
+                    batchRules.add(parseBatchRule(line));
+                } else {
+                    pendingLine = line;
+                    break;
+                }
+            }
+            Station.validate(stations, mealPrepTimes, numChefs);
+            BatchRule.validate(batchRules, mealPrepTimes);
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int getNumChefs() {
+        return numChefs;
+    }
+
+    @Override
+    public int getNumWaiters() {
+        return numWaiters;
+    }
+
+    @Override
+    public int getNumTables() {
+        return numTables;
+    }
+
+    @Override
+    public Map<String, Integer> getMealPrepTimes() {
+        return Collections.unmodifiableMap(mealPrepTimes);
+    }
+
+    @Override
+    public List<Station> getStations() {
+        return Collections.unmodifiableList(stations);
+    }
+
+    @Override
+    public List<BatchRule> getBatchRules() {
+        return Collections.unmodifiableList(batchRules);
+    }
+
+    /**
+     * Reads and parses the next customer line, skipping blank lines and comments.
+     * @return The next Customer, or null at end of file.
+     * @throws IOException If there's an error reading the file.
+     * @throws IllegalArgumentException If the customer line is invalid.
+     */
+    @Override
+    public Customer next() throws IOException {
+        if (pendingLine != null) {
+            String line = pendingLine;
+            pendingLine = null;
+            return parseCustomer(line);
+        }
+        String line;
+        while ((line = reader.readLine()) != null) {
+            scanner.reset(line);
+            if (!scanner.isBlankOrComment()) { // Ignore empty lines and comments
+                return parseCustomer(line);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // Helper to parse NC=X NW=Y NT=Z
+    private void parseCounts(String line) throws IllegalArgumentException {
+        try {
+            scanner.reset(line);
+            while (scanner.next()) {
+                if (scanner.keyIs("NC")) numChefs = scanner.valueAsInt();
+                else if (scanner.keyIs("NW")) numWaiters = scanner.valueAsInt();
+                else if (scanner.keyIs("NT")) numTables = scanner.valueAsInt();
+            }
+            if (numChefs <= 0 || numWaiters <= 0 || numTables <= 0) {
+                throw new IllegalArgumentException("NC, NW, and NT must be positive integers.");
+            }
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid format for NC, NW, NT line: '" + line + "'. Expected 'NC=X NW=Y NT=Z'. " + e.getMessage(), e);
+        }
+    }
+
+    // Helper to parse Meal=HH:MM or Meal=MM ...
+    private void parsePrepTimes(String line) throws IllegalArgumentException {
+        try {
+            scanner.reset(line);
+            while (scanner.next()) {
+                mealPrepTimes.put(scanner.key(), scanner.valueAsMinutes());
+            }
+            if (mealPrepTimes.isEmpty()) {
+                throw new IllegalArgumentException("No meal preparation times found.");
+            }
+            mealNames = mealPrepTimes.keySet().toArray(new String[0]);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid format for meal prep times line: '" + line + "'. " + e.getMessage(), e);
+        }
+    }
+
+    // Whether the line's first key is the given one
+    private boolean isHeaderLine(String line, String key) {
+        try {
+            scanner.reset(line);
+            return scanner.next() && scanner.keyIs(key);
+        } catch (IllegalArgumentException e) {
+            return false; // Not a pair at all; reported by parseCustomer
+        }
+    }
+
+    // Helper to parse Station=Name Meals=A,B Chefs=N [Overflow=yes|no]
+    private Station parseStation(String line) throws IllegalArgumentException {
+        try {
+            String name = null;
+            List<String> meals = new ArrayList<>();
+            int chefs = -1;
+            boolean overflow = false;
+            scanner.reset(line);
+            while (scanner.next()) {
+                if (scanner.keyIs("Station")) {
+                    name = scanner.value().trim();
+                } else if (scanner.keyIs("Meals")) {
+                    for (String meal : scanner.value().split(",")) {
+                        meals.add(canonicalMeal(meal.trim()));
+                    }
+                } else if (scanner.keyIs("Chefs")) {
+                    chefs = scanner.valueAsInt();
+                } else if (scanner.keyIs("Overflow")) {
+                    if (scanner.valueIs("yes")) overflow = true;
+                    else if (scanner.valueIs("no")) overflow = false;
+                    else throw new IllegalArgumentException("Overflow must be 'yes' or 'no'.");
+                }
+            }
+            if (name == null || name.isEmpty()) {
+                throw new IllegalArgumentException("Missing station name.");
+            }
+            if (chefs < 0) {
+                throw new IllegalArgumentException("Missing Chefs for station " + name + ".");
+            }
+            return new Station(name, meals, chefs, overflow);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid format for station line: '" + line + "'. " + e.getMessage(), e);
+        }
+    }
+
+    // Helper to parse Batch=Meal Size=N [Extra=MM]
+    private BatchRule parseBatchRule(String line) throws IllegalArgumentException {
+        try {
+            String meal = null;
+            int size = -1;
+            int extraMinutes = 0;
+            scanner.reset(line);
+            while (scanner.next()) {
+                if (scanner.keyIs("Batch")) {
+                    meal = canonicalMeal(scanner.value().trim());
+                } else if (scanner.keyIs("Size")) {
+                    size = scanner.valueAsInt();
+                } else if (scanner.keyIs("Extra")) {
+                    extraMinutes = scanner.valueAsMinutes();
+                }
+            }
+            if (meal == null || meal.isEmpty()) {
+                throw new IllegalArgumentException("Missing batch meal.");
+            }
+            if (size < 0) {
+                throw new IllegalArgumentException("Missing Size for batch " + meal + ".");
+            }
+            return new BatchRule(meal, size, extraMinutes);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid format for batch line: '" + line + "'. " + e.getMessage(), e);
+        }
+    }
+
+    // Returns the menu's instance of a meal name, or the name itself if it is not on the menu
+    private String canonicalMeal(String meal) {
+        for (String mealName : mealNames) {
+            if (mealName.equals(meal)) {
+                return mealName;
+            }
+        }
+        return meal;
+    }
+
+    // Helper to parse CustomerID=X ArrivalTime=HH:MM Order=Meal
+    private Customer parseCustomer(String line) throws IllegalArgumentException {
+        try {
+            int id = -1;
+            int arrivalClockMinutes = -1; // Minutes since 00:00
+            String order = null;
+            String unknownOrder = null; // Only materialized for the error message
+            scanner.reset(line);
+            while (scanner.next()) {
+                if (scanner.keyIs("CustomerID")) {
+                    id = scanner.valueAsInt();
+                } else if (scanner.keyIs("ArrivalTime")) {
+                    arrivalClockMinutes = scanner.valueAsMinutes(); // HH:MM
+                } else if (scanner.keyIs("Order")) {
+                    order = findMeal();
+                    unknownOrder = order == null ? scanner.value() : null;
+                }
+            }
+
+            if (id < 0) {
+                throw new IllegalArgumentException("Missing CustomerID.");
+            }
+            if (arrivalClockMinutes < 0 || (order == null && unknownOrder == null)) {
+                throw new IllegalArgumentException("Missing ArrivalTime or Order for CustomerID " + id);
+            }
+            // Check if the ordered meal exists in the prep times
+            if (order == null) {
+                throw new IllegalArgumentException("Customer " + id + " ordered unknown meal '" + unknownOrder + "'.");
+            }
+
+            // Calculate minutes relative to 8:00 AM (time 0)
+            int arrivalTimeMinutes = arrivalClockMinutes - 8 * 60;
+            if (arrivalTimeMinutes < 0) {
+                System.out.println("Warning: Customer " + id + " arrival time is before 08:00. Treating as arrival at 08:00 (minute 0).");
+                arrivalTimeMinutes = 0;
+            }
+
+            return new Customer(id, arrivalTimeMinutes, order);
+
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid format for customer line: '" + line + "'. " + e.getMessage(), e);
+        }
+    }
+
+    // Returns the canonical name of the meal in the current value, or null if it is not on the menu
+    private String findMeal() {
+        for (String mealName : mealNames) {
+            if (scanner.valueIs(mealName)) {
+                return mealName;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,17 @@
+/**
+ * Source of monotonic time for the SimulationClock.
+ * Separating it from the clock lets tests and tools drive time explicitly.
+ */
+public interface TimeSource {
+    /**
+     * The JVM's monotonic high-resolution timer. Unaffected by wall-clock adjustments.
+     */
+    TimeSource SYSTEM = System::nanoTime;
+
+    /**
+     * Returns the current value of a monotonic timer.
+     * Only differences between two readings are meaningful.
+     * @return Current time in nanoseconds.
+     */
+    long nanoTime();
+}
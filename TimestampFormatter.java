@@ -0,0 +1,59 @@
+/**
+ * Thread-safe HH:mm:ss formatter for simulation timestamps.
+ * Events arrive in bursts within the same simulated second, so the formatted text for the
+ * most recent second is cached in an immutable holder; formatting a time in that second
+ * returns the cached String without allocating. Replaces the shared SimpleDateFormat,
+ * which is not safe to use from several threads.
+ */
+public final class TimestampFormatter {
+    private volatile CachedSecond cached = new CachedSecond(Long.MIN_VALUE, "");
+
+    /**
+     * Formats a simulation time as HH:mm:ss (UTC, relative to 00:00). [cite: 34]
+     * @param timeMillis Time in milliseconds since the conceptual epoch (00:00).
+     * @return The formatted time.
+     */
+    public String format(long timeMillis) {
+        long second = Math.floorDiv(timeMillis, 1000);
+        CachedSecond current = cached;
+        if (current.second == second) {
+            return current.text;
+        }
+        String text = render(second);
+        cached = new CachedSecond(second, text);
+        return text;
+    }
+
+    /**
+     * Appends the formatted time to a builder.
+     * @param target The builder to append to.
+     * @param timeMillis Time in milliseconds since the conceptual epoch (00:00).
+     * @return The target builder.
+     */
+    public StringBuilder appendTo(StringBuilder target, long timeMillis) {
+        return target.append(format(timeMillis));
+    }
+
+    private static String render(long second) {
+        int secondOfDay = (int) Math.floorMod(second, 24L * 60 * 60);
+        int hours = secondOfDay / 3600;
+        int minutes = (secondOfDay / 60) % 60;
+        int seconds = secondOfDay % 60;
+        char[] text = {
+                (char) ('0' + hours / 10), (char) ('0' + hours % 10), ':',
+                (char) ('0' + minutes / 10), (char) ('0' + minutes % 10), ':',
+                (char) ('0' + seconds / 10), (char) ('0' + seconds % 10)
+        };
+        return new String(text);
+    }
+
+    private static final class CachedSecond {
+        private final long second;
+        private final String text;
+
+        CachedSecond(long second, String text) {
+            this.second = second;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed hierarchical timing wheel, driven by one ticker thread, for large numbers of timed callbacks.
+ * Time is cut into ticks; the first level has a slot per tick for the next 256 ticks, and each higher
+ * level has 64 slots, each covering a whole turn of the level below. A timeout is linked into the slot
+ * of the lowest level that reaches its deadline and moves down a level each time the level below wraps
+ * around, as in the kernel's timer wheel. Scheduling and cancelling are O(1): callers only enqueue the
+ * request and the ticker links or unlinks it, so no lock is shared with the ticker.
+ * Due callbacks are handed to the dispatcher executor, never run on the ticker itself.
+ * While no timeout is pending the ticker parks until the next one is scheduled.
+ */
+public class TimingWheel {
+    /** Default tick: one real millisecond. */
+    public static final long DEFAULT_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final int LEVEL0_BITS = 8;
+    private static final int LEVEL_BITS = 6;
+    private static final int LEVELS = 4; // 2^(8 + 3 * 6) ticks: about 18.6 hours with 1 ms ticks
+    private static final long MAX_DELTA = 1L << (LEVEL0_BITS + (LEVELS - 1) * LEVEL_BITS);
+
+    private static final int WAITING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final long tickNanos;
+    private final long startNanos;
+    private final Executor dispatcher;
+    private final Timeout[][] slots; // [level][slot] -> sentinel of a circular doubly linked list
+    private final ConcurrentLinkedQueue<Timeout> scheduled = new ConcurrentLinkedQueue<>(); // Not yet linked in
+    private final ConcurrentLinkedQueue<Timeout> cancelled = new ConcurrentLinkedQueue<>(); // To unlink
+    private final Thread ticker;
+    private volatile boolean running = true;
+    private volatile boolean idle = false; // Ticker is parked with an empty wheel
+
+    // Only touched by the ticker thread
+    private long currentTick = 0; // Next tick to process
+    private int linked = 0; // Timeouts currently linked into a slot
+
+    /**
+     * Creates a wheel and starts its ticker thread.
+     * The thread is started here rather than in the constructor so it never sees a partly built wheel.
+     * @param tickNanos Length of a tick; callbacks run at most about one tick late.
+     * @param dispatcher Runs the callbacks.
+     * @param name Name of the ticker thread.
+     * @return The running wheel.
+     */
+    public static TimingWheel start(long tickNanos, Executor dispatcher, String name) {
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        TimingWheel wheel = new TimingWheel(tickNanos, dispatcher, name);
+        wheel.ticker.start();
+        return wheel;
+    }
+
+    private TimingWheel(long tickNanos, Executor dispatcher, String name) {
+        this.tickNanos = tickNanos;
+        this.dispatcher = dispatcher;
+        this.slots = new Timeout[LEVELS][];
+        for (int level = 0; level < LEVELS; level++) {
+            slots[level] = new Timeout[level == 0 ? 1 << LEVEL0_BITS : 1 << LEVEL_BITS];
+            for (int slot = 0; slot < slots[level].length; slot++) {
+                Timeout sentinel = new Timeout(null, 0);
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                slots[level][slot] = sentinel;
+            }
+        }
+        this.startNanos = System.nanoTime();
+        this.ticker = new Thread(this::runTicker, name);
+        this.ticker.setDaemon(true);
+    }
+
+    /**
+     * Schedules a callback.
+     * @param task The callback, run on the dispatcher.
+     * @param delay Time from now until it is due; zero or negative hands it to the dispatcher straight away.
+     * @param unit Unit of the delay.
+     * @return A handle that can cancel the callback.
+     * @throws RejectedExecutionException If the wheel has been shut down.
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new RejectedExecutionException("Timing wheel is shut down");
+        }
+        long delayNanos = unit.toNanos(delay);
+        if (delayNanos <= 0) {
+            // Already due: waiting for the next tick would only delay it, and serialize bursts one per tick
+            Timeout timeout = new Timeout(task, 0);
+            timeout.state.set(EXPIRED);
+            dispatcher.execute(task);
+            return timeout;
+        }
+        long deadlineTick = (System.nanoTime() + delayNanos - startNanos + tickNanos - 1) / tickNanos; // Round up: never run early
+        Timeout timeout = new Timeout(task, deadlineTick);
+        scheduled.add(timeout);
+        if (idle) {
+            LockSupport.unpark(ticker);
+        }
+        return timeout;
+    }
+
+    /**
+     * Stops the ticker. Callbacks not yet due are dropped; callbacks already handed to the dispatcher still run.
+     */
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(ticker);
+        try {
+            ticker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runTicker() {
+        while (running) {
+            if (linked == 0 && scheduled.isEmpty()) {
+                // Nothing to wait for: park until schedule() wakes us, then skip the empty ticks
+                idle = true;
+                if (scheduled.isEmpty() && running) {
+                    LockSupport.park(this);
+                }
+                idle = false;
+                currentTick = Math.max(currentTick, (System.nanoTime() - startNanos) / tickNanos);
+                continue;
+            }
+            unlinkCancelled();
+            linkScheduled();
+            long nowTick = (System.nanoTime() - startNanos) / tickNanos;
+            while (currentTick <= nowTick && running) {
+                processTick();
+            }
+            long sleepNanos = startNanos + currentTick * tickNanos - System.nanoTime();
+            if (sleepNanos > 0) {
+                LockSupport.parkNanos(this, sleepNanos);
+            }
+        }
+    }
+
+    // Cascades the higher levels if the first level has wrapped, then expires the current slot
+    private void processTick() {
+        if ((currentTick & mask(0)) == 0) {
+            for (int level = 1; level < LEVELS; level++) {
+                int index = slotIndex(level, currentTick);
+                Timeout sentinel = slots[level][index];
+                Timeout timeout = sentinel.next;
+                while (timeout != sentinel) {
+                    Timeout next = timeout.next;
+                    unlink(timeout);
+                    link(timeout);
+                    timeout = next;
+                }
+                if (index != 0) {
+                    break; // Only cascade the next level when this one has wrapped too
+                }
+            }
+        }
+        Timeout sentinel = slots[0][slotIndex(0, currentTick)];
+        Timeout timeout = sentinel.next;
+        while (timeout != sentinel) {
+            Timeout next = timeout.next;
+            unlink(timeout);
+            if (timeout.deadlineTick > currentTick) {
+                link(timeout); // Clamped beyond the top level's reach; not due yet
+            } else if (timeout.state.compareAndSet(WAITING, EXPIRED)) {
+                try {
+                    dispatcher.execute(timeout.task);
+                } catch (RejectedExecutionException e) {
+                    // Dispatcher is shutting down; the callback is dropped with the rest of the simulation
+                }
+            }
+            timeout = next;
+        }
+        currentTick++;
+    }
+
+    private void linkScheduled() {
+        Timeout timeout;
+        while ((timeout = scheduled.poll()) != null) {
+            if (timeout.state.get() == WAITING) {
+                link(timeout);
+            }
+        }
+    }
+
+    private void unlinkCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.prev != null) {
+                unlink(timeout);
+            }
+        }
+    }
+
+    // Links a timeout into the slot of the lowest level that reaches its deadline
+    private void link(Timeout timeout) {
+        long deadline = Math.max(timeout.deadlineTick, currentTick); // Overdue: run on this tick
+        long delta = deadline - currentTick;
+        if (delta >= MAX_DELTA) {
+            deadline = currentTick + MAX_DELTA - 1; // Park in the top level's last slot and look again when it cascades
+            delta = MAX_DELTA - 1;
+        }
+        int level = 0;
+        while (delta >= 1L << (LEVEL0_BITS + level * LEVEL_BITS)) {
+            level++;
+        }
+        Timeout sentinel = slots[level][slotIndex(level, deadline)];
+        timeout.prev = sentinel.prev;
+        timeout.next = sentinel;
+        sentinel.prev.next = timeout;
+        sentinel.prev = timeout;
+        linked++;
+    }
+
+    private void unlink(Timeout timeout) {
+        timeout.prev.next = timeout.next;
+        timeout.next.prev = timeout.prev;
+        timeout.prev = null;
+        timeout.next = null;
+        linked--;
+    }
+
+    private static int slotIndex(int level, long tick) {
+        int shift = level == 0 ? 0 : LEVEL0_BITS + (level - 1) * LEVEL_BITS;
+        return (int) ((tick >>> shift) & mask(level));
+    }
+
+    private static long mask(int level) {
+        return (1L << (level == 0 ? LEVEL0_BITS : LEVEL_BITS)) - 1;
+    }
+
+    /** A scheduled callback. */
+    public final class Timeout {
+        private final Runnable task;
+        private final long deadlineTick;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private Timeout prev; // Slot list links, only touched by the ticker; null while not linked
+        private Timeout next;
+
+        private Timeout(Runnable task, long deadlineTick) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        /**
+         * Cancels the callback if it has not been handed to the dispatcher yet.
+         * @return true if it was cancelled, false if it already ran or was cancelled before.
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(WAITING, CANCELLED)) {
+                return false;
+            }
+            cancelled.add(this); // The ticker unlinks it
+            if (idle) {
+                LockSupport.unpark(ticker);
+            }
+            return true;
+        }
+    }
+}
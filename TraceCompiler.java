@@ -0,0 +1,47 @@
+import java.io.IOException;
+
+/**
+ * Compiles a text configuration file into the binary customer trace format (see CustomerTrace),
+ * so repeated simulations of the same workload skip text parsing entirely.
+ * Usage: java TraceCompiler <input_config_file> <output_trace_file>
+ */
+public class TraceCompiler {
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: java TraceCompiler <input_config_file> <output_trace_file>");
+            System.exit(1);
+        }
+        try {
+            long count = compile(args[0], args[1]);
+            System.out.println("Compiled " + count + " customers into " + args[1] + ".");
+        } catch (IOException e) {
+            System.err.println("Error compiling '" + args[0] + "': " + e.getMessage());
+            System.exit(1);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error in configuration file format: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Converts a text configuration into a binary trace.
+     * @param configFile Path of the text configuration to read.
+     * @param traceFile Path of the trace to write; overwritten if it exists, and removed if compiling fails.
+     * @return The number of customers written.
+     * @throws IOException If either file cannot be accessed.
+     * @throws IllegalArgumentException If the configuration is invalid.
+     */
+    public static long compile(String configFile, String traceFile) throws IOException, IllegalArgumentException {
+        try (TextConfigSource source = new TextConfigSource(configFile);
+             CustomerTraceWriter out = new CustomerTraceWriter(traceFile, source.getNumChefs(), source.getNumWaiters(),
+                     source.getNumTables(), source.getMealPrepTimes(), source.getStations(), source.getBatchRules())) {
+            Customer customer;
+            while ((customer = source.next()) != null) {
+                out.write(customer.getCustomerId(), customer.getArrivalTimeMinutes(), customer.getOrderMealName());
+            }
+            out.finish();
+            return out.getCount();
+        }
+    }
+}
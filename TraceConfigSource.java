@@ -0,0 +1,183 @@
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a binary customer trace (see CustomerTrace) through a memory-mapped FileChannel.
+ * The header is decoded when the source is opened; customer records are decoded straight
+ * from the mapping on demand, so there is no text parsing and the OS pages the file in lazily.
+ * Large traces are mapped in windows so files beyond the 2 GB mapping limit work too.
+ */
+public class TraceConfigSource implements ConfigSource {
+    private static final long WINDOW_RECORDS = (1L << 30) / CustomerTrace.RECORD_SIZE; // ~1 GB per mapping
+
+    private final FileChannel channel;
+    private final int numChefs;
+    private final int numWaiters;
+    private final int numTables;
+    private final Map<String, Integer> mealPrepTimes = new LinkedHashMap<>();
+    private final String[] mealNames; // Indexed by meal index; shared by all customers
+    private final List<Station> stations = new ArrayList<>();
+    private final List<BatchRule> batchRules = new ArrayList<>();
+    private final long recordsOffset;
+    private final long customerCount;
+    private long nextRecord = 0;
+    private MappedByteBuffer window; // Mapping that holds nextRecord
+    private long windowEndRecord = 0;
+
+    /**
+     * Opens and maps a trace file and decodes its header.
+     * @param filename Path to the trace file.
+     * @throws IOException If the file cannot be read.
+     * @throws IllegalArgumentException If the file is not a valid trace.
+     */
+    public TraceConfigSource(String filename) throws IOException, IllegalArgumentException {
+        this.channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ);
+        try {
+            // Header is small; map just enough of the start of the file to decode it
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), 1 << 20));
+            if (header.remaining() < 24 || header.getInt() != CustomerTrace.MAGIC) {
+                throw new IllegalArgumentException("Not a customer trace file.");
+            }
+            int version = header.getInt();
+            if (version < 1 || version > CustomerTrace.VERSION) {
+                throw new IllegalArgumentException("Unsupported trace version " + version + ".");
+            }
+            numChefs = header.getInt();
+            numWaiters = header.getInt();
+            numTables = header.getInt();
+            if (numChefs <= 0 || numWaiters <= 0 || numTables <= 0) {
+                throw new IllegalArgumentException("NC, NW, and NT must be positive integers.");
+            }
+            int mealCount = header.getInt();
+            if (mealCount <= 0) {
+                throw new IllegalArgumentException("No meal preparation times found.");
+            }
+            mealNames = new String[mealCount];
+            for (int i = 0; i < mealCount; i++) {
+                byte[] name = new byte[header.getShort()];
+                header.get(name);
+                mealNames[i] = new String(name, StandardCharsets.UTF_8);
+                mealPrepTimes.put(mealNames[i], header.getInt());
+            }
+            int stationCount = version >= 2 ? header.getInt() : 0; // Version 1 has no station table
+            for (int i = 0; i < stationCount; i++) {
+                byte[] name = new byte[header.getShort()];
+                header.get(name);
+                int chefs = header.getInt();
+                boolean overflow = header.get() != 0;
+                List<String> meals = new ArrayList<>();
+                int stationMeals = header.getShort();
+                for (int j = 0; j < stationMeals; j++) {
+                    int mealIndex = header.getShort();
+                    if (mealIndex < 0 || mealIndex >= mealCount) {
+                        throw new IllegalArgumentException("Station meal index " + mealIndex + " is not on the menu.");
+                    }
+                    meals.add(mealNames[mealIndex]);
+                }
+                stations.add(new Station(new String(name, StandardCharsets.UTF_8), meals, chefs, overflow));
+            }
+            Station.validate(stations, mealPrepTimes, numChefs);
+            int batchCount = version >= 3 ? header.getInt() : 0; // Versions 1 and 2 have no batch table
+            for (int i = 0; i < batchCount; i++) {
+                int mealIndex = header.getShort();
+                if (mealIndex < 0 || mealIndex >= mealCount) {
+                    throw new IllegalArgumentException("Batch meal index " + mealIndex + " is not on the menu.");
+                }
+                batchRules.add(new BatchRule(mealNames[mealIndex], header.getInt(), header.getInt()));
+            }
+            BatchRule.validate(batchRules, mealPrepTimes);
+            customerCount = header.getLong();
+            recordsOffset = header.position();
+            if (recordsOffset + customerCount * CustomerTrace.RECORD_SIZE > channel.size()) {
+                throw new IllegalArgumentException("Trace is truncated: expected " + customerCount + " customers.");
+            }
+        } catch (BufferUnderflowException e) {
+            channel.close();
+            throw new IllegalArgumentException("Trace header is truncated.", e);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int getNumChefs() {
+        return numChefs;
+    }
+
+    @Override
+    public int getNumWaiters() {
+        return numWaiters;
+    }
+
+    @Override
+    public int getNumTables() {
+        return numTables;
+    }
+
+    @Override
+    public Map<String, Integer> getMealPrepTimes() {
+        return Collections.unmodifiableMap(mealPrepTimes);
+    }
+
+    @Override
+    public List<Station> getStations() {
+        return Collections.unmodifiableList(stations);
+    }
+
+    @Override
+    public List<BatchRule> getBatchRules() {
+        return Collections.unmodifiableList(batchRules);
+    }
+
+    /**
+     * Gets the number of customers in the trace.
+     * @return The customer count from the header.
+     */
+    public long getCustomerCount() {
+        return customerCount;
+    }
+
+    /**
+     * Decodes the next customer record.
+     * @return The next Customer, or null after the last record.
+     * @throws IOException If the next window of the file cannot be mapped.
+     * @throws IllegalArgumentException If the record refers to an unknown meal.
+     */
+    @Override
+    public Customer next() throws IOException {
+        if (nextRecord >= customerCount) {
+            return null;
+        }
+        if (nextRecord >= windowEndRecord) {
+            long records = Math.min(WINDOW_RECORDS, customerCount - nextRecord);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, recordsOffset + nextRecord * CustomerTrace.RECORD_SIZE,
+                    records * CustomerTrace.RECORD_SIZE);
+            windowEndRecord = nextRecord + records;
+        }
+        nextRecord++;
+        int id = window.getInt();
+        int arrivalMinute = window.getInt();
+        int mealIndex = window.getShort();
+        if (mealIndex < 0 || mealIndex >= mealNames.length) {
+            throw new IllegalArgumentException("Customer " + id + " refers to unknown meal index " + mealIndex + ".");
+        }
+        return new Customer(id, arrivalMinute, mealNames[mealIndex]);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,42 @@
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulation time that does not follow the wall clock.
+ * Time only moves when the discrete-event scheduler advances it to the next event. It is not a
+ * SimulationClock, so nothing can sleep on it; schedule an event with the EventScheduler instead.
+ */
+public class VirtualClock implements SimulationTime {
+    private final long startNanos = System.nanoTime(); // Real time the run started, for reporting only
+    private final TimestampFormatter timeFormat = new TimestampFormatter();
+    private long currentTimeMillis = START_OF_DAY_MILLIS; // Simulation time since the conceptual epoch (00:00)
+
+    /**
+     * Advances the clock to the given simulation time.
+     * @param timeMillis Target time in milliseconds since the conceptual epoch (00:00).
+     * @throws IllegalArgumentException If the target lies in the past.
+     */
+    public synchronized void advanceTo(long timeMillis) {
+        if (timeMillis < currentTimeMillis) {
+            throw new IllegalArgumentException("Cannot move virtual clock backwards to " + timeMillis);
+        }
+        this.currentTimeMillis = timeMillis;
+    }
+
+    @Override
+    public synchronized long getTimeMillis() {
+        return currentTimeMillis;
+    }
+
+    @Override
+    public String getFormattedTime() {
+        return timeFormat.format(getTimeMillis());
+    }
+
+    /**
+     * Gets the real time spent since the clock was created, e.g. to report how long a run took.
+     * @return Elapsed time in milliseconds.
+     */
+    public long getElapsedRealTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
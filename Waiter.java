@@ -1,71 +1,117 @@
-import java.util.Random;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
 
 
 /**
  * Represents a Waiter who consumes cooked meals and serves them to customers.
- * Also responsible for clearing the table after the customer leaves.
+ * By default the waiter goes straight back to the bench after serving, and a timer releases the table
+ * when the customer finishes eating. Without a timer the waiter stays until the customers served on the
+ * trip have left and clears their tables, as in the original model.
  * Implements Runnable and Consumer (for cooked meals).
  * [cite: 16, 82, 83, 84]
  */
 public class Waiter implements Runnable, Consumer {
     private final int waiterId;
-    private final Buffer cookedMealsBuf; // Consume cooked meals from here [cite: 83]
+    private final BoundedBuffer cookedMealsBuf; // Consume cooked meals from here [cite: 83]
     private final TableBuffer tableBuffer;   // Interact with tables (release) [cite: 84]
     private final SimulationClock clock;
-    private final Random random = new Random(); // For simulating eating time [cite: 25]
-    private final AtomicInteger customersServedCounter; // To track total served customers
+    private final SplittableRandom random; // For simulating eating time; seeded so a run can be repeated [cite: 25]
+    private final CustomerTracker customers; // Told when each customer leaves
+    private final TimingWheel eatingTimer; // Releases tables when customers finish eating; null if the waiter waits
+    private final LatencyStats stats; // Per-stage latency histograms
+    private final RestaurantMetrics metrics; // Live busy/idle and throughput counters
+    private final EventLog log;
+    private final EventRecorder recorder; // Structured lifecycle events
+    private final String name; // "Waiter <id>", prefix of every log record
 
+    /** Most plates a waiter picks up from the bench in one trip. */
+    public static final int MAX_PLATES_PER_TRIP = 3;
 
-    public Waiter(int waiterId, Buffer cookedMealsBuf, TableBuffer tableBuffer, SimulationClock clock, AtomicInteger customersServedCounter) {
+
+    public Waiter(int waiterId, BoundedBuffer cookedMealsBuf, TableBuffer tableBuffer, SimulationClock clock, CustomerTracker customers,
+                  TimingWheel eatingTimer, long seed, LatencyStats stats, RestaurantMetrics metrics, EventLog log, EventRecorder recorder) {
         this.waiterId = waiterId;
         this.cookedMealsBuf = cookedMealsBuf;
         this.tableBuffer = tableBuffer;
         this.clock = clock;
-        this.customersServedCounter = customersServedCounter;
+        this.customers = customers;
+        this.eatingTimer = eatingTimer;
+        this.random = new SplittableRandom(seed);
+        this.stats = stats;
+        this.metrics = metrics;
+        this.log = log;
+        this.recorder = recorder;
+        this.name = "Waiter " + waiterId;
     }
 
     @Override
     public void run() {
         try {
+            List<BufElement> tray = new ArrayList<>(MAX_PLATES_PER_TRIP);
+            List<Seating> seatings = new ArrayList<>(MAX_PLATES_PER_TRIP);
             while (!Thread.currentThread().isInterrupted()) {
-                // 1. Get a Cooked Meal to Serve (Consumer role) [cite: 16, 83]
+                // 1. Pick up Cooked Meals to Serve (Consumer role) [cite: 16, 83]
+                // One trip to the bench collects every ready plate up to what the waiter can carry
                 // System.out.println(clock.getFormattedTime() + " Waiter " + waiterId + " waiting for cooked meal."); // Debug
-                CookedMeal mealToServe = (CookedMeal) consume(); // Consume from cookedMealsBuf
-                if (mealToServe == null) {
-                    continue;
+                tray.clear();
+                if (drainTo(tray, MAX_PLATES_PER_TRIP) == 0) { // Consume from cookedMealsBuf
+                    break; // Bench closed and empty: every meal has been served
                 }
-                // System.out.println(clock.getFormattedTime() + " Waiter " + waiterId + " picked up " + mealToServe); // Debug
+                metrics.waiterBusy();
+                // System.out.println(clock.getFormattedTime() + " Waiter " + waiterId + " picked up " + tray); // Debug
 
-                // 2. Serve the Meal to the Customer at their Table [cite: 16]
+                // 2. Serve each Meal to the Customer at their Table [cite: 16]
                 // Simulate time to walk to the table (optional, could add a small sleep)
-                printEvent("serves " + mealToServe.getMealName() + " to Customer " + mealToServe.getCustomerId() + " at Table " + mealToServe.getTableId() + "."); // [cite: 43, 44]
-
-
-                // 3. Simulate Customer Eating Time [cite: 13, 25]
-                // Add a random delay to simulate eating
-                // Let's assume eating takes between 5 and 15 simulation minutes
-                int eatingTimeMinutes = 5 + random.nextInt(11); // Random number between 5 and 15
-                long eatingTimeMillis = (long)eatingTimeMinutes * 60 * 1000;
-                // --- Simulation Speed Factor ---
-                // Divide by speed factor if needed: eatingTimeMillis /= 10;
-                Thread.sleep(eatingTimeMillis);
+                seatings.clear();
+                for (BufElement plate : tray) {
+                    CookedMeal mealToServe = (CookedMeal) plate;
+                    printEvent("serves " + mealToServe.getMealName() + " to Customer " + mealToServe.getCustomerId() + " at Table " + mealToServe.getTableId() + "."); // [cite: 43, 44]
+                    stats.cookedQueue().record(clock.getTimeMillis() - mealToServe.getReadyTimeMillis());
+                    recorder.record(JournalEventType.SERVED, clock.getTimeMillis(), mealToServe.getCustomerId(), waiterId, mealToServe.getTableId(), mealToServe.getMealName(), 0);
 
+                    // 3. Simulate Customer Eating Time [cite: 13, 25]
+                    // Add a random delay to simulate eating
+                    // Let's assume eating takes between 5 and 15 simulation minutes
+                    int eatingTimeMinutes = 5 + random.nextInt(11); // Random number between 5 and 15
+                    long eatingTimeMillis = (long)eatingTimeMinutes * 60 * 1000;
+                    Seating seating = new Seating(mealToServe, clock.getTimeMillis() + eatingTimeMillis);
+                    if (eatingTimer != null) {
+                        // The table is released by the timer; the waiter does not wait for the customer
+                        eatingTimer.schedule(() -> customerLeaves(seating), clock.getRealNanosUntil(seating.finishTimeMillis), TimeUnit.NANOSECONDS);
+                    } else {
+                        seatings.add(seating);
+                    }
+                }
+                seatings.sort(Comparator.comparingLong(seating -> seating.finishTimeMillis));
 
-                // 4. Customer Finishes and Leaves; Clear the Table [cite: 13 (leave), 16 (clear), 84]
-                printEvent("sees Customer " + mealToServe.getCustomerId() + " finishes eating and leaves the restaurant."); // [cite: 45, 46]
+                for (Seating seating : seatings) {
+                    // Sleep to an absolute deadline so the clock's speed factor applies and jitter does not add up
+                    clock.sleepUntil(seating.finishTimeMillis);
+                    CookedMeal servedMeal = seating.meal;
 
-                // Release the table using TableBuffer's specific release method [cite: 84, 86]
-                tableBuffer.releaseTable(mealToServe.getTableId());
-                printEvent("clears Table " + mealToServe.getTableId() + ". Table is now available."); // [cite: 47]
+                    // 4. Customer Finishes and Leaves; Clear the Table [cite: 13 (leave), 16 (clear), 84]
+                    printEvent("sees Customer " + servedMeal.getCustomerId() + " finishes eating and leaves the restaurant."); // [cite: 45, 46]
+                    stats.endToEnd().record(clock.getTimeMillis() - servedMeal.getOrder().getArrivalTimeMillis());
+                    recorder.record(JournalEventType.CUSTOMER_LEFT, clock.getTimeMillis(), servedMeal.getCustomerId(), waiterId, servedMeal.getTableId(), servedMeal.getMealName(), 0);
 
-                // Increment served customer count AFTER they have left
-                customersServedCounter.incrementAndGet();
+                    // Release the table using TableBuffer's specific release method [cite: 84, 86]
+                    tableBuffer.releaseTable(servedMeal.getTableId());
+                    printEvent("clears Table " + servedMeal.getTableId() + ". Table is now available."); // [cite: 47]
+                    recorder.record(JournalEventType.TABLE_CLEARED, clock.getTimeMillis(), servedMeal.getCustomerId(), waiterId, servedMeal.getTableId(), servedMeal.getMealName(), 0);
 
+                    // Increment served customer count AFTER they have left
+                    customers.customerServed();
+                    metrics.customerServed(clock.getTimeMillis());
+                }
+                metrics.waiterIdle();
             }
         } catch (InterruptedException e) {
             // Thread interruption signals simulation end
-            System.out.println("[" + clock.getFormattedTime() + "] Waiter " + waiterId + " stopping.");
+            printEvent("stopping.");
             Thread.currentThread().interrupt(); // Preserve interrupt status
         } catch (Exception e) {
             System.err.println("Waiter " + waiterId + " encountered an error: " + e.getMessage());
@@ -83,7 +129,49 @@ public class Waiter implements Runnable, Consumer {
         return cookedMealsBuf.consume(); // Consume from the cooked meals buffer [cite: 83]
     }
 
+    /**
+     * Implements Consumer interface to pick up several cooked meals in one trip.
+     * @param target Collection the CookedMeals are added to.
+     * @param maxItems Maximum number of meals to take.
+     * @return The number of meals picked up.
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    @Override
+    public int drainTo(Collection<? super BufElement> target, int maxItems) throws InterruptedException {
+        return cookedMealsBuf.drainTo(target, maxItems);
+    }
+
+    // Runs on the eating timer when a customer served by this waiter finishes: they leave and the table is released
+    private void customerLeaves(Seating seating) {
+        CookedMeal servedMeal = seating.meal;
+        String customer = "Customer " + servedMeal.getCustomerId();
+        log.event(clock.getTimeMillis(), customer, "finishes eating and leaves the restaurant.");
+        stats.endToEnd().record(clock.getTimeMillis() - servedMeal.getOrder().getArrivalTimeMillis());
+        recorder.record(JournalEventType.CUSTOMER_LEFT, clock.getTimeMillis(), servedMeal.getCustomerId(), waiterId, servedMeal.getTableId(), servedMeal.getMealName(), 0);
+        try {
+            tableBuffer.releaseTable(servedMeal.getTableId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Timer is being shut down
+            return;
+        }
+        log.event(clock.getTimeMillis(), customer, "has left Table " + servedMeal.getTableId() + ". Table is now available.");
+        recorder.record(JournalEventType.TABLE_CLEARED, clock.getTimeMillis(), servedMeal.getCustomerId(), waiterId, servedMeal.getTableId(), servedMeal.getMealName(), 0);
+        customers.customerServed();
+        metrics.customerServed(clock.getTimeMillis());
+    }
+
     private void printEvent(String message) {
-        System.out.println("[" + clock.getFormattedTime() + "] Waiter " + waiterId + " " + message);
+        log.event(clock.getTimeMillis(), name, message);
+    }
+
+    // A served customer and the simulation time at which they finish eating
+    private static final class Seating {
+        private final CookedMeal meal;
+        private final long finishTimeMillis;
+
+        Seating(CookedMeal meal, long finishTimeMillis) {
+            this.meal = meal;
+            this.finishTimeMillis = finishTimeMillis;
+        }
     }
 }
\ No newline at end of file
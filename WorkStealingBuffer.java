@@ -0,0 +1,339 @@
+import java.util.Collection;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+/**
+ * Bounded buffer split into one deque per consumer, in the style of ForkJoinPool work queues.
+ * Producers spread items over the deques starting at a random one; each consumer takes the
+ * oldest item from its own deque through the view returned by forConsumer(), and only when that
+ * is empty steals the oldest item from another deque. Unlike ForkJoinPool, whose owners work LIFO,
+ * owners and thieves both take from the head, so every deque is served strictly oldest first and an
+ * idle consumer relieves a busy one of its longest-waiting item, as a shared FIFO queue would.
+ * There is no global order across deques.
+ * A consumer with work of its own only writes to its own deque and that deque's size counter; the
+ * only shared state it touches is a read of the count of parked producers, and it signals the shared
+ * producer wait queue only when that count is non-zero.
+ * Capacity is divided evenly between the deques. Blocking, closing and wake-ups work as in RingBuffer.
+ */
+public class WorkStealingBuffer implements BoundedBuffer {
+    private static final int SPIN_TRIES = 100;   // Busy-wait attempts before yielding
+    private static final int YIELD_TRIES = 10;   // Yield attempts before parking
+
+    private final int capacity;
+    private final int shardCapacity;
+    private final ConcurrentLinkedDeque<BufElement>[] shards;
+    private final AtomicInteger[] shardSizes; // Reserved slots per deque, including items still being added
+    private final ConcurrentLinkedQueue<Thread> waitingConsumers = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Thread> waitingProducers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger parkingProducers = new AtomicInteger(); // Producers in the park loop below
+    private volatile boolean closed = false;
+
+    /**
+     * Creates a WorkStealingBuffer.
+     * @param capacity The maximum number of items the buffer can hold, shared evenly between the deques.
+     * @param consumers The number of deques; one per consumer.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public WorkStealingBuffer(int capacity, int consumers) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Buffer capacity must be positive");
+        }
+        if (consumers <= 0) {
+            throw new IllegalArgumentException("Consumer count must be positive");
+        }
+        this.shardCapacity = (capacity + consumers - 1) / consumers; // Every deque can hold at least one item
+        this.capacity = shardCapacity * consumers;
+        this.shards = new ConcurrentLinkedDeque[consumers];
+        this.shardSizes = new AtomicInteger[consumers];
+        for (int i = 0; i < consumers; i++) {
+            shards[i] = new ConcurrentLinkedDeque<>();
+            shardSizes[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * Returns the view a consumer uses to take from its own deque first.
+     * @param index The consumer's deque, from 0 to the consumer count - 1.
+     * @return A Consumer bound to that deque.
+     */
+    public Consumer forConsumer(int index) {
+        if (index < 0 || index >= shards.length) {
+            throw new IllegalArgumentException("No deque " + index + " in a buffer for " + shards.length + " consumers");
+        }
+        return new Consumer() {
+            @Override
+            public BufElement consume() throws InterruptedException {
+                return take(index);
+            }
+
+            @Override
+            public int drainMatching(Collection<? super BufElement> target, Predicate<? super BufElement> filter, int maxItems) {
+                return WorkStealingBuffer.this.drainMatching(index, target, filter, maxItems);
+            }
+        };
+    }
+
+    /**
+     * Adds an item to the first deque with room, starting from a random one, blocking while all are full.
+     * @param item The BufElement to add.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    @Override
+    public void produce(BufElement item) throws InterruptedException {
+        if (item == null) {
+            throw new IllegalArgumentException("Cannot produce a null item.");
+        }
+        checkOpen();
+        if (offer(item)) {
+            return;
+        }
+        for (int i = 0; i < SPIN_TRIES + YIELD_TRIES; i++) {
+            backOff(i);
+            if (offer(item)) {
+                return;
+            }
+        }
+        Thread self = Thread.currentThread();
+        // Counted before the re-check below: a consumer that frees room either sees the count and
+        // signals, or freed it before the count went up, in which case the re-check finds the room
+        parkingProducers.incrementAndGet();
+        try {
+            while (true) {
+                waitingProducers.add(self);
+                if (offer(item)) { // Re-check after registering so a concurrent consume cannot be missed
+                    leave(waitingProducers, self);
+                    return;
+                }
+                if (closed) {
+                    leave(waitingProducers, self);
+                    throw new IllegalStateException("Buffer is closed");
+                }
+                LockSupport.park(this);
+                boolean signalled = !waitingProducers.remove(self);
+                if (Thread.interrupted()) {
+                    if (signalled) {
+                        signal(waitingProducers); // Hand the wake-up to another waiter
+                    }
+                    throw new InterruptedException();
+                }
+                if (offer(item)) {
+                    return;
+                }
+            }
+        } finally {
+            parkingProducers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Removes an item from any deque, starting from a random one, blocking while all are empty.
+     * Consumers that own a deque should use forConsumer() instead.
+     * @return The consumed BufElement, or CLOSED if the buffer is closed and empty.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    @Override
+    public BufElement consume() throws InterruptedException {
+        return take(ThreadLocalRandom.current().nextInt(shards.length));
+    }
+
+    /**
+     * Tries to add an item without blocking.
+     * @param item The BufElement to add.
+     * @return true if the item was added, false if every deque was full.
+     */
+    public boolean offer(BufElement item) {
+        int start = ThreadLocalRandom.current().nextInt(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            int index = (start + i) % shards.length;
+            if (reserve(index)) {
+                shards[index].addLast(item);
+                signal(waitingConsumers);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tries to remove an item without blocking: the oldest one in the given deque, or else
+     * the oldest one in the next non-empty deque after it.
+     * @param index The deque to look at first.
+     * @return The removed BufElement, or null if every deque was empty.
+     */
+    public BufElement poll(int index) {
+        BufElement item = shards[index].pollFirst();
+        if (item != null) {
+            return taken(index, item);
+        }
+        for (int i = 1; i < shards.length; i++) {
+            int victim = (index + i) % shards.length;
+            if ((item = shards[victim].pollFirst()) != null) {
+                return taken(victim, item);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes up to maxItems items that match the filter from one deque, oldest first, without blocking.
+     * Only the consumer's own deque is searched; other deques are left to their owners.
+     * @param index The deque to search.
+     * @param target Collection the removed items are added to.
+     * @param filter Which items to remove.
+     * @param maxItems Maximum number of items to remove.
+     * @return The number of items added to target.
+     */
+    public int drainMatching(int index, Collection<? super BufElement> target, Predicate<? super BufElement> filter, int maxItems) {
+        int count = 0;
+        for (BufElement item : shards[index]) {
+            if (count >= maxItems) {
+                break;
+            }
+            // Removal fails if a thief took the item since the iterator saw it
+            if (filter.test(item) && shards[index].removeFirstOccurrence(item)) {
+                target.add(taken(index, item));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the current number of items in the buffer without locking.
+     * The value is a snapshot and may be stale under concurrent use.
+     * @return The number of items.
+     */
+    @Override
+    public int getCurrentSize() {
+        int size = 0;
+        for (AtomicInteger shardSize : shardSizes) {
+            size += shardSize.get();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the capacity of the buffer, rounded up to a multiple of the consumer count.
+     * @return The capacity.
+     */
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Closes the buffer and wakes every parked consumer and producer so they can see it.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        Thread waiter;
+        while ((waiter = waitingConsumers.poll()) != null) {
+            LockSupport.unpark(waiter);
+        }
+        while ((waiter = waitingProducers.poll()) != null) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    // Blocking take for a consumer that owns the given deque. Spinning only watches the own deque;
+    // a steal scan visits every deque, so it runs once before and after registering to park.
+    private BufElement take(int index) throws InterruptedException {
+        BufElement item = poll(index);
+        if (item != null) {
+            return item;
+        }
+        for (int i = 0; i < SPIN_TRIES + YIELD_TRIES; i++) {
+            backOff(i);
+            if ((item = shards[index].pollFirst()) != null) {
+                return taken(index, item);
+            }
+        }
+        Thread self = Thread.currentThread();
+        while (true) {
+            waitingConsumers.add(self);
+            if ((item = poll(index)) != null) { // Re-check after registering so a concurrent produce cannot be missed
+                leave(waitingConsumers, self);
+                return item;
+            }
+            if (closed) { // Checked after registering so close() either sees this thread or this thread sees close()
+                leave(waitingConsumers, self);
+                return (item = poll(index)) != null ? item : CLOSED; // An item added just before close still counts
+            }
+            LockSupport.park(this);
+            boolean signalled = !waitingConsumers.remove(self);
+            if (Thread.interrupted()) {
+                if (signalled) {
+                    signal(waitingConsumers); // Hand the wake-up to another waiter
+                }
+                throw new InterruptedException();
+            }
+            if ((item = poll(index)) != null) {
+                return item;
+            }
+        }
+    }
+
+    // Claims room for one item in a deque
+    private boolean reserve(int index) {
+        AtomicInteger size = shardSizes[index];
+        int current;
+        while ((current = size.get()) < shardCapacity) {
+            if (size.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Frees the room an item held in its deque, touching the shared wait queue only if a producer may be parked
+    private BufElement taken(int index, BufElement item) {
+        shardSizes[index].decrementAndGet();
+        if (parkingProducers.get() > 0) {
+            signal(waitingProducers);
+        }
+        return item;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Buffer is closed");
+        }
+    }
+
+    // Spin for the first attempts, then give other threads the CPU
+    private static void backOff(int attempt) {
+        if (attempt < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else {
+            Thread.yield();
+        }
+    }
+
+    // Wakes one parked thread from the given queue, if any
+    private static void signal(ConcurrentLinkedQueue<Thread> waiters) {
+        if (!waiters.isEmpty()) {
+            Thread waiter = waiters.poll();
+            if (waiter != null) {
+                LockSupport.unpark(waiter);
+            }
+        }
+    }
+
+    // Deregisters a waiter. If a signal already removed it, that wake-up was consumed
+    // by this thread, so pass it on to keep other parked threads from missing it.
+    private static void leave(ConcurrentLinkedQueue<Thread> waiters, Thread self) {
+        if (!waiters.remove(self)) {
+            signal(waiters);
+        }
+    }
+}
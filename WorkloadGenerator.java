@@ -0,0 +1,266 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Generates synthetic workloads as text configs or binary traces.
+ * Customers are written as they are generated, so workloads of any size take constant memory.
+ * Usage: java WorkloadGenerator --customers=N --out=<file> [options]
+ * <pre>
+ * --customers=N               Number of customers (required)
+ * --out=FILE                  Output file (required)
+ * --format=text|trace         Default: trace if FILE ends in .trace, else text
+ * --arrivals=poisson|rush     Poisson process at a constant rate, or one whose rate peaks around
+ *                             lunch (12:30) and dinner (19:00). Default poisson
+ * --rate=R                    Mean arrivals per hour (base rate for rush). Default 60
+ * --peak=F                    Rush-hour rate multiplier. Default 4
+ * --mix=Meal:W,Meal:W,...     Menu and relative order weights. Default: 8 meals, equal weights
+ * --prep=fixed:M | uniform:A:B | normal:MEAN:SD
+ *                             Distribution each meal's prep time (minutes) is drawn from. Default uniform:1:10
+ * --chefs=NC --waiters=NW --tables=NT   Staffing written to the header. Default 4, 6, 20
+ * --seed=S                    Random seed; the same options and seed give the same file. Default 42
+ * </pre>
+ */
+public class WorkloadGenerator {
+    private static final String DEFAULT_MIX = "Burger:1,Pizza:1,Pasta:1,Salad:1,Steak:1,Sushi:1,Tacos:1,Soup:1";
+    private static final double LUNCH_MINUTE = 12.5 * 60;  // Time of day, minutes after midnight
+    private static final double LUNCH_SPREAD = 45;
+    private static final double DINNER_MINUTE = 19 * 60;
+    private static final double DINNER_SPREAD = 60;
+    private static final int OPENING_MINUTE = 8 * 60;      // Arrival minute 0 is 08:00
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 3) {
+                System.err.println("Usage: java WorkloadGenerator --customers=N --out=<file> [--format=text|trace] [--arrivals=poisson|rush] "
+                        + "[--rate=<per hour>] [--peak=<factor>] [--mix=Meal:weight,...] [--prep=fixed:M|uniform:A:B|normal:MEAN:SD] "
+                        + "[--chefs=NC] [--waiters=NW] [--tables=NT] [--seed=S]");
+                System.exit(1);
+            }
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        try {
+            long start = System.nanoTime();
+            long count = generate(options);
+            System.out.println("Generated " + count + " customers into " + options.get("out") + " in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms.");
+        } catch (IOException e) {
+            System.err.println("Error writing workload: " + e.getMessage());
+            System.exit(1);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid workload options: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Generates a workload from generator options (the command line options without "--").
+     * @param options Option name to value.
+     * @return The number of customers written.
+     * @throws IOException If the output cannot be written.
+     * @throws IllegalArgumentException If an option is missing or invalid.
+     */
+    public static long generate(Map<String, String> options) throws IOException, IllegalArgumentException {
+        String out = options.get("out");
+        if (out == null) throw new IllegalArgumentException("--out is required.");
+        long customers = parseLong(options, "customers", -1);
+        if (customers < 0 || customers > Integer.MAX_VALUE) throw new IllegalArgumentException("--customers must be between 0 and " + Integer.MAX_VALUE + ".");
+        String format = options.getOrDefault("format", out.endsWith(".trace") ? "trace" : "text");
+        if (!format.equals("text") && !format.equals("trace")) throw new IllegalArgumentException("Unknown format '" + format + "'.");
+        String arrivals = options.getOrDefault("arrivals", "poisson");
+        if (!arrivals.equals("poisson") && !arrivals.equals("rush")) throw new IllegalArgumentException("Unknown arrival process '" + arrivals + "'.");
+        double rate = parseDouble(options, "rate", 60);
+        double peak = arrivals.equals("rush") ? parseDouble(options, "peak", 4) : 1;
+        if (!(rate > 0) || !(peak >= 1)) throw new IllegalArgumentException("--rate must be positive and --peak at least 1.");
+        int chefs = (int) parseLong(options, "chefs", 4);
+        int waiters = (int) parseLong(options, "waiters", 6);
+        int tables = (int) parseLong(options, "tables", 20);
+        if (chefs <= 0 || waiters <= 0 || tables <= 0) throw new IllegalArgumentException("--chefs, --waiters and --tables must be positive.");
+        SplittableRandom random = new SplittableRandom(parseLong(options, "seed", 42));
+
+        // Menu: names and weights from the mix, prep times drawn once per meal
+        List<String> mealList = new ArrayList<>();
+        double[] cumulativeWeights = parseMix(options.getOrDefault("mix", DEFAULT_MIX), mealList);
+        String[] meals = mealList.toArray(new String[0]);
+        Map<String, Integer> prepTimes = new LinkedHashMap<>();
+        String prep = options.getOrDefault("prep", "uniform:1:10");
+        for (String meal : meals) {
+            prepTimes.put(meal, drawPrepTime(prep, random));
+        }
+
+        ArrivalProcess process = new ArrivalProcess(arrivals.equals("rush"), rate / 60.0, peak, random);
+        if (format.equals("trace")) {
+            try (CustomerTraceWriter trace = new CustomerTraceWriter(out, chefs, waiters, tables, prepTimes)) {
+                for (int id = 1; id <= customers; id++) {
+                    trace.write(id, process.nextMinute(), pickMeal(meals, cumulativeWeights, random));
+                }
+                trace.finish();
+                return trace.getCount();
+            }
+        }
+        try (Writer text = new BufferedWriter(new FileWriter(out), 1 << 16)) {
+            text.write("NC=" + chefs + " NW=" + waiters + " NT=" + tables + "\n");
+            StringBuilder line = new StringBuilder(64);
+            for (Map.Entry<String, Integer> meal : prepTimes.entrySet()) {
+                if (line.length() > 0) line.append(' ');
+                line.append(meal.getKey()).append('=').append(meal.getValue());
+            }
+            text.write(line.append('\n').toString());
+            for (int id = 1; id <= customers; id++) {
+                int clockMinutes = OPENING_MINUTE + process.nextMinute();
+                line.setLength(0);
+                line.append("CustomerID=").append(id).append(" ArrivalTime=");
+                appendTwoDigits(line, clockMinutes / 60).append(':');
+                appendTwoDigits(line, clockMinutes % 60).append(" Order=").append(pickMeal(meals, cumulativeWeights, random)).append('\n');
+                text.append(line);
+            }
+            return customers;
+        }
+    }
+
+    /**
+     * Arrival times from a Poisson process. The rush variant is non-homogeneous and is sampled
+     * by thinning: candidates come at the peak rate and are kept with probability rate(t)/peak rate.
+     */
+    private static final class ArrivalProcess {
+        private final boolean rush;
+        private final double baseRatePerMinute;
+        private final double peak;
+        private final SplittableRandom random;
+        private double time = 0; // Minutes after 08:00
+
+        ArrivalProcess(boolean rush, double baseRatePerMinute, double peak, SplittableRandom random) {
+            this.rush = rush;
+            this.baseRatePerMinute = baseRatePerMinute;
+            this.peak = peak;
+            this.random = random;
+        }
+
+        int nextMinute() {
+            double maxRate = baseRatePerMinute * peak;
+            do {
+                time += -Math.log(1.0 - random.nextDouble()) / maxRate;
+            } while (rush && random.nextDouble() * maxRate > rateAt(time));
+            return (int) Math.min(time, Integer.MAX_VALUE - OPENING_MINUTE);
+        }
+
+        // Base rate raised towards the peak around lunch and dinner, repeating daily
+        private double rateAt(double minute) {
+            double timeOfDay = (OPENING_MINUTE + minute) % (24 * 60);
+            double lunch = Math.exp(-0.5 * square((timeOfDay - LUNCH_MINUTE) / LUNCH_SPREAD));
+            double dinner = Math.exp(-0.5 * square((timeOfDay - DINNER_MINUTE) / DINNER_SPREAD));
+            return baseRatePerMinute * (1 + (peak - 1) * Math.max(lunch, dinner));
+        }
+
+        private static double square(double x) {
+            return x * x;
+        }
+    }
+
+    // Parses Meal:weight entries into meal names and normalized cumulative weights
+    private static double[] parseMix(String mix, List<String> meals) {
+        String[] entries = mix.split(",");
+        double[] cumulative = new double[entries.length];
+        double total = 0;
+        for (int i = 0; i < entries.length; i++) {
+            String[] parts = entries[i].split(":");
+            if (parts.length != 2 || !parts[0].matches("\\w+")) {
+                throw new IllegalArgumentException("Invalid --mix entry '" + entries[i] + "'. Expected Meal:weight.");
+            }
+            if (meals.contains(parts[0])) {
+                throw new IllegalArgumentException("Meal '" + parts[0] + "' appears twice in --mix.");
+            }
+            double weight;
+            try {
+                weight = Double.parseDouble(parts[1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid weight in --mix entry '" + entries[i] + "'.");
+            }
+            if (!(weight >= 0)) throw new IllegalArgumentException("Weights in --mix must not be negative.");
+            meals.add(parts[0]);
+            total += weight;
+            cumulative[i] = total;
+        }
+        if (!(total > 0)) throw new IllegalArgumentException("At least one --mix weight must be positive.");
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+
+    private static String pickMeal(String[] meals, double[] cumulativeWeights, SplittableRandom random) {
+        double u = random.nextDouble();
+        for (int i = 0; i < meals.length - 1; i++) {
+            if (u < cumulativeWeights[i]) {
+                return meals[i];
+            }
+        }
+        return meals[meals.length - 1];
+    }
+
+    private static int drawPrepTime(String distribution, SplittableRandom random) {
+        String[] parts = distribution.split(":");
+        try {
+            switch (parts[0]) {
+                case "fixed":
+                    if (parts.length == 2) return Math.max(1, Integer.parseInt(parts[1]));
+                    break;
+                case "uniform":
+                    if (parts.length == 3) {
+                        int low = Integer.parseInt(parts[1]);
+                        int high = Integer.parseInt(parts[2]);
+                        if (low >= 1 && high >= low) return low + random.nextInt(high - low + 1);
+                    }
+                    break;
+                case "normal":
+                    if (parts.length == 3) {
+                        double mean = Double.parseDouble(parts[1]);
+                        double spread = Double.parseDouble(parts[2]);
+                        double u1 = 1.0 - random.nextDouble();
+                        double gaussian = Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * random.nextDouble()); // Box-Muller
+                        return (int) Math.max(1, Math.round(mean + spread * gaussian));
+                    }
+                    break;
+                default:
+                    break;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Invalid --prep '" + distribution + "'. Expected fixed:M, uniform:A:B (1 <= A <= B) or normal:MEAN:SD.");
+    }
+
+    private static StringBuilder appendTwoDigits(StringBuilder target, int value) {
+        if (value < 10) target.append('0');
+        return target.append(value);
+    }
+
+    private static long parseLong(Map<String, String> options, String key, long defaultValue) {
+        String value = options.get(key);
+        if (value == null) return defaultValue;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + key + " must be an integer, got '" + value + "'.");
+        }
+    }
+
+    private static double parseDouble(Map<String, String> options, String key, double defaultValue) {
+        String value = options.get(key);
+        if (value == null) return defaultValue;
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + key + " must be a number, got '" + value + "'.");
+        }
+    }
+}
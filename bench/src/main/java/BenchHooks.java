@@ -0,0 +1,147 @@
+import java.util.function.IntConsumer;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Bridge between the JMH benchmarks and the simulation classes.
+ * The simulation lives in the default package, which code in a named package cannot
+ * reference, while JMH requires benchmarks to be in a named package. This class sits in
+ * the default package and hands out the operations under test as java.util.function
+ * objects; the benchmarks look each factory up once by reflection during setup, so the
+ * measured loops make plain interface calls.
+ * Handles returned by the new* methods are opaque to the caller and only passed back here.
+ */
+public final class BenchHooks {
+    private static final BufElement ITEM = new BufElement(); // Buffers only move references; one element is enough
+
+    private BenchHooks() {
+    }
+
+    // --- Buffers ---
+
+    /**
+     * @param kind "monitor" for Buffer, "ring" for RingBuffer, "stealing" for a single-deque WorkStealingBuffer.
+     * @param capacity Buffer capacity.
+     * @return Buffer handle.
+     */
+    public static Object newBuffer(String kind, int capacity) {
+        return newBuffer(kind, capacity, 1);
+    }
+
+    /**
+     * @param kind "monitor" for Buffer, "ring" for RingBuffer, "stealing" for WorkStealingBuffer.
+     * @param capacity Buffer capacity.
+     * @param consumers Consumer count; the number of deques of a WorkStealingBuffer.
+     * @return Buffer handle.
+     */
+    public static Object newBuffer(String kind, int capacity, int consumers) {
+        switch (kind) {
+            case "monitor":
+                return new Buffer(capacity);
+            case "ring":
+                return new RingBuffer(capacity);
+            case "stealing":
+                return new WorkStealingBuffer(capacity, consumers);
+            default:
+                throw new IllegalArgumentException("Unknown buffer kind '" + kind + "'");
+        }
+    }
+
+    /** Blocking produce of one element. */
+    public static Runnable producer(Object buffer) {
+        BoundedBuffer target = (BoundedBuffer) buffer;
+        return () -> {
+            try {
+                target.produce(ITEM);
+            } catch (InterruptedException e) {
+                throw interrupted(e);
+            }
+        };
+    }
+
+    /** Blocking consume of one element. */
+    public static Runnable consumer(Object buffer) {
+        return consumer((BoundedBuffer) buffer);
+    }
+
+    /** Blocking consume of one element by the given consumer; takes from its own deque first if the buffer has one per consumer. */
+    public static Runnable consumer(Object buffer, int index) {
+        return consumer(buffer instanceof WorkStealingBuffer ? ((WorkStealingBuffer) buffer).forConsumer(index) : (BoundedBuffer) buffer);
+    }
+
+    private static Runnable consumer(Consumer source) {
+        return () -> {
+            try {
+                source.consume();
+            } catch (InterruptedException e) {
+                throw interrupted(e);
+            }
+        };
+    }
+
+    // --- Semaphore ---
+
+    /**
+     * @param permits Initial permits.
+     * @param fair Fairness mode.
+     * @return Semaphore handle.
+     */
+    public static Object newSemaphore(int permits, boolean fair) {
+        return new Semaphore(permits, fair);
+    }
+
+    /** Blocking acquire of one permit. */
+    public static Runnable acquirer(Object semaphore) {
+        Semaphore target = (Semaphore) semaphore;
+        return () -> {
+            try {
+                target.acquire();
+            } catch (InterruptedException e) {
+                throw interrupted(e);
+            }
+        };
+    }
+
+    /** Release of one permit. */
+    public static Runnable releaser(Object semaphore) {
+        return ((Semaphore) semaphore)::release;
+    }
+
+    // --- TableBuffer ---
+
+    /**
+     * @param tables Number of tables.
+     * @return TableBuffer handle.
+     */
+    public static Object newTableBuffer(int tables) {
+        return new TableBuffer(tables);
+    }
+
+    /** Blocking table acquire: customer ID in, table ID out. */
+    public static IntUnaryOperator tableAcquirer(Object tableBuffer) {
+        TableBuffer target = (TableBuffer) tableBuffer;
+        return customerId -> {
+            try {
+                return target.acquireTable(customerId).getTableId();
+            } catch (InterruptedException e) {
+                throw interrupted(e);
+            }
+        };
+    }
+
+    /** Table release by table ID. */
+    public static IntConsumer tableReleaser(Object tableBuffer) {
+        TableBuffer target = (TableBuffer) tableBuffer;
+        return tableId -> {
+            try {
+                target.releaseTable(tableId);
+            } catch (InterruptedException e) {
+                throw interrupted(e);
+            }
+        };
+    }
+
+    private static IllegalStateException interrupted(InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return new IllegalStateException("Interrupted", e);
+    }
+}
@@ -0,0 +1,74 @@
+package restsim.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Hand-off latency between two threads: the benchmark thread produces into one buffer and
+ * an echo thread moves the element into a second buffer, which the benchmark thread consumes.
+ * One invocation is a full round trip; the sample-time mode reports its percentiles,
+ * which include the wake-up cost when the echo thread has parked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BufferLatencyBenchmark {
+    @Param({"monitor", "ring"})
+    public String kind;
+
+    @Param({"16"})
+    public int capacity;
+
+    private Runnable ping;
+    private Runnable pong;
+    private Thread echo;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Object requests = Hooks.call("newBuffer", kind, capacity);
+        Object replies = Hooks.call("newBuffer", kind, capacity);
+        ping = Hooks.call("producer", requests);
+        pong = Hooks.call("consumer", replies);
+        Runnable take = Hooks.call("consumer", requests);
+        Runnable give = Hooks.call("producer", replies);
+        echo = new Thread(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    take.run();
+                    give.run();
+                }
+            } catch (IllegalStateException e) {
+                // Interrupted at tear-down
+            }
+        }, "echo");
+        echo.setDaemon(true);
+        echo.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        echo.interrupt();
+        echo.join();
+    }
+
+    @Benchmark
+    public void roundTrip() {
+        ping.run();
+        pong.run();
+    }
+}
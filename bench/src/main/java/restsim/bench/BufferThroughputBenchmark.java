@@ -0,0 +1,91 @@
+package restsim.bench;
+
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Items moved per microsecond through a buffer by P producer and C consumer threads.
+ * Each invocation hands ITEMS elements through the buffer with dedicated worker threads,
+ * so producers and consumers always do matching amounts of work and blocking calls can be
+ * measured without one side stalling forever at the end of an iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BufferThroughputBenchmark {
+    static final int ITEMS = 12_000; // Divisible by every producer and consumer count below
+
+    @Param({"monitor", "ring", "stealing"})
+    public String kind;
+
+    @Param({"16", "1024"})
+    public int capacity;
+
+    @Param({"1", "2", "4"})
+    public int producers;
+
+    @Param({"1", "2", "4"})
+    public int consumers;
+
+    private Phaser phaser;
+    private Thread[] workers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Object buffer = Hooks.call("newBuffer", kind, capacity, consumers);
+        Runnable produce = Hooks.call("producer", buffer);
+        phaser = new Phaser(1 + producers + consumers); // Workers plus the benchmark thread
+        workers = new Thread[producers + consumers];
+        for (int i = 0; i < workers.length; i++) {
+            boolean producer = i < producers;
+            int share = ITEMS / (producer ? producers : consumers);
+            Runnable operation = producer ? produce : Hooks.call("consumer", buffer, i - producers);
+            workers[i] = new Thread(() -> work(operation, share), (producer ? "producer-" : "consumer-") + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        phaser.forceTermination(); // Releases workers waiting for the next round
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public void transfer() {
+        phaser.arriveAndAwaitAdvance(); // Start the round
+        phaser.arriveAndAwaitAdvance(); // Wait until every item has been consumed
+    }
+
+    private void work(Runnable operation, int count) {
+        while (phaser.arriveAndAwaitAdvance() >= 0) {
+            for (int i = 0; i < count; i++) {
+                operation.run();
+            }
+            if (phaser.arriveAndAwaitAdvance() < 0) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package restsim.bench;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Reflective access to the default-package BenchHooks bridge.
+ * Only used from @Setup methods; nothing here runs inside a measured loop.
+ */
+final class Hooks {
+    private static final Class<?> BRIDGE = load();
+
+    private Hooks() {
+    }
+
+    /**
+     * Invokes a static BenchHooks factory.
+     * @param name Method name.
+     * @param args Arguments; int and boolean arguments are matched to primitive parameters.
+     * @return The factory's result, cast to the caller's expected type.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T call(String name, Object... args) {
+        for (Method method : BRIDGE.getMethods()) {
+            if (method.getName().equals(name) && method.getParameterCount() == args.length) {
+                try {
+                    return (T) method.invoke(null, args);
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                } catch (InvocationTargetException e) {
+                    throw new IllegalStateException("BenchHooks." + name + " failed", e.getCause());
+                }
+            }
+        }
+        throw new IllegalArgumentException("No BenchHooks." + name + " taking " + args.length + " arguments");
+    }
+
+    private static Class<?> load() {
+        try {
+            return Class.forName("BenchHooks");
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("BenchHooks is missing from the classpath", e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package restsim.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Acquire/release pairs on one shared semaphore from several threads.
+ * "custom" is the simulation's Semaphore, "jdk" is java.util.concurrent.Semaphore for reference.
+ * holdTokens is the Blackhole work done while holding the permit; with fewer permits than
+ * threads this is the critical section the other threads contend for.
+ * Vary the thread count with -t.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class SemaphoreBenchmark {
+    @Param({"custom", "jdk"})
+    public String impl;
+
+    @Param({"false", "true"})
+    public boolean fair;
+
+    @Param({"1", "4"})
+    public int permits;
+
+    @Param({"0", "64"})
+    public int holdTokens;
+
+    private Runnable acquire;
+    private Runnable release;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (impl.equals("jdk")) {
+            java.util.concurrent.Semaphore semaphore = new java.util.concurrent.Semaphore(permits, fair);
+            acquire = semaphore::acquireUninterruptibly;
+            release = semaphore::release;
+        } else {
+            Object semaphore = Hooks.call("newSemaphore", permits, fair);
+            acquire = Hooks.call("acquirer", semaphore);
+            release = Hooks.call("releaser", semaphore);
+        }
+    }
+
+    @Benchmark
+    public void acquireRelease() {
+        acquire.run();
+        Blackhole.consumeCPU(holdTokens);
+        release.run();
+    }
+}
@@ -0,0 +1,52 @@
+package restsim.bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.function.IntUnaryOperator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Table acquire/release pairs from several threads for different restaurant sizes.
+ * With fewer tables than threads, callers block on the table semaphore; with many tables
+ * the cost is the free-list update under the table mutex. Vary the thread count with -t.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class TableBufferBenchmark {
+    @Param({"1", "4", "64", "1024"})
+    public int tables;
+
+    private IntUnaryOperator acquire;
+    private IntConsumer release;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Object tableBuffer = Hooks.call("newTableBuffer", tables);
+        acquire = Hooks.call("tableAcquirer", tableBuffer);
+        release = Hooks.call("tableReleaser", tableBuffer);
+    }
+
+    @Benchmark
+    public int acquireRelease() {
+        int tableId = acquire.applyAsInt(1);
+        release.accept(tableId);
+        return tableId;
+    }
+}
@@ -0,0 +1,59 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(60)
+class AsyncPipelineTest {
+
+    @Test
+    void runEndsWhenStagesFailWhileHoldingResources() throws InterruptedException {
+        // Each failing customer throws while holding a different resource; with one of each,
+        // a leaked table, chef or waiter would stall everyone behind them
+        Map<Integer, JournalEventType> failures = Map.of(
+                2, JournalEventType.ARRIVED,        // Before taking anything
+                3, JournalEventType.SEATED,         // Holding the table
+                4, JournalEventType.PREP_FINISHED,  // Holding the table and the chef
+                5, JournalEventType.SERVED,         // Holding the table and the waiter
+                6, JournalEventType.CUSTOMER_LEFT); // Holding the table while leaving
+        Set<Integer> left = ConcurrentHashMap.newKeySet();
+        EventRecorder recorder = (type, timeMillis, customerId, actorId, tableId, mealName, durationMillis) -> {
+            if (type == failures.get(customerId)) {
+                throw new IllegalStateException("Journal write failed for customer " + customerId);
+            }
+            if (type == JournalEventType.TABLE_CLEARED) {
+                left.add(customerId);
+            }
+        };
+        Queue<Customer> arrivals = new ArrayDeque<>();
+        for (int id = 1; id <= 8; id++) {
+            arrivals.add(new Customer(id, 0, "Burger"));
+        }
+
+        SimulationClock clock = new SimulationClock(TimeSource.SYSTEM, 6000); // One simulated minute per 10 ms
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        TimingWheel timers = TimingWheel.start(TimingWheel.DEFAULT_TICK_NANOS, executor, "AsyncPipelineTest");
+        CustomerTracker tracker = new CustomerTracker();
+        try (EventLog log = EventLog.open(System.out, EventLog.Level.NONE)) {
+            new AsyncPipeline(1, 1, 1, Map.of("Burger", 1), arrivals::poll, clock, executor, timers, 1,
+                    tracker, new LatencyStats(), log, recorder).start();
+
+            assertTrue(tracker.awaitAllServed(30, TimeUnit.SECONDS), "the run should end despite the failed stages");
+            assertEquals(8, tracker.getEntered());
+            assertEquals(8, tracker.getServed());
+            assertEquals(Set.of(1, 7, 8), left); // Everyone after the failures still got a table, a chef and a waiter
+        } finally {
+            timers.shutdown();
+            executor.shutdownNow();
+        }
+    }
+}
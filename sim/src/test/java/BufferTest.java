@@ -0,0 +1,85 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(30)
+class BufferTest {
+
+    private static OrderedMeal order(int id) {
+        return new OrderedMeal(id, "Burger", 1, 0, 0);
+    }
+
+    @Test
+    void drainToKeepsItsPermitsWhenInterruptedWaitingForTheMutex() throws InterruptedException {
+        Buffer buffer = new Buffer(4);
+        buffer.produce(order(1));
+        buffer.produce(order(2));
+
+        // drainMatching tests its filter under the mutex, so a blocking filter holds the mutex
+        CountDownLatch filtering = new CountDownLatch(1);
+        CountDownLatch letGo = new CountDownLatch(1);
+        Thread holder = new Thread(() -> buffer.drainMatching(new ArrayList<>(), item -> {
+            filtering.countDown();
+            try {
+                letGo.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }, 1));
+        holder.start();
+        filtering.await();
+
+        List<BufElement> drained = new ArrayList<>();
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread consumer = new Thread(() -> {
+            try {
+                buffer.drainTo(drained, 4); // Claims the one free item permit, then waits for the mutex
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+        });
+        consumer.start();
+        while (consumer.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        consumer.interrupt();
+        Thread.sleep(50);
+        letGo.countDown();
+        holder.join(5_000);
+        consumer.join(5_000);
+
+        // Every item is still reachable: either the drain took one, or its permit went back
+        int taken = drained.size();
+        assertEquals(interrupted.get() ? 0 : 1, taken);
+        for (int i = taken; i < 2; i++) {
+            assertTrue(buffer.drainMatching(drained, item -> true, 1) == 1, "an item was stranded without a permit");
+        }
+        assertEquals(0, buffer.getCurrentSize());
+        buffer.close();
+        assertSame(BoundedBuffer.CLOSED, buffer.consume());
+    }
+
+    @Test
+    void drainToTakesWhatIsThereInFifoOrder() throws InterruptedException {
+        Buffer buffer = new Buffer(8);
+        for (int id = 1; id <= 5; id++) {
+            buffer.produce(order(id));
+        }
+        List<BufElement> drained = new ArrayList<>();
+        assertEquals(3, buffer.drainTo(drained, 3));
+        assertEquals(2, buffer.drainTo(drained, 10));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i + 1, ((OrderedMeal) drained.get(i)).getCustomerId());
+        }
+        buffer.close();
+        assertEquals(0, buffer.drainTo(drained, 10));
+    }
+}
@@ -0,0 +1,187 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+    private static final double[] PERCENTILES = {0, 1, 10, 25, 50, 75, 90, 95, 99, 99.9, 100};
+
+    // The exact percentile of sorted values, by the same nearest-rank rule the histogram uses
+    private static long exactPercentile(long[] sorted, double percentile) {
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * sorted.length));
+        return sorted[(int) rank - 1];
+    }
+
+    private static void assertWithinResolution(long expected, long actual, String what) {
+        // Bucket tops never under-report, and buckets are at most 1/64 of their values wide
+        assertTrue(actual >= expected, what + ": " + actual + " is below the exact " + expected);
+        assertTrue(actual - expected <= expected / 64, what + ": " + actual + " is more than 1/64 above the exact " + expected);
+    }
+
+    private static void assertMatchesExact(long[] values) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        long total = 0;
+        for (long value : values) {
+            histogram.record(value);
+            total += value;
+        }
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        assertEquals(values.length, histogram.getCount());
+        assertEquals(total, histogram.getTotal());
+        assertEquals(sorted[sorted.length - 1], histogram.getMax());
+        assertEquals(total / (double) values.length, histogram.getMean(), 1e-9);
+        for (double percentile : PERCENTILES) {
+            assertWithinResolution(exactPercentile(sorted, percentile), histogram.getValueAtPercentile(percentile), "p" + percentile);
+        }
+    }
+
+    @Test
+    void valuesBelow128AreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 0; value < 128; value++) {
+            histogram.record(value);
+        }
+        for (int value = 0; value < 128; value++) {
+            assertEquals(value, histogram.getValueAtPercentile((value + 1) * 100.0 / 128));
+            assertEquals(value, LatencyHistogram.highestValueInBucket(LatencyHistogram.bucketIndex(value)));
+        }
+    }
+
+    @Test
+    void everyBucketTopIsWithinOne64thOfItsValues() {
+        for (int bits = 7; bits < LatencyHistogram.MAX_VALUE_BITS; bits++) {
+            long low = 1L << bits;
+            for (long value : new long[] {low, low + 1, low + low / 3, 2 * low - 1}) {
+                assertWithinResolution(value, LatencyHistogram.highestValueInBucket(LatencyHistogram.bucketIndex(value)), "bucket of " + value);
+            }
+        }
+    }
+
+    @Test
+    void uniformDistributionPercentiles() {
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i + 1;
+        }
+        assertMatchesExact(values);
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value : values) {
+            histogram.record(value);
+        }
+        assertWithinResolution(50_000, histogram.getValueAtPercentile(50), "p50");
+        assertWithinResolution(99_000, histogram.getValueAtPercentile(99), "p99");
+    }
+
+    @Test
+    void skewedDistributionPercentiles() {
+        SplittableRandom random = new SplittableRandom(42);
+        long[] exponential = new long[200_000];
+        for (int i = 0; i < exponential.length; i++) {
+            exponential[i] = (long) (-Math.log(1 - random.nextDouble()) * 60_000); // Mean of a minute, in ms
+        }
+        assertMatchesExact(exponential);
+
+        long[] bimodal = new long[50_000];
+        for (int i = 0; i < bimodal.length; i++) {
+            bimodal[i] = random.nextInt(10) < 9 ? random.nextLong(50, 150) : random.nextLong(3_000_000, 4_000_000);
+        }
+        assertMatchesExact(bimodal);
+    }
+
+    @Test
+    void constantValueReportsItselfAtEveryPercentile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 1000; i++) {
+            histogram.record(90_000);
+        }
+        for (double percentile : PERCENTILES) {
+            assertEquals(90_000, histogram.getValueAtPercentile(percentile)); // Capped at the recorded maximum
+        }
+    }
+
+    @Test
+    void outOfRangeValuesAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(LatencyHistogram.HIGHEST_TRACKABLE_VALUE, histogram.getMax());
+        assertEquals(LatencyHistogram.HIGHEST_TRACKABLE_VALUE, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0.0, histogram.getMean());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    void addingHistogramsMatchesRecordingEverythingIntoOne() {
+        SplittableRandom random = new SplittableRandom(7);
+        LatencyHistogram whole = new LatencyHistogram();
+        LatencyHistogram[] parts = {new LatencyHistogram(), new LatencyHistogram(), new LatencyHistogram()};
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextInt(4) == 0 ? random.nextLong(1_000_000_000L) : random.nextLong(200);
+            whole.record(value);
+            parts[i % parts.length].record(value);
+        }
+        LatencyHistogram merged = new LatencyHistogram();
+        for (LatencyHistogram part : parts) {
+            merged.add(part);
+        }
+        long partCount = parts[0].getCount();
+        merged.add(new LatencyHistogram()); // Adding an empty histogram changes nothing
+
+        assertEquals(partCount, parts[0].getCount(), "add must leave its argument unchanged");
+        assertSameContents(whole, merged);
+    }
+
+    @Test
+    void recorderSnapshotMatchesRecordingEverythingIntoOne() throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder("test");
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<LatencyHistogram>> recorded = new ArrayList<>();
+        try {
+            for (int t = 0; t < 4; t++) {
+                long seed = t;
+                recorded.add(pool.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    LatencyHistogram own = new LatencyHistogram();
+                    for (int i = 0; i < 50_000; i++) {
+                        long value = random.nextLong(10_000_000L);
+                        recorder.record(value);
+                        own.record(value);
+                    }
+                    return own;
+                }));
+            }
+            LatencyHistogram whole = new LatencyHistogram();
+            for (Future<LatencyHistogram> own : recorded) {
+                whole.add(own.get());
+            }
+            assertSameContents(whole, recorder.snapshot());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void assertSameContents(LatencyHistogram expected, LatencyHistogram actual) {
+        assertEquals(expected.getCount(), actual.getCount());
+        assertEquals(expected.getTotal(), actual.getTotal());
+        assertEquals(expected.getMax(), actual.getMax());
+        for (double percentile = 0; percentile <= 100; percentile += 0.5) {
+            assertEquals(expected.getValueAtPercentile(percentile), actual.getValueAtPercentile(percentile), "p" + percentile);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(30)
+class PolicyBufferTest {
+    private static final Map<String, Integer> PREP_MINUTES = Map.of("Burger", 1, "Steak", 10);
+
+    private static PolicyBuffer shortestFirst(int capacity) {
+        return new PolicyBuffer(capacity, OrderPolicy.parse("spt", OrderPolicy.DEFAULT_AGING, PREP_MINUTES));
+    }
+
+    private static OrderedMeal order(int id, String meal) {
+        return new OrderedMeal(id, meal, 1, 0, 0);
+    }
+
+    @Test
+    void drainToKeepsItsPermitsWhenInterruptedWaitingForTheMutex() throws InterruptedException {
+        PolicyBuffer buffer = shortestFirst(4);
+        buffer.produce(order(1, "Burger"));
+        buffer.produce(order(2, "Steak"));
+
+        // drainMatching tests its filter under the mutex, so a blocking filter holds the mutex
+        CountDownLatch filtering = new CountDownLatch(1);
+        CountDownLatch letGo = new CountDownLatch(1);
+        Thread holder = new Thread(() -> buffer.drainMatching(new ArrayList<>(), item -> {
+            filtering.countDown();
+            try {
+                letGo.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }, 1));
+        holder.start();
+        filtering.await();
+
+        List<BufElement> drained = new ArrayList<>();
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread consumer = new Thread(() -> {
+            try {
+                buffer.drainTo(drained, 4); // Claims the one free item permit, then waits for the mutex
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+        });
+        consumer.start();
+        while (consumer.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        consumer.interrupt();
+        Thread.sleep(50);
+        letGo.countDown();
+        holder.join(5_000);
+        consumer.join(5_000);
+
+        // Every order is still reachable: either the drain took one, or its permit went back
+        int taken = drained.size();
+        assertEquals(interrupted.get() ? 0 : 1, taken);
+        for (int i = taken; i < 2; i++) {
+            assertTrue(buffer.drainMatching(drained, item -> true, 1) == 1, "an order was stranded without a permit");
+        }
+        assertEquals(0, buffer.getCurrentSize());
+        buffer.close();
+        assertSame(BoundedBuffer.CLOSED, buffer.consume());
+    }
+
+    @Test
+    void drainToTakesOrdersByPriority() throws InterruptedException {
+        PolicyBuffer buffer = shortestFirst(8);
+        buffer.produce(order(1, "Steak"));
+        buffer.produce(order(2, "Burger"));
+        buffer.produce(order(3, "Steak"));
+        buffer.produce(order(4, "Burger"));
+        List<BufElement> drained = new ArrayList<>();
+        assertEquals(4, buffer.drainTo(drained, 10));
+        int[] expected = {2, 4, 1, 3}; // Shortest prep first, ties in arrival order
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], ((OrderedMeal) drained.get(i)).getCustomerId());
+        }
+    }
+}
@@ -0,0 +1,177 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(30)
+class RingBufferTest {
+
+    private static OrderedMeal order(int id) {
+        return new OrderedMeal(id, "Burger", 1, 0, 0);
+    }
+
+    private static int idOf(BufElement item) {
+        return ((OrderedMeal) item).getCustomerId();
+    }
+
+    @Test
+    void consumesInFifoOrderAcrossLaps() throws InterruptedException {
+        RingBuffer buffer = new RingBuffer(4);
+        int next = 0;
+        for (int lap = 0; lap < 5; lap++) {
+            for (int i = 0; i < 3; i++) {
+                buffer.produce(order(lap * 3 + i));
+            }
+            for (int i = 0; i < 3; i++) {
+                assertEquals(next++, idOf(buffer.consume()));
+            }
+        }
+        assertEquals(0, buffer.getCurrentSize());
+    }
+
+    @Test
+    void offerFailsWhenFullAndPollWhenEmpty() {
+        RingBuffer buffer = new RingBuffer(2);
+        assertTrue(buffer.offer(order(1)));
+        assertTrue(buffer.offer(order(2)));
+        assertFalse(buffer.offer(order(3)));
+        assertEquals(2, buffer.getCurrentSize());
+        assertEquals(1, idOf(buffer.poll()));
+        assertEquals(2, idOf(buffer.poll()));
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    void producerBlocksWhileFullUntilAnItemIsConsumed() throws Exception {
+        RingBuffer buffer = new RingBuffer(1);
+        buffer.produce(order(1));
+        CountDownLatch started = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            started.countDown();
+            try {
+                buffer.produce(order(2));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        started.await();
+        producer.join(200);
+        assertTrue(producer.isAlive(), "producer should block while the buffer is full");
+
+        assertEquals(1, idOf(buffer.consume()));
+        producer.join(5_000);
+        assertFalse(producer.isAlive());
+        assertEquals(2, idOf(buffer.consume()));
+    }
+
+    @Test
+    void closeWakesBlockedConsumers() throws Exception {
+        RingBuffer buffer = new RingBuffer(2);
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<BufElement>> consumers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                consumers.add(pool.submit(buffer::consume));
+            }
+            Thread.sleep(200); // Let them spin out and park
+            buffer.close();
+            for (Future<BufElement> consumer : consumers) {
+                assertSame(BoundedBuffer.CLOSED, consumer.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void closedBufferDrainsRemainingItemsThenReportsClosed() throws InterruptedException {
+        RingBuffer buffer = new RingBuffer(4);
+        buffer.produce(order(1));
+        buffer.produce(order(2));
+        buffer.close();
+        assertTrue(buffer.isClosed());
+        assertThrows(IllegalStateException.class, () -> buffer.produce(order(3)));
+
+        List<BufElement> drained = new ArrayList<>();
+        assertEquals(2, buffer.drainTo(drained, 10));
+        assertEquals(1, idOf(drained.get(0)));
+        assertEquals(2, idOf(drained.get(1)));
+        assertSame(BoundedBuffer.CLOSED, buffer.consume());
+        assertEquals(0, buffer.drainTo(drained, 10));
+    }
+
+    @Test
+    void manyProducersAndConsumersLoseAndDuplicateNothing() throws Exception {
+        stress(8, 50_000); // Small, so both sides keep parking and waking each other
+    }
+
+    @Test
+    void singleSlotBufferLosesAndDuplicatesNothing() throws Exception {
+        stress(1, 10_000);
+    }
+
+    private static void stress(int capacity, int perProducer) throws Exception {
+        int producers = 4;
+        int consumers = 4;
+        RingBuffer buffer = new RingBuffer(capacity);
+        ExecutorService pool = Executors.newFixedThreadPool(producers + consumers);
+        try {
+            List<Future<BitSet>> seen = new ArrayList<>();
+            for (int c = 0; c < consumers; c++) {
+                seen.add(pool.submit(() -> {
+                    BitSet ids = new BitSet();
+                    BufElement item;
+                    while ((item = buffer.consume()) != BoundedBuffer.CLOSED) {
+                        int id = idOf(item);
+                        if (ids.get(id)) {
+                            throw new AssertionError("Consumed twice: " + id);
+                        }
+                        ids.set(id);
+                    }
+                    return ids;
+                }));
+            }
+            List<Future<?>> produced = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int base = p * perProducer;
+                produced.add(pool.submit(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        buffer.produce(order(base + i));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> producer : produced) {
+                producer.get(20, TimeUnit.SECONDS);
+            }
+            buffer.close();
+
+            BitSet all = new BitSet();
+            int total = 0;
+            for (Future<BitSet> consumer : seen) {
+                BitSet ids = consumer.get(20, TimeUnit.SECONDS);
+                assertFalse(all.intersects(ids), "an item was consumed by two consumers");
+                all.or(ids);
+                total += ids.cardinality();
+            }
+            assertEquals(producers * perProducer, total);
+            assertEquals(producers * perProducer, all.nextClearBit(0));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(30)
+class SemaphoreTest {
+
+    // Waits until the given number of threads are parked in the semaphore's queue
+    private static void awaitQueueLength(Semaphore semaphore, int length) throws InterruptedException {
+        while (semaphore.getQueueLength() != length) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void acquireTwo(Semaphore semaphore) {
+        try {
+            semaphore.acquire(2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Thread start(Runnable body) {
+        Thread thread = new Thread(body);
+        thread.start();
+        return thread;
+    }
+
+    @Test
+    void fairSemaphoreGrantsPermitsInArrivalOrder() throws InterruptedException {
+        Semaphore semaphore = new Semaphore(0, true);
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        Thread[] waiters = new Thread[5];
+        for (int i = 0; i < waiters.length; i++) {
+            int id = i;
+            waiters[i] = start(() -> {
+                try {
+                    semaphore.acquire();
+                    order.add(id);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            awaitQueueLength(semaphore, i + 1); // Queue them one at a time so arrival order is known
+        }
+        for (int i = 0; i < waiters.length; i++) {
+            semaphore.release();
+            waiters[i].join(5_000);
+            assertEquals(i + 1, order.size());
+        }
+        assertEquals(List.of(0, 1, 2, 3, 4), order);
+    }
+
+    @Test
+    void fairSemaphoreDoesNotLetArrivalsJumpTheQueue() throws InterruptedException {
+        Semaphore semaphore = new Semaphore(0, true);
+        Thread waiter = start(() -> acquireTwo(semaphore));
+        awaitQueueLength(semaphore, 1);
+
+        semaphore.release(); // One permit free, but the queued waiter needs two
+        assertFalse(semaphore.tryAcquire());
+        assertEquals(0, semaphore.tryAcquireUpTo(1));
+        assertEquals(1, semaphore.availablePermits());
+
+        semaphore.release();
+        waiter.join(5_000);
+        assertFalse(waiter.isAlive());
+        assertEquals(0, semaphore.availablePermits());
+    }
+
+    @Test
+    void bargingSemaphoreLetsArrivalsTakeFreePermits() throws InterruptedException {
+        Semaphore semaphore = new Semaphore(0, false);
+        Thread waiter = start(() -> acquireTwo(semaphore));
+        awaitQueueLength(semaphore, 1);
+
+        semaphore.release(); // One permit free, but the queued waiter needs two
+        assertTrue(semaphore.tryAcquire());
+        assertEquals(0, semaphore.availablePermits());
+        assertTrue(waiter.isAlive());
+
+        semaphore.release(2);
+        waiter.join(5_000);
+        assertFalse(waiter.isAlive());
+        assertEquals(0, semaphore.availablePermits());
+    }
+
+    @Test
+    void timedTryAcquireExpiresWithoutAPermit() throws InterruptedException {
+        Semaphore semaphore = new Semaphore(0);
+        long start = System.nanoTime();
+        assertFalse(semaphore.tryAcquire(50, TimeUnit.MILLISECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(0, semaphore.getQueueLength());
+
+        semaphore.release(2);
+        assertFalse(semaphore.tryAcquire(3, 20, TimeUnit.MILLISECONDS));
+        assertEquals(2, semaphore.availablePermits()); // A timed-out multi-permit request takes nothing
+    }
+
+    @Test
+    void timedTryAcquireSucceedsWhenAPermitArrivesInTime() throws Exception {
+        Semaphore semaphore = new Semaphore(0);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> acquired = pool.submit(() -> semaphore.tryAcquire(10, TimeUnit.SECONDS));
+            awaitQueueLength(semaphore, 1);
+            semaphore.release();
+            assertTrue(acquired.get(5, TimeUnit.SECONDS));
+            assertEquals(0, semaphore.availablePermits());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void multiPermitAcquireWaitsForAllPermitsAtOnce() throws InterruptedException {
+        Semaphore semaphore = new Semaphore(3);
+        semaphore.acquire(2);
+        assertEquals(1, semaphore.availablePermits());
+
+        AtomicBoolean acquired = new AtomicBoolean();
+        Thread waiter = start(() -> {
+            try {
+                semaphore.acquire(3);
+                acquired.set(true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        awaitQueueLength(semaphore, 1);
+        semaphore.release();
+        Thread.sleep(50);
+        assertFalse(acquired.get(), "two of three permits must not be enough");
+        assertEquals(2, semaphore.availablePermits());
+
+        semaphore.release();
+        waiter.join(5_000);
+        assertTrue(acquired.get());
+        assertEquals(0, semaphore.availablePermits());
+    }
+
+    @Test
+    void tryAcquireUpToTakesWhatIsAvailable() {
+        Semaphore semaphore = new Semaphore(5);
+        assertEquals(3, semaphore.tryAcquireUpTo(3));
+        assertEquals(2, semaphore.availablePermits());
+        assertEquals(2, semaphore.tryAcquireUpTo(10));
+        assertEquals(0, semaphore.tryAcquireUpTo(4));
+        assertEquals(0, semaphore.tryAcquireUpTo(0));
+        assertEquals(0, semaphore.availablePermits());
+
+        semaphore.release(4);
+        assertTrue(semaphore.tryAcquire(4));
+        assertFalse(semaphore.tryAcquire(1));
+    }
+
+    @Test
+    void interruptWhileParkedThrowsAndLeavesPermitsAlone() throws Exception {
+        Semaphore semaphore = new Semaphore(1, true);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> blocked = pool.submit(() -> {
+                semaphore.acquire(2);
+                return null;
+            });
+            awaitQueueLength(semaphore, 1);
+            pool.shutdownNow(); // Interrupts the parked thread
+            try {
+                blocked.get(5, TimeUnit.SECONDS);
+                throw new AssertionError("acquire should have been interrupted");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof InterruptedException);
+            }
+            awaitQueueLength(semaphore, 0);
+            assertEquals(1, semaphore.availablePermits());
+            assertTrue(semaphore.tryAcquire()); // The cancelled waiter no longer holds back a fair semaphore
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void uninterruptibleAcquireKeepsTheInterruptStatus() throws InterruptedException {
+        Semaphore semaphore = new Semaphore(0);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread waiter = start(() -> {
+            semaphore.acquireUninterruptibly();
+            interrupted.set(Thread.currentThread().isInterrupted());
+        });
+        awaitQueueLength(semaphore, 1);
+        waiter.interrupt();
+        Thread.sleep(50);
+        assertTrue(waiter.isAlive(), "an interrupt must not end an uninterruptible wait");
+
+        semaphore.release();
+        waiter.join(5_000);
+        assertTrue(interrupted.get());
+    }
+}
@@ -0,0 +1,123 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(30)
+class TimingWheelTest {
+    // Microsecond ticks put the top level boundary (256 * 64 * 64 ticks) about a second away
+    private static final long TICK_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+    private static final long LEVEL1 = 256;
+    private static final long LEVEL2 = 256 * 64;
+    private static final long LEVEL3 = 256 * 64 * 64;
+    // Callbacks run on the ticker thread itself, so they are recorded in the order the wheel expires them
+    private static final Executor ON_TICKER = Runnable::run;
+
+    private final List<TimingWheel> wheels = new ArrayList<>();
+
+    private TimingWheel wheel(Executor dispatcher) {
+        TimingWheel wheel = TimingWheel.start(TICK_NANOS, dispatcher, "TimingWheelTest");
+        wheels.add(wheel);
+        return wheel;
+    }
+
+    @AfterEach
+    void shutdownWheels() {
+        wheels.forEach(TimingWheel::shutdown);
+    }
+
+    @Test
+    void expiresTimeoutsAroundEachLevelBoundaryInDeadlineOrderAndNeverEarly() throws InterruptedException {
+        TimingWheel wheel = wheel(ON_TICKER);
+        long[] delayTicks = {1, LEVEL1 - 1, LEVEL1, LEVEL1 + 1, LEVEL2 - 1, LEVEL2, LEVEL2 + 1,
+                LEVEL3 - 1, LEVEL3, LEVEL3 + 1};
+        long[] dueNanos = new long[delayTicks.length];
+        long[] firedNanos = new long[delayTicks.length];
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(delayTicks.length);
+        for (int i = 0; i < delayTicks.length; i++) { // Ascending delays scheduled in turn: deadlines strictly increase
+            int id = i;
+            long delayNanos = delayTicks[i] * TICK_NANOS;
+            dueNanos[i] = System.nanoTime() + delayNanos;
+            wheel.schedule(() -> {
+                firedNanos[id] = System.nanoTime();
+                order.add(id);
+                done.countDown();
+            }, delayNanos, TimeUnit.NANOSECONDS);
+        }
+        assertTrue(done.await(20, TimeUnit.SECONDS), "every timeout should expire");
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < delayTicks.length; i++) {
+            expected.add(i);
+            assertTrue(firedNanos[i] >= dueNanos[i], "timeout " + delayTicks[i] + " ticks ran early");
+        }
+        assertEquals(expected, order);
+    }
+
+    @Test
+    void timeoutsAtTheSameDeadlineAllExpire() throws InterruptedException {
+        TimingWheel wheel = wheel(ON_TICKER);
+        CountDownLatch done = new CountDownLatch(100);
+        for (int i = 0; i < 100; i++) {
+            wheel.schedule(done::countDown, LEVEL2 * TICK_NANOS, TimeUnit.NANOSECONDS);
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void cancelledTimeoutsNeverRun() throws InterruptedException {
+        TimingWheel wheel = wheel(ON_TICKER);
+        AtomicBoolean cancelledRan = new AtomicBoolean();
+        CountDownLatch done = new CountDownLatch(1);
+        TimingWheel.Timeout nearby = wheel.schedule(() -> cancelledRan.set(true), 20, TimeUnit.MILLISECONDS);
+        TimingWheel.Timeout upper = wheel.schedule(() -> cancelledRan.set(true), LEVEL2 + 10, TimeUnit.MICROSECONDS);
+        TimingWheel.Timeout kept = wheel.schedule(done::countDown, 100, TimeUnit.MILLISECONDS);
+
+        assertTrue(nearby.cancel());
+        assertTrue(upper.cancel());
+        assertFalse(nearby.cancel(), "a second cancel has nothing to cancel");
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertFalse(kept.cancel(), "a timeout that already ran cannot be cancelled");
+        Thread.sleep(50); // Past the cancelled deadlines as well
+        assertFalse(cancelledRan.get());
+    }
+
+    @Test
+    void alreadyDueTimeoutsRunStraightAway() {
+        List<String> ran = new ArrayList<>();
+        TimingWheel wheel = wheel(ON_TICKER);
+        TimingWheel.Timeout zero = wheel.schedule(() -> ran.add("zero"), 0, TimeUnit.MILLISECONDS);
+        TimingWheel.Timeout negative = wheel.schedule(() -> ran.add("negative"), -5, TimeUnit.SECONDS);
+
+        // Handed to the dispatcher on the calling thread, before schedule returns
+        assertEquals(List.of("zero", "negative"), ran);
+        assertFalse(zero.cancel());
+        assertFalse(negative.cancel());
+    }
+
+    @Test
+    void schedulingAfterShutdownIsRejected() {
+        TimingWheel wheel = wheel(ON_TICKER);
+        wheel.shutdown();
+        assertThrows(RejectedExecutionException.class, () -> wheel.schedule(() -> { }, 1, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void rejectsNonPositiveTicks() {
+        assertThrows(IllegalArgumentException.class, () -> TimingWheel.start(0, ON_TICKER, "TimingWheelTest"));
+    }
+}